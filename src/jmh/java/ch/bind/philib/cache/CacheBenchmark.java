@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.test.Traces;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the cache hot path for a matrix of cache implementations, read/write ratios and thread
+ * counts. Keys follow a zipfian distribution over four times as many keys as the caches can hold. Run with the
+ * {@code jmh} maven profile, which also reports allocation rates through the gc profiler.
+ * <p>
+ * The default parameters are kept small enough for a run of about a quarter of an hour. Further cache types,
+ * capacities and read ratios can be selected through jmh's {@code -p} option, for example
+ * {@code -Djmh.args="-p cacheType=LruCache,LruCacheOpenAddressing -p capacity=1048576 -p readPercent=99,90,70"}.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CacheBenchmark {
+
+	// a power of two, so that threads can wrap around with a mask
+	private static final int TRACE_LENGTH = 1 << 20;
+
+	// traces by capacity, shared by all trials of a fork
+	private static final Map<Integer, Integer[]> TRACES = new ConcurrentHashMap<>();
+
+	// further types: LruCacheOpenAddressing, StagedLruCacheOpenAddressing, LineCacheClock
+	@Param({"LruCache", "StagedLruCache", "LineCache", "SampledLruCache"})
+	public String cacheType;
+
+	// at most TRACE_LENGTH, the cache is warmed with the start of the trace
+	@Param({"65536"})
+	public int capacity;
+
+	@Param({"100", "95", "80"})
+	public int readPercent;
+
+	private Cache<Integer, Integer> cache;
+
+	private Integer[] trace;
+
+	@Setup
+	public void setup() {
+		switch (cacheType) {
+			case "LruCache":
+				cache = new LruCache<>(capacity);
+				break;
+			case "LruCacheOpenAddressing":
+				cache = LruCache.create(capacity, new CacheOptions<Integer, Integer>().openAddressingIndex());
+				break;
+			case "StagedLruCache":
+				cache = new StagedLruCache<>(capacity);
+				break;
+			case "StagedLruCacheOpenAddressing":
+				cache = StagedLruCache.create(capacity, new CacheOptions<Integer, Integer>().openAddressingIndex());
+				break;
+			case "LineCache":
+				cache = new LineCache<>(capacity, LineCache.DEFAULT_ORDER);
+				break;
+			case "LineCacheClock":
+				cache = LineCache.create(capacity, LineCache.DEFAULT_ORDER, new CacheOptions<Integer, Integer>().trackAccess());
+				break;
+			case "SampledLruCache":
+				cache = new SampledLruCache<>(capacity);
+				break;
+			default:
+				throw new IllegalArgumentException("unknown cache type: " + cacheType);
+		}
+		trace = TRACES.computeIfAbsent(capacity, CacheBenchmark::createTrace);
+		// warm the cache so that the measurement starts from a steady state
+		for (int i = 0; i < capacity; i++) {
+			cache.set(trace[i], trace[i]);
+		}
+	}
+
+	private static Integer[] createTrace(int capacity) {
+		long[] keys = Traces.zipf(TRACE_LENGTH, capacity * 4, 1.0, 0);
+		Integer[] trace = new Integer[TRACE_LENGTH];
+		for (int i = 0; i < TRACE_LENGTH; i++) {
+			trace[i] = (int) keys[i];
+		}
+		return trace;
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		private int pos;
+
+		private int readThreshold;
+
+		@Setup
+		public void setup(CacheBenchmark bench) {
+			// threads start at different positions of the trace
+			pos = ThreadLocalRandom.current().nextInt(TRACE_LENGTH);
+			// reads are determined by the position, so no random numbers are generated in the measured code
+			readThreshold = bench.readPercent;
+		}
+
+		int next() {
+			pos = (pos + 1) & (TRACE_LENGTH - 1);
+			return pos;
+		}
+
+		boolean isRead(int p) {
+			return (p * 0x9E3779B9 >>> 25) * 100 / 128 < readThreshold;
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void threads1(Cursor cursor, Blackhole bh) {
+		access(cursor, bh);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void threads4(Cursor cursor, Blackhole bh) {
+		access(cursor, bh);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public void threadsMax(Cursor cursor, Blackhole bh) {
+		access(cursor, bh);
+	}
+
+	private void access(Cursor cursor, Blackhole bh) {
+		final int p = cursor.next();
+		final Integer key = trace[p];
+		if (cursor.isRead(p)) {
+			bh.consume(cache.get(key));
+		} else {
+			cache.set(key, key);
+		}
+	}
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import ch.bind.philib.lang.ClonerNoop;
+import ch.bind.philib.util.ClusteredHashIndex;
+import ch.bind.philib.util.ClusteredIndex;
+import ch.bind.philib.util.LruList;
+import ch.bind.philib.validation.Validation;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static ch.bind.philib.cache.AdaptiveLruCacheEntry.B1;
+import static ch.bind.philib.cache.AdaptiveLruCacheEntry.B2;
+import static ch.bind.philib.cache.AdaptiveLruCacheEntry.T1;
+import static ch.bind.philib.cache.AdaptiveLruCacheEntry.T2;
+
+/**
+ * A cache with the adaptive replacement policy (ARC) by Megiddo and Modha.
+ * <p>
+ * Resident entries are split into a recency LRU ({@code T1}, entries which were seen once) and a frequency LRU
+ * ({@code T2}, entries which were seen at least twice). The keys of entries which were evicted from either LRU are
+ * remembered in a ghost LRU of the same capacity ({@code B1} and {@code B2}). Writing a key which is found in a ghost
+ * LRU shifts the target size of the recency LRU towards the side which would have kept the entry, so unlike the fixed
+ * generation ratio of the {@link StagedLruCache} the split between recency and frequency tunes itself to the
+ * workload.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class AdaptiveLruCache<K, V> implements Cache<K, V> {
+
+	private final LruList<AdaptiveLruCacheEntry<K, V>> t1;
+	private final LruList<AdaptiveLruCacheEntry<K, V>> t2;
+	private final LruList<AdaptiveLruCacheEntry<K, V>> b1;
+	private final LruList<AdaptiveLruCacheEntry<K, V>> b2;
+	private final ClusteredIndex<K, AdaptiveLruCacheEntry<K, V>> index;
+	private final Cloner<V> valueCloner;
+	private final StatsCounter stats;
+
+	private final int capacity;
+
+	// the target size of t1
+	private int p;
+
+	public AdaptiveLruCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public AdaptiveLruCache(int capacity) {
+		this(capacity, null);
+	}
+
+	public AdaptiveLruCache(Cloner<V> valueCloner) {
+		this(DEFAULT_CAPACITY, valueCloner);
+	}
+
+	public AdaptiveLruCache(int capacity, Cloner<V> valueCloner) {
+		this(capacity, valueCloner, false);
+	}
+
+	public AdaptiveLruCache(int capacity, Cloner<V> valueCloner, boolean recordStats) {
+		Validation.isTrue(capacity > 0, "capacity must be greater than 0");
+		this.capacity = capacity;
+		this.t1 = new LruList<>(capacity);
+		this.t2 = new LruList<>(capacity);
+		this.b1 = new LruList<>(capacity);
+		this.b2 = new LruList<>(capacity);
+		// resident entries and ghosts
+		this.index = new ClusteredHashIndex<>(capacity * 2);
+		this.valueCloner = ClonerNoop.getIfNull(valueCloner);
+		this.stats = StatsCounter.create(recordStats);
+	}
+
+	@Override
+	public synchronized void set(final K key, final V value) {
+		setImpl(key, value);
+	}
+
+	@Override
+	public synchronized V get(final K key) {
+		return getImpl(key);
+	}
+
+	@Override
+	public synchronized void remove(final K key) {
+		removeImpl(key);
+	}
+
+	@Override
+	public synchronized Map<K, V> getAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		Map<K, V> result = new HashMap<>();
+		for (K key : keys) {
+			V value = getImpl(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized void setAll(final Map<? extends K, ? extends V> entries) {
+		Validation.notNull(entries);
+		for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+			setImpl(e.getKey(), e.getValue());
+		}
+	}
+
+	@Override
+	public synchronized void removeAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		for (K key : keys) {
+			removeImpl(key);
+		}
+	}
+
+	private void setImpl(final K key, final V value) {
+		Validation.notNull(key);
+		Validation.notNull(value);
+		stats.recordPut();
+		final AdaptiveLruCacheEntry<K, V> entry = index.get(key);
+		if (entry == null) {
+			addNew(new AdaptiveLruCacheEntry<>(key, value));
+			return;
+		}
+		switch (entry.getList()) {
+			case B1:
+				// t1 was too small to keep this entry
+				p = Math.min(capacity, p + Math.max(b2.size() / b1.size(), 1));
+				b1.remove(entry);
+				revive(entry, value);
+				break;
+			case B2:
+				// t2 was too small to keep this entry
+				p = Math.max(0, p - Math.max(b1.size() / b2.size(), 1));
+				b2.remove(entry);
+				revive(entry, value);
+				break;
+			default:
+				entry.setValue(value);
+		}
+	}
+
+	private V getImpl(final K key) {
+		Validation.notNull(key);
+		final AdaptiveLruCacheEntry<K, V> entry = index.get(key);
+		if (entry == null || entry.isGhost()) {
+			stats.recordMiss();
+			return null;
+		}
+		stats.recordHit();
+		if (entry.getList() == T1) {
+			t1.remove(entry);
+			entry.setList(T2);
+			t2.add(entry);
+		} else {
+			t2.moveToHead(entry);
+		}
+		return valueCloner.clone(entry.getValue());
+	}
+
+	private void removeImpl(final K key) {
+		Validation.notNull(key);
+		final AdaptiveLruCacheEntry<K, V> entry = index.get(key);
+		if (entry != null) {
+			index.remove(entry);
+			listOf(entry).remove(entry);
+			if (!entry.isGhost()) {
+				stats.recordRemoval();
+			}
+		}
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+
+	@Override
+	public synchronized void clear() {
+		t1.clear();
+		t2.clear();
+		b1.clear();
+		b2.clear();
+		index.clear();
+		p = 0;
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats.snapshot();
+	}
+
+	/**
+	 * @return The number of entries which the policy currently aims to keep in the recency LRU, the remainder of the
+	 * capacity is targeted at the frequency LRU.
+	 */
+	public synchronized int getRecencyTarget() {
+		return p;
+	}
+
+	private void revive(final AdaptiveLruCacheEntry<K, V> ghost, final V value) {
+		replace(ghost.getList() == B2);
+		ghost.setValue(value);
+		ghost.setList(T2);
+		t2.add(ghost);
+	}
+
+	private void addNew(final AdaptiveLruCacheEntry<K, V> entry) {
+		final int l1 = t1.size() + b1.size();
+		if (l1 >= capacity) {
+			if (t1.size() < capacity) {
+				dropGhost(b1);
+				replace(false);
+			} else {
+				// b1 is empty, evict without remembering
+				AdaptiveLruCacheEntry<K, V> victim = t1.removeTail();
+				index.remove(victim);
+				stats.recordEviction();
+			}
+		} else {
+			final int total = l1 + t2.size() + b2.size();
+			if (total >= capacity) {
+				if (total >= 2 * capacity) {
+					dropGhost(b2);
+				}
+				if (t1.size() + t2.size() >= capacity) {
+					replace(false);
+				}
+			}
+		}
+		entry.setList(T1);
+		index.add(entry);
+		t1.add(entry);
+	}
+
+	/**
+	 * Moves the least recently used entry of either {@code t1} or {@code t2} into the respective ghost list if the
+	 * resident entries occupy the full capacity.
+	 */
+	private void replace(final boolean ghostOfT2) {
+		if (t1.size() + t2.size() < capacity) {
+			return;
+		}
+		final int t1Size = t1.size();
+		final boolean fromT1 = t1Size > 0 && (t1Size > p || (ghostOfT2 && t1Size == p) || t2.size() == 0);
+		if (fromT1) {
+			demote(t1.removeTail(), B1, b1);
+		} else {
+			demote(t2.removeTail(), B2, b2);
+		}
+		stats.recordEviction();
+	}
+
+	private void demote(final AdaptiveLruCacheEntry<K, V> entry, final byte ghostList,
+			final LruList<AdaptiveLruCacheEntry<K, V>> ghosts) {
+		entry.setValue(null);
+		entry.setList(ghostList);
+		AdaptiveLruCacheEntry<K, V> dropped = ghosts.add(entry);
+		if (dropped != null) {
+			index.remove(dropped);
+		}
+	}
+
+	private void dropGhost(final LruList<AdaptiveLruCacheEntry<K, V>> ghosts) {
+		AdaptiveLruCacheEntry<K, V> ghost = ghosts.removeTail();
+		if (ghost != null) {
+			index.remove(ghost);
+		}
+	}
+
+	private LruList<AdaptiveLruCacheEntry<K, V>> listOf(final AdaptiveLruCacheEntry<K, V> entry) {
+		switch (entry.getList()) {
+			case T1:
+				return t1;
+			case T2:
+				return t2;
+			case B1:
+				return b1;
+			default:
+				return b2;
+		}
+	}
+}
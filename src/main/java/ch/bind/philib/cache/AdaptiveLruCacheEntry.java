@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+final class AdaptiveLruCacheEntry<K, V> extends LruCacheEntry<K, V> {
+
+	/** Resident, seen once recently. */
+	static final byte T1 = 0;
+
+	/** Resident, seen at least twice recently. */
+	static final byte T2 = 1;
+
+	/** Ghost, evicted from T1. */
+	static final byte B1 = 2;
+
+	/** Ghost, evicted from T2. */
+	static final byte B2 = 3;
+
+	private byte list = T1;
+
+	AdaptiveLruCacheEntry(K key, V value) {
+		super(key, value);
+	}
+
+	byte getList() {
+		return list;
+	}
+
+	void setList(byte list) {
+		this.list = list;
+	}
+
+	boolean isGhost() {
+		return list >= B1;
+	}
+}
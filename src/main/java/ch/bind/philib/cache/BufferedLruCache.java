@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import ch.bind.philib.lang.ClonerNoop;
+import ch.bind.philib.util.ConcurrentClusteredHashIndex;
+import ch.bind.philib.util.LruList;
+import ch.bind.philib.validation.Validation;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A LRU cache whose reads do not take the eviction lock.
+ * <p>
+ * Lookups go through a {@link ConcurrentClusteredHashIndex} without locking. A hit is only recorded into a lossy
+ * {@link ReadBuffer} and replayed against the LRU in batches, either by the reading thread once enough accesses are
+ * pending and the eviction lock is free, or by the next writer. The LRU order is therefore only approximately correct
+ * under concurrent reads.
+ * </p>
+ * <p>
+ * Entries are never modified once they are visible to readers, overwriting a key replaces its entry.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class BufferedLruCache<K, V> implements Cache<K, V> {
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final LruList<LruCacheEntry<K, V>> lru;
+	private final ConcurrentClusteredHashIndex<K, LruCacheEntry<K, V>> index;
+	private final ReadBuffer<LruCacheEntry<K, V>> readBuffer = new ReadBuffer<>();
+	private final Consumer<LruCacheEntry<K, V>> applyRead = this::applyRead;
+	private final Cloner<V> valueCloner;
+	private final StatsCounter stats;
+
+	public BufferedLruCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public BufferedLruCache(int capacity) {
+		this(capacity, null);
+	}
+
+	public BufferedLruCache(Cloner<V> valueCloner) {
+		this(DEFAULT_CAPACITY, valueCloner);
+	}
+
+	public BufferedLruCache(int capacity, Cloner<V> valueCloner) {
+		this(capacity, valueCloner, false);
+	}
+
+	public BufferedLruCache(int capacity, Cloner<V> valueCloner, boolean recordStats) {
+		Validation.isTrue(capacity > 0, "capacity must be greater than 0");
+		this.lru = new LruList<>(capacity);
+		this.index = new ConcurrentClusteredHashIndex<>(capacity);
+		this.valueCloner = ClonerNoop.getIfNull(valueCloner);
+		this.stats = StatsCounter.create(recordStats);
+	}
+
+	@Override
+	public void set(final K key, final V value) {
+		Validation.notNull(key);
+		Validation.notNull(value);
+		final LruCacheEntry<K, V> entry = new LruCacheEntry<>(key, value);
+		stats.recordPut();
+		evictionLock.lock();
+		try {
+			readBuffer.drain(applyRead);
+			setImpl(entry);
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Sets all entries while holding the eviction lock once.
+	 */
+	@Override
+	public void setAll(final Map<? extends K, ? extends V> entries) {
+		Validation.notNull(entries);
+		evictionLock.lock();
+		try {
+			readBuffer.drain(applyRead);
+			for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+				Validation.notNull(e.getKey());
+				Validation.notNull(e.getValue());
+				stats.recordPut();
+				setImpl(new LruCacheEntry<>(e.getKey(), e.getValue()));
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	@Override
+	public V get(final K key) {
+		Validation.notNull(key);
+		final LruCacheEntry<K, V> entry = index.get(key);
+		if (entry == null) {
+			stats.recordMiss();
+			return null;
+		}
+		stats.recordHit();
+		if (readBuffer.record(entry)) {
+			tryDrain();
+		}
+		return valueCloner.clone(entry.getValue());
+	}
+
+	@Override
+	public void remove(final K key) {
+		Validation.notNull(key);
+		evictionLock.lock();
+		try {
+			readBuffer.drain(applyRead);
+			removeImpl(key);
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all keys while holding the eviction lock once.
+	 */
+	@Override
+	public void removeAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		evictionLock.lock();
+		try {
+			readBuffer.drain(applyRead);
+			for (K key : keys) {
+				Validation.notNull(key);
+				removeImpl(key);
+			}
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	@Override
+	public int capacity() {
+		return lru.capacity();
+	}
+
+	@Override
+	public void clear() {
+		evictionLock.lock();
+		try {
+			readBuffer.drain(applyRead);
+			lru.clear();
+			index.clear();
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats.snapshot();
+	}
+
+	private void setImpl(final LruCacheEntry<K, V> entry) {
+		LruCacheEntry<K, V> existing = index.get(entry.getKey());
+		if (existing != null) {
+			removeLruAndIndex(existing);
+		}
+		index.add(entry);
+		LruCacheEntry<K, V> removed = lru.add(entry);
+		if (removed != null) {
+			index.remove(removed);
+			stats.recordEviction();
+		}
+	}
+
+	private void removeImpl(final K key) {
+		LruCacheEntry<K, V> entry = index.get(key);
+		if (entry != null) {
+			removeLruAndIndex(entry);
+			stats.recordRemoval();
+		}
+	}
+
+	private void tryDrain() {
+		if (evictionLock.tryLock()) {
+			try {
+				readBuffer.drain(applyRead);
+			} finally {
+				evictionLock.unlock();
+			}
+		}
+	}
+
+	private void applyRead(final LruCacheEntry<K, V> entry) {
+		// the entry might have been evicted or removed since it was read
+		if (entry.getLruPrev() != null) {
+			lru.moveToHead(entry);
+		}
+	}
+
+	private void removeLruAndIndex(final LruCacheEntry<K, V> entry) {
+		index.remove(entry);
+		lru.remove(entry);
+	}
+}
@@ -22,6 +22,12 @@
 
 package ch.bind.philib.cache;
 
+import ch.bind.philib.validation.Validation;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * The base interface for a cache implementation.
  *
@@ -54,9 +60,62 @@ public interface Cache<K, V> {
 	 */
 	void remove(K key);
 
+	/**
+	 * Query the values of multiple keys at once. Implementations which lock their state acquire their lock once per
+	 * batch (or once per stripe touched) instead of once per key.
+	 *
+	 * @return The values which were found by their keys. Keys without a value are not part of the returned map.
+	 * @throws IllegalArgumentException if the collection or any of its keys is {@code null}.
+	 */
+	default Map<K, V> getAll(Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		Map<K, V> result = new HashMap<>();
+		for (K key : keys) {
+			V value = get(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Sets multiple key-value-pairs to the cache.
+	 *
+	 * @throws IllegalArgumentException if the map or any of its keys is {@code null}.
+	 * @see #getAll(Collection)
+	 */
+	default void setAll(Map<? extends K, ? extends V> entries) {
+		Validation.notNull(entries);
+		for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+			set(e.getKey(), e.getValue());
+		}
+	}
+
+	/**
+	 * Removes multiple key-value-pairs from the cache.
+	 *
+	 * @throws IllegalArgumentException if the collection or any of its keys is {@code null}.
+	 * @see #getAll(Collection)
+	 */
+	default void removeAll(Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		for (K key : keys) {
+			remove(key);
+		}
+	}
+
 	/** @return the capacity of this cache. */
 	int capacity();
 
 	/** Remove all elements from the cache. */
 	void clear();
+
+	/**
+	 * @return A snapshot of this cache's statistics. Caches which were constructed without statistics recording, or
+	 * which do not record statistics at all, return {@link CacheStats#EMPTY}.
+	 */
+	default CacheStats getStats() {
+		return CacheStats.EMPTY;
+	}
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import ch.bind.philib.util.ClusteredHashIndex;
+import ch.bind.philib.util.ClusteredIndex;
+import ch.bind.philib.util.ClusteredIndex.Entry;
+import ch.bind.philib.util.OpenAddressingIndex;
+import ch.bind.philib.validation.Validation;
+
+/**
+ * The optional settings of {@link LruCache}, {@link StagedLruCache} and {@link LineCache}. Every setting defaults to
+ * the behaviour of a cache which was constructed without options, setters return this object for chaining:
+ *
+ * <pre>
+ * CacheOptions&lt;String, byte[]&gt; options = new CacheOptions&lt;String, byte[]&gt;() //
+ * 		.recordStats() //
+ * 		.expiry(Expiry.afterWrite(10, TimeUnit.MINUTES)) //
+ * 		.openAddressingIndex();
+ * Cache&lt;String, byte[]&gt; cache = LruCache.create(100000, options);
+ * </pre>
+ * <p>
+ * Caches read the options when they are constructed, later changes have no effect on existing caches. Caches reject
+ * options which they do not support with an {@link IllegalArgumentException}.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class CacheOptions<K, V> {
+
+	private Cloner<V> valueCloner;
+
+	private boolean recordStats;
+
+	private Expiry expiry;
+
+	private long maxWeight = Long.MAX_VALUE;
+
+	private Weigher<K, V> weigher;
+
+	private RemovalListener<K, V> removalListener;
+
+	private boolean openAddressingIndex;
+
+	private double loadFactor = OpenAddressingIndex.DEFAULT_LOAD_FACTOR;
+
+	private boolean trackAccess;
+
+	/**
+	 * @param valueCloner The cloner for values which are returned by {@link Cache#get(Object)}, {@code null} to return
+	 *                    the cached values themselves.
+	 */
+	public CacheOptions<K, V> valueCloner(Cloner<V> valueCloner) {
+		this.valueCloner = valueCloner;
+		return this;
+	}
+
+	/**
+	 * Records statistics, see {@link Cache#getStats()}.
+	 */
+	public CacheOptions<K, V> recordStats() {
+		this.recordStats = true;
+		return this;
+	}
+
+	/**
+	 * @param expiry When entries expire, {@code null} for entries which never expire. Expired entries are counted as
+	 *               evictions.
+	 */
+	public CacheOptions<K, V> expiry(Expiry expiry) {
+		this.expiry = expiry;
+		return this;
+	}
+
+	/**
+	 * Not supported by {@link LineCache}.
+	 *
+	 * @param maxWeight The maximum total weight of all entries. Entries are evicted until the total weight fits into
+	 *                  this budget, an entry which is heavier than this budget on its own is evicted right away.
+	 * @param weigher   The weigher for entries, {@code null} if every entry weighs one.
+	 */
+	public CacheOptions<K, V> maxWeight(long maxWeight, Weigher<K, V> weigher) {
+		Validation.isTrue(maxWeight > 0, "maxWeight must be greater than 0");
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+		return this;
+	}
+
+	/**
+	 * @param removalListener The listener for removed entries, {@code null} for none. Notifications are delivered
+	 *                        after the cache released its locks.
+	 */
+	public CacheOptions<K, V> removalListener(RemovalListener<K, V> removalListener) {
+		this.removalListener = removalListener;
+		return this;
+	}
+
+	/**
+	 * Looks keys up through an {@link OpenAddressingIndex} with its default load factor instead of a chained index.
+	 * Not supported by {@link LineCache}.
+	 */
+	public CacheOptions<K, V> openAddressingIndex() {
+		return openAddressingIndex(OpenAddressingIndex.DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Like {@link #openAddressingIndex()}.
+	 *
+	 * @param loadFactor The maximum ratio of entries to slots of the index, between
+	 *                   {@link OpenAddressingIndex#MIN_LOAD_FACTOR} and {@link OpenAddressingIndex#MAX_LOAD_FACTOR}.
+	 */
+	public CacheOptions<K, V> openAddressingIndex(double loadFactor) {
+		Validation.isTrue(loadFactor >= OpenAddressingIndex.MIN_LOAD_FACTOR
+				&& loadFactor <= OpenAddressingIndex.MAX_LOAD_FACTOR, "loadFactor must be between "
+				+ OpenAddressingIndex.MIN_LOAD_FACTOR + " and " + OpenAddressingIndex.MAX_LOAD_FACTOR);
+		this.openAddressingIndex = true;
+		this.loadFactor = loadFactor;
+		return this;
+	}
+
+	/**
+	 * Records hits on the entries of a {@link LineCache} and considers them when a line is full. Recording a hit is a
+	 * plain write to the entry, reads remain lock-free. Not supported by the LRU caches, which always order their
+	 * entries by access.
+	 */
+	public CacheOptions<K, V> trackAccess() {
+		this.trackAccess = true;
+		return this;
+	}
+
+	<T extends Entry<K>> ClusteredIndex<K, T> createIndex(int capacity) {
+		if (openAddressingIndex) {
+			return new OpenAddressingIndex<>(capacity, loadFactor);
+		}
+		return new ClusteredHashIndex<>(capacity);
+	}
+
+	Cloner<V> getValueCloner() {
+		return valueCloner;
+	}
+
+	boolean isRecordStats() {
+		return recordStats;
+	}
+
+	Expiry getExpiry() {
+		return expiry;
+	}
+
+	long getMaxWeight() {
+		return maxWeight;
+	}
+
+	Weigher<K, V> getWeigher() {
+		return weigher;
+	}
+
+	RemovalListener<K, V> getRemovalListener() {
+		return removalListener;
+	}
+
+	boolean isOpenAddressingIndex() {
+		return openAddressingIndex;
+	}
+
+	boolean isTrackAccess() {
+		return trackAccess;
+	}
+
+	boolean isWeighted() {
+		return weigher != null || maxWeight != Long.MAX_VALUE;
+	}
+}
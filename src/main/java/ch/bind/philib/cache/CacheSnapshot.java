@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.io.EndianCodec;
+import ch.bind.philib.validation.Validation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the snapshot files of caches.
+ * <p>
+ * A snapshot starts with a header of four big-endian 32-bit integers: a magic number, the format version, flags and
+ * the number of records. Every record consists of an 8-bit generation marker, the length-prefixed key and, if the
+ * values flag is set, the length-prefixed value. Records are stored from the least to the most recently used entry of
+ * a generation, so that restoring them in file order reproduces the LRU order.
+ * </p>
+ * <p>
+ * Snapshots are written to a temporary file which replaces the target file once it is complete, a crash while writing
+ * never leaves a truncated snapshot behind. Snapshots are read through a memory-mapping of the file.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+final class CacheSnapshot {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CacheSnapshot.class);
+
+	static final int MAGIC = 0x50484353;
+
+	static final int VERSION = 1;
+
+	static final int FLAG_VALUES = 1;
+
+	static final int GEN_YOUNG = 0;
+
+	static final int GEN_OLD = 1;
+
+	private static final int HEADER_SIZE = 16;
+
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+	private CacheSnapshot() {
+	}
+
+	static final class Record<K, V> {
+		final K key;
+		final V value;
+		final int generation;
+
+		Record(K key, V value, int generation) {
+			this.key = key;
+			this.value = value;
+			this.generation = generation;
+		}
+	}
+
+	/**
+	 * @param valueCodec The codec for the values, {@code null} to write only the keys.
+	 */
+	static <K, V> void write(final Path file, final List<Record<K, V>> records, final SnapshotCodec<K> keyCodec,
+			final SnapshotCodec<V> valueCodec) throws IOException {
+		Validation.notNull(file);
+		Validation.notNull(keyCodec);
+		final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		final byte[] buf = new byte[WRITE_BUFFER_SIZE];
+		try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			EndianCodec.encodeInt32BE(MAGIC, buf, 0);
+			EndianCodec.encodeInt32BE(VERSION, buf, 4);
+			EndianCodec.encodeInt32BE(valueCodec == null ? 0 : FLAG_VALUES, buf, 8);
+			EndianCodec.encodeInt32BE(records.size(), buf, 12);
+			int pos = HEADER_SIZE;
+			for (Record<K, V> r : records) {
+				final byte[] key = keyCodec.encode(r.key);
+				final byte[] value = valueCodec == null ? null : valueCodec.encode(r.value);
+				if (pos + 5 > buf.length) {
+					pos = flush(ch, buf, pos);
+				}
+				EndianCodec.encodeInt8(r.generation, buf, pos);
+				pos = put(ch, buf, pos + 1, key);
+				if (value != null) {
+					pos = put(ch, buf, pos, value);
+				}
+			}
+			flush(ch, buf, pos);
+			ch.force(false);
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Writes a length-prefixed byte array into the write buffer, flushing the buffer as needed.
+	 *
+	 * @return The new position in the write buffer.
+	 */
+	private static int put(final FileChannel ch, final byte[] buf, int pos, final byte[] data) throws IOException {
+		if (pos + 4 > buf.length) {
+			pos = flush(ch, buf, pos);
+		}
+		EndianCodec.encodeInt32BE(data.length, buf, pos);
+		pos += 4;
+		if (pos + data.length > buf.length) {
+			pos = flush(ch, buf, pos);
+			if (data.length > buf.length) {
+				writeFully(ch, ByteBuffer.wrap(data));
+				return 0;
+			}
+		}
+		System.arraycopy(data, 0, buf, pos, data.length);
+		return pos + data.length;
+	}
+
+	private static int flush(final FileChannel ch, final byte[] buf, final int pos) throws IOException {
+		writeFully(ch, ByteBuffer.wrap(buf, 0, pos));
+		return 0;
+	}
+
+	private static void writeFully(final FileChannel ch, final ByteBuffer bb) throws IOException {
+		while (bb.hasRemaining()) {
+			ch.write(bb);
+		}
+	}
+
+	/**
+	 * @param valueCodec The codec for the values, {@code null} to read only the keys even if the snapshot contains
+	 *                   values.
+	 * @return The records in file order, their values are {@code null} if no values were read.
+	 * @throws IOException if the file can not be read or is not a valid snapshot.
+	 */
+	static <K, V> List<Record<K, V>> read(final Path file, final SnapshotCodec<K> keyCodec,
+			final SnapshotCodec<V> valueCodec) throws IOException {
+		Validation.notNull(file);
+		Validation.notNull(keyCodec);
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			final MappedByteBuffer mbb = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+			final byte[] scratch = new byte[HEADER_SIZE];
+			try {
+				mbb.get(scratch, 0, HEADER_SIZE);
+				if (EndianCodec.decodeInt32BE(scratch, 0) != MAGIC) {
+					throw new IOException("not a cache snapshot: " + file);
+				}
+				final int version = EndianCodec.decodeInt32BE(scratch, 4);
+				if (version != VERSION) {
+					throw new IOException("unsupported cache snapshot version " + version + ": " + file);
+				}
+				final boolean hasValues = (EndianCodec.decodeInt32BE(scratch, 8) & FLAG_VALUES) != 0;
+				final int count = EndianCodec.decodeInt32BE(scratch, 12);
+				if (valueCodec != null && !hasValues) {
+					throw new IOException("cache snapshot without values: " + file);
+				}
+				final List<Record<K, V>> records = new ArrayList<>(Math.max(0, Math.min(count, 1 << 20)));
+				for (int i = 0; i < count; i++) {
+					final int generation = mbb.get() & 0xFF;
+					final K key = keyCodec.decode(get(mbb, scratch));
+					V value = null;
+					if (hasValues) {
+						byte[] data = get(mbb, scratch);
+						if (valueCodec != null) {
+							value = valueCodec.decode(data);
+						}
+					}
+					records.add(new Record<>(key, value, generation));
+				}
+				return records;
+			} catch (BufferUnderflowException | IllegalArgumentException e) {
+				throw new IOException("corrupt cache snapshot: " + file, e);
+			}
+		}
+	}
+
+	private static byte[] get(final ByteBuffer bb, final byte[] scratch) {
+		bb.get(scratch, 0, 4);
+		final int len = EndianCodec.decodeInt32BE(scratch, 0);
+		Validation.isTrue(len >= 0 && len <= bb.remaining(), "invalid record length");
+		final byte[] data = new byte[len];
+		bb.get(data);
+		return data;
+	}
+
+	/**
+	 * Loads the values of records which were read without values.
+	 *
+	 * @return The records with their loaded values, records whose value could not be loaded are skipped.
+	 */
+	static <K, V> List<Record<K, V>> load(final List<Record<K, V>> records, final CacheLoader<K, V> loader) {
+		Validation.notNull(loader);
+		final List<Record<K, V>> loaded = new ArrayList<>(records.size());
+		int failures = 0;
+		Exception lastFailure = null;
+		for (Record<K, V> r : records) {
+			try {
+				final V value = loader.load(r.key);
+				if (value != null) {
+					loaded.add(new Record<>(r.key, value, r.generation));
+				}
+			} catch (Exception e) {
+				failures++;
+				lastFailure = e;
+			}
+		}
+		if (failures > 0) {
+			LOG.warn("failed to load " + failures + " of " + records.size() + " keys of a cache snapshot", lastFailure);
+		}
+		return loaded;
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+/**
+ * An immutable snapshot of the statistics of a cache.
+ *
+ * @author Philipp Meinen
+ */
+public final class CacheStats {
+
+	/** Statistics without any recorded events, as reported by caches which do not record statistics. */
+	public static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, 0);
+
+	private final long hits;
+	private final long misses;
+	private final long puts;
+	private final long evictions;
+	private final long removals;
+	private final long loads;
+	private final long totalLoadTimeNs;
+
+	public CacheStats(long hits, long misses, long puts, long evictions, long removals, long loads, long totalLoadTimeNs) {
+		this.hits = hits;
+		this.misses = misses;
+		this.puts = puts;
+		this.evictions = evictions;
+		this.removals = removals;
+		this.loads = loads;
+		this.totalLoadTimeNs = totalLoadTimeNs;
+	}
+
+	/** @return The number of lookups which found a value. */
+	public long getHits() {
+		return hits;
+	}
+
+	/** @return The number of lookups which did not find a value. */
+	public long getMisses() {
+		return misses;
+	}
+
+	/** @return The number of lookups, hits and misses combined. */
+	public long getRequests() {
+		return hits + misses;
+	}
+
+	/** @return The ratio of hits to lookups, {@code 1.0} if there were no lookups. */
+	public double getHitRatio() {
+		long requests = getRequests();
+		return requests == 0 ? 1.0 : ((double) hits) / requests;
+	}
+
+	/** @return The number of values which were set, new and overwritten ones. */
+	public long getPuts() {
+		return puts;
+	}
+
+	/** @return The number of entries which were removed to make space for new ones. */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/** @return The number of entries which were removed explicitly. */
+	public long getRemovals() {
+		return removals;
+	}
+
+	/** @return The number of values which were loaded by a loading cache. */
+	public long getLoads() {
+		return loads;
+	}
+
+	/** @return The total time which was spent loading values in nanoseconds. */
+	public long getTotalLoadTimeNs() {
+		return totalLoadTimeNs;
+	}
+
+	/**
+	 * @return The sum of this and another {@code CacheStats}.
+	 */
+	public CacheStats plus(CacheStats other) {
+		return new CacheStats( //
+				hits + other.hits, //
+				misses + other.misses, //
+				puts + other.puts, //
+				evictions + other.evictions, //
+				removals + other.removals, //
+				loads + other.loads, //
+				totalLoadTimeNs + other.totalLoadTimeNs);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("hits=%d, misses=%d, hitRatio=%.3f, puts=%d, evictions=%d, removals=%d, loads=%d, " + //
+				"totalLoadTimeNs=%d", hits, misses, getHitRatio(), puts, evictions, removals, loads, totalLoadTimeNs);
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.validation.Validation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes after which amount of time cache entries expire.
+ * <p>
+ * An entry expires once the configured time has passed since it was last written (expire-after-write) or since it
+ * was last read or written (expire-after-access). If both durations are configured the entry expires as soon as
+ * either of them has passed. Caches check for expiration lazily when an entry is read and remove a bounded number of
+ * expired entries whenever they are written to, no background threads are involved.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class Expiry {
+
+	/** Entries never expire. */
+	public static final Expiry NEVER = new Expiry(0, 0);
+
+	private final long afterWriteNs;
+
+	private final long afterAccessNs;
+
+	private Expiry(long afterWriteNs, long afterAccessNs) {
+		this.afterWriteNs = afterWriteNs;
+		this.afterAccessNs = afterAccessNs;
+	}
+
+	/**
+	 * @return An expiry for entries which expire once {@code duration} has passed since they were last written.
+	 * @throws IllegalArgumentException if the duration is not greater than zero.
+	 */
+	public static Expiry afterWrite(long duration, TimeUnit unit) {
+		return NEVER.andAfterWrite(duration, unit);
+	}
+
+	/**
+	 * @return An expiry for entries which expire once {@code duration} has passed since they were last read or
+	 * written.
+	 * @throws IllegalArgumentException if the duration is not greater than zero.
+	 */
+	public static Expiry afterAccess(long duration, TimeUnit unit) {
+		return NEVER.andAfterAccess(duration, unit);
+	}
+
+	/**
+	 * @return A copy of this expiry with the given expire-after-write duration.
+	 * @throws IllegalArgumentException if the duration is not greater than zero.
+	 */
+	public Expiry andAfterWrite(long duration, TimeUnit unit) {
+		return new Expiry(toNanos(duration, unit), afterAccessNs);
+	}
+
+	/**
+	 * @return A copy of this expiry with the given expire-after-access duration.
+	 * @throws IllegalArgumentException if the duration is not greater than zero.
+	 */
+	public Expiry andAfterAccess(long duration, TimeUnit unit) {
+		return new Expiry(afterWriteNs, toNanos(duration, unit));
+	}
+
+	static Expiry getIfNull(Expiry expiry) {
+		return expiry == null ? NEVER : expiry;
+	}
+
+	boolean isEnabled() {
+		return afterWriteNs != 0 || afterAccessNs != 0;
+	}
+
+	boolean tracksAccess() {
+		return afterAccessNs != 0;
+	}
+
+	/**
+	 * @param writeTimeNs  The time of the last write, as provided by {@link System#nanoTime()}.
+	 * @param accessTimeNs The time of the last read or write, as provided by {@link System#nanoTime()}.
+	 * @param nowNs        The current time, as provided by {@link System#nanoTime()}.
+	 */
+	boolean isExpired(long writeTimeNs, long accessTimeNs, long nowNs) {
+		return (afterWriteNs != 0 && nowNs - writeTimeNs >= afterWriteNs) || //
+				(afterAccessNs != 0 && nowNs - accessTimeNs >= afterAccessNs);
+	}
+
+	long now() {
+		return isEnabled() ? System.nanoTime() : 0;
+	}
+
+	private static long toNanos(long duration, TimeUnit unit) {
+		Validation.isTrue(duration > 0, "duration must be greater than zero");
+		return Validation.notNull(unit).toNanos(duration);
+	}
+
+	@Override
+	public String toString() {
+		return "Expiry[afterWriteNs=" + afterWriteNs + ", afterAccessNs=" + afterAccessNs + "]";
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.math.Calc;
+
+import java.util.Arrays;
+
+/**
+ * A count-min sketch with 4-bit counters which estimates the access frequency of keys.
+ * <p>
+ * Each {@code long} of the table holds 16 counters. A key is mapped to one counter in each of four rows, its estimated
+ * frequency is the minimum of these counters. Once the number of recorded increments reaches the sample size all
+ * counters are halved, so that the sketch ages and keys which were popular a long time ago lose their advantage.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+final class FrequencySketch {
+
+	static final int MAX_FREQUENCY = 15;
+
+	private static final int DEPTH = 4;
+
+	private static final int[] SEEDS = {0x97CB3127, 0xB492B66F, 0x9AE16A3B, 0xCBF29CE4};
+
+	// clears the highest bit of every counter after a right shift by one
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	private final long[] table;
+
+	private final int tableMask;
+
+	private final int sampleSize;
+
+	private int size;
+
+	FrequencySketch(int capacity) {
+		int len = Calc.nextPowerOfTwo(Math.max(capacity, 16));
+		this.table = new long[len];
+		this.tableMask = len - 1;
+		this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * capacity);
+	}
+
+	/**
+	 * @param hash the spread hash code of a key.
+	 * @return the estimated number of accesses of the key, up to {@link #MAX_FREQUENCY}.
+	 */
+	int frequency(int hash) {
+		int min = MAX_FREQUENCY;
+		for (int i = 0; i < DEPTH; i++) {
+			final int h = MurmurHash.murmur3_finalize_mix32(hash + SEEDS[i]);
+			final int shift = counterShift(h);
+			final int count = (int) ((table[h & tableMask] >>> shift) & 0xF);
+			min = Math.min(min, count);
+		}
+		return min;
+	}
+
+	/**
+	 * Records an access to a key.
+	 *
+	 * @param hash the spread hash code of a key.
+	 */
+	void increment(int hash) {
+		boolean added = false;
+		for (int i = 0; i < DEPTH; i++) {
+			final int h = MurmurHash.murmur3_finalize_mix32(hash + SEEDS[i]);
+			final int idx = h & tableMask;
+			final int shift = counterShift(h);
+			if (((table[idx] >>> shift) & 0xF) != MAX_FREQUENCY) {
+				table[idx] += 1L << shift;
+				added = true;
+			}
+		}
+		if (added && ++size >= sampleSize) {
+			reset();
+		}
+	}
+
+	void clear() {
+		Arrays.fill(table, 0);
+		size = 0;
+	}
+
+	private void reset() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size /= 2;
+	}
+
+	private static int counterShift(int h) {
+		// the upper 4 bits select one of the 16 counters, the lower bits select the table position
+		return (h >>> 28) << 2;
+	}
+}
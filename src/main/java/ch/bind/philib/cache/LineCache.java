@@ -27,29 +27,60 @@ import ch.bind.philib.lang.ClonerNoop;
 import ch.bind.philib.lang.MurmurHash;
 import ch.bind.philib.validation.Validation;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
 
 /**
+ * A lock-free cache which splits its capacity into lines of {@code order} entries. A key can only be stored in the line
+ * its hash points to, when a line is full the entry with the oldest insertion is replaced.
+ * <p>
+ * With access tracking enabled hits increment a small saturating reference counter on the entry and each line gets a
+ * CLOCK hand instead. When a line is full the hand sweeps over the entries, takes one reference away from every entry
+ * it passes and replaces the first entry without references.
+ * </p>
+ * <p>
+ * An 8-bit tag of every entry's hash is mirrored into a packed array, eight tags per {@code long}. Lookups compare all
+ * tags of a line word by word and only dereference the entries whose tag matches.
+ * </p>
+ *
  * @author Philipp Meinen
  */
 public final class LineCache<K, V> implements Cache<K, V> {
 
 	static final int DEFAULT_ORDER = 8;
 
+	/**
+	 * The maximum number of references which an entry can accumulate with access tracking enabled.
+	 */
+	static final int MAX_REFS = 3;
+
 	private final AtomicReferenceArray<Entry<K, V>> entries;
+	// eight 8-bit tags per word, tag 0 marks an empty slot
+	private final AtomicLongArray tags;
 	private final AtomicLong[] lineClocks;
 	private final Cloner<V> valueCloner;
+	private final StatsCounter stats;
+	private final Expiry expiry;
+	private final RemovalNotifier<K, V> notifier;
 
 	private final int lineMask;
 	private final int order;
+	private final boolean trackAccess;
+	// per line CLOCK hand, only used with access tracking, racy updates are tolerated
+	private final int[] hands;
 
 	public LineCache() {
-		this(DEFAULT_CAPACITY, DEFAULT_ORDER, null);
+		this(DEFAULT_CAPACITY, DEFAULT_ORDER, new CacheOptions<>());
 	}
 
 	public LineCache(int capacity, int order) {
-		this(capacity, order, null);
+		this(capacity, order, new CacheOptions<>());
 	}
 
 	public LineCache(Cloner<V> valueCloner) {
@@ -57,37 +88,186 @@ public final class LineCache<K, V> implements Cache<K, V> {
 	}
 
 	public LineCache(int capacity, int order, Cloner<V> valueCloner) {
+		this(capacity, order, new CacheOptions<K, V>().valueCloner(valueCloner));
+	}
+
+	private LineCache(int capacity, int order, CacheOptions<K, V> options) {
 		Validation.isTrue(capacity > 0 && order > 0, "capacity and order must be greater than zero");
 		Validation.isTrue(Integer.bitCount(order) == 1, "order must be a power of two");
 		Validation.isTrue(capacity % order == 0, "capacity must be a multiple of order");
+		Validation.notNull(options, "options must not be null");
+		Validation.isTrue(!options.isWeighted(), "maxWeight is not supported by LineCache");
+		Validation.isTrue(!options.isOpenAddressingIndex(), "openAddressingIndex is not supported by LineCache");
 
 		int lines = capacity / order;
 		this.entries = new AtomicReferenceArray<>(capacity);
+		this.tags = new AtomicLongArray((capacity + 7) / 8);
 		this.lineClocks = new AtomicLong[lines];
 		for (int i = 0; i < lines; i++) {
 			lineClocks[i] = new AtomicLong();
 		}
-		this.valueCloner = ClonerNoop.getIfNull(valueCloner);
+		this.valueCloner = ClonerNoop.getIfNull(options.getValueCloner());
 		this.order = order;
 		this.lineMask = lines - 1;
+		this.stats = StatsCounter.create(options.isRecordStats());
+		this.expiry = Expiry.getIfNull(options.getExpiry());
+		this.trackAccess = options.isTrackAccess();
+		this.hands = trackAccess ? new int[lines] : null;
+		this.notifier = RemovalNotifier.create(options.getRemovalListener());
+	}
+
+	/**
+	 * @param options The optional settings of the cache. Expired entries are removed when they are read and when a
+	 *                write to the same line encounters them. Removal notifications are delivered at the end of the
+	 *                cache operation which removed the entries. {@link CacheOptions#maxWeight(long, Weigher)} and
+	 *                {@link CacheOptions#openAddressingIndex()} are not supported.
+	 */
+	public static <K, V> LineCache<K, V> create(int capacity, int order, CacheOptions<K, V> options) {
+		return new LineCache<>(capacity, order, options);
 	}
 
 	@Override
 	public void set(final K key, final V value) {
 		Validation.notNull(key);
 		Validation.notNull(value);
+		evicted(setImpl(key, hash(key), value));
+		notifier.dispatch();
+	}
+
+	/**
+	 * Like {@link #set(Object, Object)}, but the entry which was evicted to make room is handed to {@code evicted} on
+	 * the calling thread instead of being delivered to the removal listener.
+	 */
+	void set(final K key, final V value, final BiConsumer<? super K, ? super V> evicted) {
+		Validation.notNull(key);
+		Validation.notNull(value);
+		final Entry<K, V> victim = setImpl(key, hash(key), value);
+		notifier.dispatch();
+		if (victim != null) {
+			evicted.accept(victim.key, victim.value);
+		}
+	}
+
+	/**
+	 * @return The line of a key. A write can only evict entries of its own line.
+	 */
+	int line(final Object key) {
+		return Math.abs(hash(Validation.notNull(key))) & lineMask;
+	}
+
+	@Override
+	public V get(final K key) {
+		Validation.notNull(key);
+		final V value = getImpl(key, hash(key));
+		notifier.dispatch();
+		return value;
+	}
+
+	@Override
+	public void remove(final K key) {
+		Validation.notNull(key);
+		removeImpl(key, hash(key));
+		notifier.dispatch();
+	}
+
+	/**
+	 * Queries the keys grouped by line, so that each line is scanned in one go.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Map<K, V> getAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		final Object[] ks = keys.toArray();
+		final int[] hashes = new int[ks.length];
+		final Map<K, V> result = new HashMap<>();
+		for (long lineAndIdx : groupByLine(ks, hashes)) {
+			final int i = (int) lineAndIdx;
+			final V value = getImpl((K) ks[i], hashes[i]);
+			if (value != null) {
+				result.put((K) ks[i], value);
+			}
+		}
+		notifier.dispatch();
+		return result;
+	}
+
+	/**
+	 * Sets the entries grouped by line, so that each line is scanned in one go.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void setAll(final Map<? extends K, ? extends V> entries) {
+		Validation.notNull(entries);
+		final Map.Entry<? extends K, ? extends V>[] es = entries.entrySet().toArray(new Map.Entry[0]);
+		final Object[] ks = new Object[es.length];
+		for (int i = 0; i < es.length; i++) {
+			ks[i] = es[i].getKey();
+			Validation.notNull(es[i].getValue());
+		}
+		final int[] hashes = new int[ks.length];
+		for (long lineAndIdx : groupByLine(ks, hashes)) {
+			final int i = (int) lineAndIdx;
+			evicted(setImpl(es[i].getKey(), hashes[i], es[i].getValue()));
+		}
+		notifier.dispatch();
+	}
+
+	/**
+	 * Removes the keys grouped by line, so that each line is scanned in one go.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void removeAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		final Object[] ks = keys.toArray();
+		final int[] hashes = new int[ks.length];
+		for (long lineAndIdx : groupByLine(ks, hashes)) {
+			final int i = (int) lineAndIdx;
+			removeImpl((K) ks[i], hashes[i]);
+		}
+		notifier.dispatch();
+	}
+
+	/**
+	 * Calculates the hashes of all keys and sorts the keys by the line they belong to.
+	 *
+	 * @return The line in the upper and the index of the key in the lower 32 bits, sorted by line.
+	 */
+	private long[] groupByLine(final Object[] keys, final int[] hashes) {
+		final long[] lineAndIdx = new long[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			Validation.notNull(keys[i]);
+			final int hash = hash(keys[i]);
+			hashes[i] = hash;
+			lineAndIdx[i] = ((long) (Math.abs(hash) & lineMask) << 32) | i;
+		}
+		Arrays.sort(lineAndIdx);
+		return lineAndIdx;
+	}
+
+	private void evicted(final Entry<K, V> victim) {
+		if (victim != null) {
+			notifier.enqueue(victim.key, victim.value, RemovalCause.EVICTED);
+		}
+	}
+
+	/**
+	 * @return The entry which was evicted to make room, {@code null} if none was evicted.
+	 */
+	private Entry<K, V> setImpl(final K key, final int hash, final V value) {
+		stats.recordPut();
 
-		final int hash = hash(key);
 		final int line = Math.abs(hash) & lineMask;
 		final int startIdx = line * order;
 		final int endIdx = startIdx + order;
 		final long clock = lineClocks[line].getAndIncrement();
-		final Entry<K, V> newEntry = new Entry<>(clock, key, hash, value);
+		final long now = expiry.now();
+		final Entry<K, V> newEntry = new Entry<>(clock, key, hash, value, now);
 
 		while (true) {
 			int emptyIdx = -1;
-			int lowestClockIdx = -1;
-			Entry<K, V> lowestClock = null;
+			int victimIdx = -1;
+			Entry<K, V> victim = null;
 
 			for (int i = startIdx; i < endIdx; i++) {
 				final Entry<K, V> e = entries.get(i);
@@ -99,72 +279,205 @@ public final class LineCache<K, V> implements Cache<K, V> {
 				if (e.matches(key, hash)) {
 					// override existing entries if we are not dealing with a concurrent update
 					if (e.clock < clock) {
-						entries.compareAndSet(i, e, newEntry);
+						newEntry.refs = e.refs;
+						if (entries.compareAndSet(i, e, newEntry)) {
+							publishTag(i);
+							notifier.enqueue(e.key, e.value, RemovalCause.REPLACED);
+						}
 					}
-					return;
+					return null;
+				}
+				if (e.isExpired(expiry, now)) {
+					if (entries.compareAndSet(i, e, null)) {
+						publishTag(i);
+						stats.recordEviction();
+						notifier.enqueue(e.key, e.value, RemovalCause.EXPIRED);
+						emptyIdx = i;
+					}
+					continue;
 				}
-				if (lowestClock == null || e.clock < lowestClock.clock) {
-					lowestClock = e;
-					lowestClockIdx = i;
+				if (victim == null || e.clock < victim.clock) {
+					victim = e;
+					victimIdx = i;
 				}
 			}
 			if (emptyIdx != -1 && entries.compareAndSet(emptyIdx, null, newEntry)) {
-				return;
+				publishTag(emptyIdx);
+				return null;
+			}
+			if (victimIdx != -1 && trackAccess) {
+				victimIdx = sweep(line, startIdx);
+				victim = entries.get(victimIdx);
+			}
+			if (victimIdx != -1 && victim != null && entries.compareAndSet(victimIdx, victim, newEntry)) {
+				publishTag(victimIdx);
+				stats.recordEviction();
+				return victim;
 			}
-			if (lowestClockIdx != -1 && entries.compareAndSet(lowestClockIdx, lowestClock, newEntry)) {
-				return;
+		}
+	}
+
+	/**
+	 * Advances the CLOCK hand of a line until it points to an entry without references.
+	 *
+	 * @return The index of the entry to evict.
+	 */
+	private int sweep(final int line, final int startIdx) {
+		final int mask = order - 1;
+		int hand = hands[line];
+		// every entry is out of references after MAX_REFS rounds, unless concurrent reads keep adding references
+		final int maxSteps = order * (MAX_REFS + 1);
+		for (int step = 0; step < maxSteps; step++) {
+			final int idx = startIdx + (hand & mask);
+			hand++;
+			final Entry<K, V> e = entries.get(idx);
+			if (e == null || e.refs == 0) {
+				hands[line] = hand & mask;
+				return idx;
 			}
+			e.refs--;
 		}
+		hands[line] = hand & mask;
+		return startIdx + ((hand - 1) & mask);
 	}
 
 	private static int hash(Object o) {
 		return MurmurHash.murmur3_finalize_mix32(o.hashCode());
 	}
 
-	@Override
-	public V get(final K key) {
-		Validation.notNull(key);
-
-		final int hash = hash(key);
+	private V getImpl(final K key, final int hash) {
 		final int line = Math.abs(hash) & lineMask;
 		final int startIdx = line * order;
 		final int endIdx = startIdx + order;
+		final int tag = tag(hash);
+		final long lineBytes = lineBytes(startIdx);
 
 		Entry<K, V> found = null;
-		for (int i = startIdx; i < endIdx; i++) {
-			final Entry<K, V> e = entries.get(i);
-			if (e == null || !e.matches(key, hash)) {
-				continue;
+		int foundIdx = -1;
+		for (int w = startIdx >>> 3; w <= (endIdx - 1) >>> 3; w++) {
+			long matches = matchTags(tags.get(w), tag) & lineBytes;
+			while (matches != 0) {
+				final int i = (w << 3) + (Long.numberOfTrailingZeros(matches) >>> 3);
+				matches &= matches - 1;
+				final Entry<K, V> e = entries.get(i);
+				if (e == null || !e.matches(key, hash)) {
+					continue;
+				}
+				if (found == null) {
+					found = e;
+					foundIdx = i;
+				} else if (e.clock > found.clock) {
+					// newer entry found
+					if (entries.compareAndSet(foundIdx, found, null)) {
+						publishTag(foundIdx);
+						notifier.enqueue(found.key, found.value, RemovalCause.REPLACED);
+					}
+					found = e;
+					foundIdx = i;
+				}
 			}
-			if (found == null) {
-				found = e;
-			} else if (e.clock > found.clock) {
-				// newer entry found
-				entries.compareAndSet(i, found, null);
-				found = e;
+		}
+		if (found == null) {
+			stats.recordMiss();
+			return null;
+		}
+		final long now = expiry.now();
+		if (found.isExpired(expiry, now)) {
+			if (entries.compareAndSet(foundIdx, found, null)) {
+				publishTag(foundIdx);
+				stats.recordEviction();
+				notifier.enqueue(found.key, found.value, RemovalCause.EXPIRED);
 			}
+			stats.recordMiss();
+			return null;
 		}
-		return found == null ? null : valueCloner.clone(found.value);
+		stats.recordHit();
+		if (expiry.tracksAccess()) {
+			found.accessTimeNs = now;
+		}
+		// only write when necessary, hot entries are read far more often than they are aged
+		if (trackAccess && found.refs < MAX_REFS) {
+			found.refs++;
+		}
+		return valueCloner.clone(found.value);
 	}
 
-	@Override
-	public void remove(final K key) {
-		Validation.notNull(key);
-
-		final int hash = hash(key);
+	private void removeImpl(final K key, final int hash) {
 		final int line = Math.abs(hash) & lineMask;
 		final int startIdx = line * order;
+		final int endIdx = startIdx + order;
+		final int tag = tag(hash);
+		final long lineBytes = lineBytes(startIdx);
 
-		for (int o = 0; o < order; o++) {
-			final int idx = startIdx + o;
-			final Entry<K, V> e = entries.get(idx);
-			if (e != null && e.matches(key, hash)) {
-				entries.compareAndSet(idx, e, null);
-				return;
+		for (int w = startIdx >>> 3; w <= (endIdx - 1) >>> 3; w++) {
+			long matches = matchTags(tags.get(w), tag) & lineBytes;
+			while (matches != 0) {
+				final int idx = (w << 3) + (Long.numberOfTrailingZeros(matches) >>> 3);
+				matches &= matches - 1;
+				final Entry<K, V> e = entries.get(idx);
+				if (e != null && e.matches(key, hash)) {
+					if (entries.compareAndSet(idx, e, null)) {
+						publishTag(idx);
+						stats.recordRemoval();
+						notifier.enqueue(e.key, e.value, RemovalCause.EXPLICIT);
+					}
+					return;
+				}
 			}
 		}
 	}
 
+	/**
+	 * Mirrors the tag of the entry at {@code idx} into the tag array. Concurrent writers to the same slot may publish
+	 * their tags in any order, which is why the tag of the current entry is published until the entry is stable.
+	 */
+	private void publishTag(final int idx) {
+		final int word = idx >>> 3;
+		final int shift = (idx & 7) << 3;
+		Entry<K, V> e;
+		do {
+			e = entries.get(idx);
+			final long t = e == null ? 0 : tag(e.hash);
+			long prev;
+			long next;
+			do {
+				prev = tags.get(word);
+				next = (prev & ~(0xFFL << shift)) | (t << shift);
+			} while (prev != next && !tags.compareAndSet(word, prev, next));
+		} while (entries.get(idx) != e);
+	}
+
+	/**
+	 * @return A mask which selects the bytes of a tag word which belong to the line starting at {@code startIdx}.
+	 */
+	private long lineBytes(final int startIdx) {
+		if (order >= 8) {
+			return -1L;
+		}
+		return ((1L << (order << 3)) - 1) << ((startIdx & 7) << 3);
+	}
+
+	/**
+	 * @return An 8-bit tag from the upper bits of the hash, which are not used to select the line. Never zero, which
+	 * marks empty slots.
+	 */
+	static int tag(final int hash) {
+		final int tag = hash >>> 24;
+		return tag == 0 ? 1 : tag;
+	}
+
+	/**
+	 * Compares all eight tags of a word at once.
+	 *
+	 * @return A word with the highest bit set in every byte whose tag equals {@code tag}.
+	 */
+	static long matchTags(final long word, final int tag) {
+		final long x = word ^ (tag * 0x0101010101010101L);
+		// exact zero-byte detection, no false positives from borrows across bytes
+		final long y = (x & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL;
+		return ~(y | x | 0x7F7F7F7F7F7F7F7FL);
+	}
+
 	@Override
 	public int capacity() {
 		return entries.length();
@@ -173,11 +486,29 @@ public final class LineCache<K, V> implements Cache<K, V> {
 	@Override
 	public void clear() {
 		final int cap = entries.length();
-		for (int i = 0; i < cap; i++) {
-			entries.lazySet(i, null);
+		if (notifier.isEnabled()) {
+			for (int i = 0; i < cap; i++) {
+				final Entry<K, V> e = entries.getAndSet(i, null);
+				if (e != null) {
+					notifier.enqueue(e.key, e.value, RemovalCause.EXPLICIT);
+				}
+			}
+		} else {
+			for (int i = 0; i < cap; i++) {
+				entries.lazySet(i, null);
+			}
+		}
+		for (int i = 0; i < tags.length(); i++) {
+			tags.lazySet(i, 0);
 		}
 		// write fence
 		entries.set(0, null);
+		notifier.dispatch();
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats.snapshot();
 	}
 
 	private static final class Entry<K, V> {
@@ -185,12 +516,22 @@ public final class LineCache<K, V> implements Cache<K, V> {
 		final K key;
 		final V value;
 		final int hash;
+		final long writeTimeNs;
+		volatile long accessTimeNs;
+		// plain field, concurrent increments may be lost which only makes the tracking slightly less accurate
+		int refs;
 
-		public Entry(long clock, K key, int hash, V value) {
+		public Entry(long clock, K key, int hash, V value, long writeTimeNs) {
 			this.clock = clock;
 			this.key = key;
 			this.value = value;
 			this.hash = hash;
+			this.writeTimeNs = writeTimeNs;
+			this.accessTimeNs = writeTimeNs;
+		}
+
+		boolean isExpired(final Expiry expiry, final long now) {
+			return expiry.isExpired(writeTimeNs, accessTimeNs, now);
 		}
 
 		boolean matches(final K k, final int h) {
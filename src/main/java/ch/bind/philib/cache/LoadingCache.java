@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.concurrent.SingleFlight;
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.validation.Validation;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A cache which loads values for missing keys through a {@link CacheLoader}.
+ * <p>
+ * Concurrent misses for the same key are deduplicated through a {@link SingleFlight}: only one thread invokes the
+ * loader, all other threads which miss the same key wait for and share its result. Values are stored in an arbitrary
+ * underlying {@link Cache}, its eviction policy is not affected by this class.
+ * </p>
+ * <p>
+ * Loader failures are rethrown to all waiting callers, runtime exceptions as they are and checked exceptions wrapped
+ * in a {@link CacheLoaderException}. Failed loads are not cached.
+ * </p>
+ * <p>
+ * Writes through this cache lock one of a fixed number of stripes and advance a version of the key's slot. A load or
+ * refresh only stores its result if the version of its key did not change while the loader ran, so a loaded value
+ * never overwrites a value which was set, or brings back a key which was removed, in the meantime. The result is still
+ * returned to the callers which waited for it. Versions are read without locking.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class LoadingCache<K, V> implements Cache<K, V> {
+
+	private static final int LOCK_STRIPES = 64;
+
+	// a multiple of LOCK_STRIPES, so that every version is guarded by exactly one stripe lock
+	private static final int VERSIONS = 1024;
+
+	private final Cache<K, V> cache;
+	private final CacheLoader<K, V> loader;
+	private final SingleFlight singleFlight = new SingleFlight();
+	private final StatsCounter stats;
+	private final Object[] locks = new Object[LOCK_STRIPES];
+	private final AtomicLongArray versions = new AtomicLongArray(VERSIONS);
+
+	public LoadingCache(Cache<K, V> cache, CacheLoader<K, V> loader) {
+		this(cache, loader, false);
+	}
+
+	/**
+	 * @param cache       The cache in which loaded values are stored.
+	 * @param loader      The loader for values which are not present in the cache.
+	 * @param recordStats Whether or not hits, misses and loads should be recorded by this cache, see
+	 *                    {@link #getStats()}.
+	 */
+	public LoadingCache(Cache<K, V> cache, CacheLoader<K, V> loader, boolean recordStats) {
+		this.cache = Validation.notNull(cache);
+		this.loader = Validation.notNull(loader);
+		this.stats = StatsCounter.create(recordStats);
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	@Override
+	public void set(final K key, final V value) {
+		final int slot = slot(key);
+		synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+			versions.incrementAndGet(slot);
+			cache.set(key, value);
+		}
+	}
+
+	/**
+	 * Query a value from the cache by its key, loading it if it is not present. Concurrent callers which load the
+	 * same key share the loaded value, even if the underlying cache clones its values.
+	 *
+	 * @return The cached or loaded value, {@code null} if the loader did not provide a value.
+	 * @throws IllegalArgumentException if the key is {@code null}.
+	 * @throws CacheLoaderException     if the loader failed with a checked exception or if the calling thread was
+	 *                                  interrupted while waiting for another thread's load.
+	 */
+	@Override
+	public V get(final K key) {
+		V value = cache.get(key);
+		if (value != null) {
+			stats.recordHit();
+			return value;
+		}
+		stats.recordMiss();
+		return execute(key, () -> loadIfAbsent(key));
+	}
+
+	/**
+	 * Queries all keys from the underlying cache in one batch and loads the missing ones, one key after the other.
+	 *
+	 * @return The cached or loaded values by their keys. Keys for which the loader did not provide a value are not
+	 * part of the returned map.
+	 * @throws IllegalArgumentException if the collection or any of its keys is {@code null}.
+	 * @throws CacheLoaderException     see {@link #get(Object)}.
+	 */
+	@Override
+	public Map<K, V> getAll(final Collection<? extends K> keys) {
+		Map<K, V> result = cache.getAll(keys);
+		for (K key : keys) {
+			if (result.containsKey(key)) {
+				stats.recordHit();
+				continue;
+			}
+			stats.recordMiss();
+			V value = execute(key, () -> loadIfAbsent(key));
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void setAll(final Map<? extends K, ? extends V> entries) {
+		Validation.notNull(entries);
+		withAllStripes(0, () -> {
+			for (K key : entries.keySet()) {
+				versions.incrementAndGet(slot(key));
+			}
+			cache.setAll(entries);
+		});
+	}
+
+	@Override
+	public void removeAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		withAllStripes(0, () -> {
+			for (K key : keys) {
+				versions.incrementAndGet(slot(key));
+			}
+			cache.removeAll(keys);
+		});
+	}
+
+	/**
+	 * Loads the value of a key and replaces the cached value, regardless of whether the key is present or not. If the
+	 * loader does not provide a value the key is removed from the cache. Refreshes and loads of the same key are
+	 * deduplicated the same way as concurrent misses in {@link #get(Object)}.
+	 *
+	 * @return The loaded value, {@code null} if the loader did not provide a value.
+	 * @throws IllegalArgumentException if the key is {@code null}.
+	 * @throws CacheLoaderException     if the loader failed with a checked exception or if the calling thread was
+	 *                                  interrupted while waiting for another thread's load.
+	 */
+	public V refresh(final K key) {
+		Validation.notNull(key);
+		return execute(key, () -> reload(key, version(key)));
+	}
+
+	/**
+	 * Like {@link #refresh(Object)}, but only if the key was not written to since {@code version} was read through
+	 * {@link #version(Object)}, neither before nor while the loader runs. Neither the underlying cache nor its
+	 * statistics are consulted to decide this. Conditional refreshes are deduplicated among themselves, but not with
+	 * loads and unconditional refreshes, which therefore never have to wait for a refresh that might not deliver a
+	 * value.
+	 *
+	 * @return The loaded value, {@code null} if the key was written to or if the loader did not provide a value.
+	 */
+	V refresh(final K key, final long version) {
+		Validation.notNull(key);
+		return execute(new RefreshKey(key), () -> {
+			if (versions.get(slot(key)) != version) {
+				return null;
+			}
+			return reload(key, version);
+		});
+	}
+
+	@Override
+	public void remove(final K key) {
+		final int slot = slot(key);
+		synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+			versions.incrementAndGet(slot);
+			cache.remove(key);
+		}
+	}
+
+	@Override
+	public int capacity() {
+		return cache.capacity();
+	}
+
+	@Override
+	public void clear() {
+		withAllStripes(0, () -> {
+			for (int i = 0; i < VERSIONS; i++) {
+				versions.incrementAndGet(i);
+			}
+			cache.clear();
+		});
+	}
+
+	/**
+	 * @return The hits, misses and loads as seen by the callers of this cache together with the puts, evictions and
+	 * removals of the underlying cache. If this cache does not record statistics the underlying cache's statistics
+	 * are returned.
+	 */
+	@Override
+	public CacheStats getStats() {
+		if (stats == StatsCounter.DISABLED) {
+			return cache.getStats();
+		}
+		CacheStats own = stats.snapshot();
+		CacheStats underlying = cache.getStats();
+		return new CacheStats(own.getHits(), own.getMisses(), //
+				underlying.getPuts(), underlying.getEvictions(), underlying.getRemovals(), //
+				own.getLoads(), own.getTotalLoadTimeNs());
+	}
+
+	private V execute(final Object flight, final Callable<V> callable) {
+		try {
+			return singleFlight.execute(flight, callable);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CacheLoaderException("interrupted while waiting for the value of: " + flight, e);
+		} catch (Exception e) {
+			throw new CacheLoaderException("failed to load the value of: " + flight, e);
+		}
+	}
+
+	private V loadIfAbsent(final K key) throws Exception {
+		// a previous flight for the same key might have finished between
+		// the initial lookup and the start of this flight
+		final long version = version(key);
+		V value = cache.get(key);
+		if (value != null) {
+			return value;
+		}
+		value = load(key);
+		if (value != null) {
+			install(key, value, version);
+		}
+		return value;
+	}
+
+	private V reload(final K key, final long version) throws Exception {
+		V value = load(key);
+		install(key, value, version);
+		return value;
+	}
+
+	/**
+	 * Stores a loaded value, or removes the key if the value is {@code null}, unless the key was written to since
+	 * {@code version} was read.
+	 */
+	private void install(final K key, final V value, final long version) {
+		final int slot = slot(key);
+		synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+			if (versions.get(slot) != version) {
+				return;
+			}
+			versions.incrementAndGet(slot);
+			if (value == null) {
+				cache.remove(key);
+			} else {
+				cache.set(key, value);
+			}
+		}
+	}
+
+	/**
+	 * @return The current version of the key's slot. Every write to a key advances the version of its slot, other keys
+	 * may share the slot.
+	 */
+	long version(final K key) {
+		return versions.get(slot(key));
+	}
+
+	private static int slot(final Object key) {
+		return MurmurHash.murmur3_finalize_mix32(Validation.notNull(key).hashCode()) & (VERSIONS - 1);
+	}
+
+	private void withAllStripes(final int stripe, final Runnable action) {
+		if (stripe == LOCK_STRIPES) {
+			action.run();
+			return;
+		}
+		synchronized (locks[stripe]) {
+			withAllStripes(stripe + 1, action);
+		}
+	}
+
+	private V load(final K key) throws Exception {
+		final long tStart = System.nanoTime();
+		V value = loader.load(key);
+		stats.recordLoad(System.nanoTime() - tStart);
+		return value;
+	}
+
+	// the single flight key of conditional refreshes, distinct from the key itself
+	private static final class RefreshKey {
+
+		private final Object key;
+
+		RefreshKey(Object key) {
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof RefreshKey && key.equals(((RefreshKey) obj).key);
+		}
+
+		@Override
+		public int hashCode() {
+			return ~key.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return key.toString();
+		}
+	}
+}
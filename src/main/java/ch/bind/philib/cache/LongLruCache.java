@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.math.Calc;
+import ch.bind.philib.util.IntLruList;
+import ch.bind.philib.validation.Validation;
+
+import java.util.Arrays;
+
+/**
+ * A LRU cache for {@code long} keys which does not box its keys and does not allocate on {@link #get(long)} and
+ * {@link #set(long, Object)}.
+ * <p>
+ * Every entry occupies a fixed slot. Keys and values are stored in parallel arrays which are indexed by slot, the
+ * recency of the slots is tracked by an {@link IntLruList} and the slots of keys are found through an open
+ * addressing table of slot numbers. Compared to a
+ * {@link LruCache LruCache&lt;Long, V&gt;} this saves the {@code Long} and the entry object per entry and roughly
+ * two thirds of the memory.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class LongLruCache<V> {
+
+	private static final int NONE = IntLruList.NONE;
+
+	// the keys of free slots chain the free slots
+	private final long[] keys;
+	private final Object[] values;
+
+	private final IntLruList lru;
+
+	// slot number + 1, 0 marks an empty table position
+	private final int[] table;
+	private final int tableMask;
+
+	private final StatsCounter stats;
+
+	private int freeHead;
+
+	public LongLruCache() {
+		this(Cache.DEFAULT_CAPACITY);
+	}
+
+	public LongLruCache(int capacity) {
+		this(capacity, false);
+	}
+
+	/**
+	 * @param capacity    The maximum number of entries.
+	 * @param recordStats Whether or not statistics should be recorded, see {@link #getStats()}.
+	 */
+	public LongLruCache(int capacity, boolean recordStats) {
+		Validation.isTrue(capacity > 0, "capacity must be greater than 0");
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+		this.lru = new IntLruList(capacity);
+		int tableSize = Calc.nextPowerOfTwo(Math.max(capacity * 2, 16));
+		this.table = new int[tableSize];
+		this.tableMask = tableSize - 1;
+		this.stats = StatsCounter.create(recordStats);
+		init();
+	}
+
+	public synchronized void set(final long key, final V value) {
+		Validation.notNull(value);
+		stats.recordPut();
+		final int pos = find(key);
+		if (pos != NONE) {
+			values[table[pos] - 1] = value;
+			return;
+		}
+		if (freeHead == NONE) {
+			final int tail = lru.peekTail();
+			removeSlot(tail, find(keys[tail]));
+			stats.recordEviction();
+		}
+		final int slot = freeHead;
+		freeHead = (int) keys[slot];
+		keys[slot] = key;
+		values[slot] = value;
+		lru.add(slot);
+		insert(key, slot);
+	}
+
+	@SuppressWarnings("unchecked")
+	public synchronized V get(final long key) {
+		final int pos = find(key);
+		if (pos == NONE) {
+			stats.recordMiss();
+			return null;
+		}
+		stats.recordHit();
+		final int slot = table[pos] - 1;
+		lru.moveToHead(slot);
+		return (V) values[slot];
+	}
+
+	public synchronized void remove(final long key) {
+		final int pos = find(key);
+		if (pos != NONE) {
+			removeSlot(table[pos] - 1, pos);
+			stats.recordRemoval();
+		}
+	}
+
+	public int capacity() {
+		return keys.length;
+	}
+
+	public synchronized int size() {
+		return lru.size();
+	}
+
+	public synchronized void clear() {
+		Arrays.fill(values, null);
+		Arrays.fill(table, 0);
+		init();
+	}
+
+	/**
+	 * @return A snapshot of this cache's statistics, {@link CacheStats#EMPTY} if this cache does not record
+	 * statistics.
+	 */
+	public CacheStats getStats() {
+		return stats.snapshot();
+	}
+
+	private void init() {
+		final int capacity = keys.length;
+		for (int i = 0; i < capacity; i++) {
+			keys[i] = i + 1;
+		}
+		keys[capacity - 1] = NONE;
+		freeHead = 0;
+		lru.clear();
+	}
+
+	private void removeSlot(final int slot, final int pos) {
+		lru.remove(slot);
+		delete(pos);
+		values[slot] = null;
+		keys[slot] = freeHead;
+		freeHead = slot;
+	}
+
+	private static int hash(final long key) {
+		return MurmurHash.murmur3_finalize_mix32((int) (key ^ (key >>> 32)));
+	}
+
+	private int find(final long key) {
+		int pos = hash(key) & tableMask;
+		int s;
+		while ((s = table[pos]) != 0) {
+			if (keys[s - 1] == key) {
+				return pos;
+			}
+			pos = (pos + 1) & tableMask;
+		}
+		return NONE;
+	}
+
+	private void insert(final long key, final int slot) {
+		int pos = hash(key) & tableMask;
+		while (table[pos] != 0) {
+			pos = (pos + 1) & tableMask;
+		}
+		table[pos] = slot + 1;
+	}
+
+	/**
+	 * Deletes a position from the linear probing table by shifting back subsequent entries of the same cluster, so
+	 * no tombstones are required.
+	 */
+	private void delete(int pos) {
+		int next = pos;
+		while (true) {
+			table[pos] = 0;
+			while (true) {
+				next = (next + 1) & tableMask;
+				final int s = table[next];
+				if (s == 0) {
+					return;
+				}
+				final int ideal = hash(keys[s - 1]) & tableMask;
+				// move the entry back unless its ideal position lies cyclically within (pos, next]
+				final boolean stays = pos <= next ? (pos < ideal && ideal <= next) : (pos < ideal || ideal <= next);
+				if (!stays) {
+					table[pos] = s;
+					pos = next;
+					break;
+				}
+			}
+		}
+	}
+}
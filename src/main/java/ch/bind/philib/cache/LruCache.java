@@ -24,23 +24,40 @@ package ch.bind.philib.cache;
 
 import ch.bind.philib.lang.Cloner;
 import ch.bind.philib.lang.ClonerNoop;
-import ch.bind.philib.util.ClusteredHashIndex;
 import ch.bind.philib.util.ClusteredIndex;
 import ch.bind.philib.util.LruList;
 import ch.bind.philib.validation.Validation;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 public final class LruCache<K, V> implements Cache<K, V> {
 
+	/** The maximum number of entries which are inspected for expiration on each write. */
+	static final int EXPIRE_SCAN_LIMIT = 8;
+
 	private final LruList<LruCacheEntry<K, V>> lru;
 	private final ClusteredIndex<K, LruCacheEntry<K, V>> index;
 	private final Cloner<V> valueCloner;
+	private final StatsCounter stats;
+	private final Expiry expiry;
+	private final Weigher<K, V> weigher;
+	private final long maxWeight;
+	private final RemovalNotifier<K, V> notifier;
+
+	private long weight;
 
 	public LruCache() {
 		this(DEFAULT_CAPACITY);
 	}
 
 	public LruCache(int capacity) {
-		this(capacity, null);
+		this(capacity, new CacheOptions<>());
 	}
 
 	public LruCache(Cloner<V> valueCloner) {
@@ -48,44 +65,219 @@ public final class LruCache<K, V> implements Cache<K, V> {
 	}
 
 	public LruCache(int capacity, Cloner<V> valueCloner) {
+		this(capacity, new CacheOptions<K, V>().valueCloner(valueCloner));
+	}
+
+	private LruCache(int capacity, CacheOptions<K, V> options) {
 		Validation.isTrue(capacity > 0, "capacity must be greater than 0");
+		Validation.notNull(options, "options must not be null");
+		Validation.isTrue(!options.isTrackAccess(), "trackAccess is not supported by LruCache");
 		this.lru = new LruList<>(capacity);
-		this.index = new ClusteredHashIndex<>(capacity);
-		this.valueCloner = ClonerNoop.getIfNull(valueCloner);
+		this.index = options.createIndex(capacity);
+		this.valueCloner = ClonerNoop.getIfNull(options.getValueCloner());
+		this.stats = StatsCounter.create(options.isRecordStats());
+		this.expiry = Expiry.getIfNull(options.getExpiry());
+		this.weigher = options.getWeigher() == null ? Weigher.singleton() : options.getWeigher();
+		this.maxWeight = options.getMaxWeight();
+		this.notifier = RemovalNotifier.create(options.getRemovalListener());
+	}
+
+	/**
+	 * @param capacity The maximum number of entries.
+	 * @param options  The optional settings of the cache. Least recently used entries are evicted until the total
+	 *                 weight fits into {@link CacheOptions#maxWeight(long, Weigher)}.
+	 *                 {@link CacheOptions#trackAccess()} is not supported.
+	 */
+	public static <K, V> LruCache<K, V> create(int capacity, CacheOptions<K, V> options) {
+		return new LruCache<>(capacity, options);
+	}
+
+	@Override
+	public void set(final K key, final V value) {
+		synchronized (this) {
+			setImpl(key, value);
+		}
+		notifier.dispatch();
+	}
+
+	@Override
+	public V get(final K key) {
+		final V value;
+		synchronized (this) {
+			value = getImpl(key);
+		}
+		notifier.dispatch();
+		return value;
+	}
+
+	@Override
+	public void remove(final K key) {
+		synchronized (this) {
+			removeImpl(key);
+		}
+		notifier.dispatch();
+	}
+
+	@Override
+	public Map<K, V> getAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		Map<K, V> result = new HashMap<>();
+		synchronized (this) {
+			for (K key : keys) {
+				V value = getImpl(key);
+				if (value != null) {
+					result.put(key, value);
+				}
+			}
+		}
+		notifier.dispatch();
+		return result;
+	}
+
+	@Override
+	public void setAll(final Map<? extends K, ? extends V> entries) {
+		Validation.notNull(entries);
+		synchronized (this) {
+			for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+				setImpl(e.getKey(), e.getValue());
+			}
+		}
+		notifier.dispatch();
 	}
 
 	@Override
-	public synchronized void set(final K key, final V value) {
+	public void removeAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		synchronized (this) {
+			for (K key : keys) {
+				removeImpl(key);
+			}
+		}
+		notifier.dispatch();
+	}
+
+	/**
+	 * Writes the entries of this cache to a snapshot file, from the least to the most recently used entry. The lock is
+	 * only held while the entries are collected, they are encoded and written afterwards.
+	 *
+	 * @param valueCodec The codec for the values, {@code null} to write only the keys. Such snapshots are restored
+	 *                   with {@link #readSnapshot(Path, SnapshotCodec, CacheLoader)}.
+	 * @return The number of entries written.
+	 */
+	public int writeSnapshot(final Path file, final SnapshotCodec<K> keyCodec, final SnapshotCodec<V> valueCodec)
+			throws IOException {
+		final List<CacheSnapshot.Record<K, V>> records;
+		synchronized (this) {
+			records = new ArrayList<>(lru.size());
+			for (LruCacheEntry<K, V> e = lru.peekTail(); e != null; e = lru.previous(e)) {
+				records.add(new CacheSnapshot.Record<>(e.getKey(), e.getValue(), CacheSnapshot.GEN_YOUNG));
+			}
+		}
+		CacheSnapshot.write(file, records, keyCodec, valueCodec);
+		return records.size();
+	}
+
+	/**
+	 * Restores the entries of a snapshot which was written with values. The entries are written into this cache as if
+	 * they were new, in the order of the snapshot, which may evict existing entries. Expiration starts over from the
+	 * time of the restore.
+	 *
+	 * @return The number of restored entries.
+	 * @throws IOException if the snapshot can not be read, is corrupt or does not contain values.
+	 */
+	public int readSnapshot(final Path file, final SnapshotCodec<K> keyCodec, final SnapshotCodec<V> valueCodec)
+			throws IOException {
+		Validation.notNull(valueCodec);
+		return restore(CacheSnapshot.read(file, keyCodec, valueCodec));
+	}
+
+	/**
+	 * Restores the keys of a snapshot and loads their values through {@code loader}, see
+	 * {@link #readSnapshot(Path, SnapshotCodec, SnapshotCodec)}. Keys whose values can not be loaded are skipped.
+	 *
+	 * @return The number of restored entries.
+	 * @throws IOException if the snapshot can not be read or is corrupt.
+	 */
+	public int readSnapshot(final Path file, final SnapshotCodec<K> keyCodec, final CacheLoader<K, V> loader)
+			throws IOException {
+		return restore(CacheSnapshot.load(CacheSnapshot.read(file, keyCodec, null), loader));
+	}
+
+	private int restore(final List<CacheSnapshot.Record<K, V>> records) {
+		synchronized (this) {
+			for (CacheSnapshot.Record<K, V> r : records) {
+				setImpl(r.key, r.value);
+			}
+		}
+		notifier.dispatch();
+		return records.size();
+	}
+
+	private void setImpl(final K key, final V value) {
 		Validation.notNull(key);
 		Validation.notNull(value);
+		stats.recordPut();
+		final long now = expiry.now();
+		expire(now, EXPIRE_SCAN_LIMIT);
+		final int w = Validation.notNegative(weigher.weigh(key, value), "weight must not be negative");
 		LruCacheEntry<K, V> entry = index.get(key);
 		if (entry == null) {
 			entry = new LruCacheEntry<>(key, value);
+			entry.setWritten(now);
+			entry.setWeight(w);
+			weight += w;
 			index.add(entry);
 			LruCacheEntry<K, V> removed = lru.add(entry);
 			if (removed != null) {
 				index.remove(removed);
+				weight -= removed.getWeight();
+				stats.recordEviction();
+				notifier.enqueue(removed.getKey(), removed.getValue(), RemovalCause.EVICTED);
 			}
 		} else {
+			notifier.enqueue(key, entry.getValue(), RemovalCause.REPLACED);
 			entry.setValue(value);
+			entry.setWritten(now);
+			weight += w - entry.getWeight();
+			entry.setWeight(w);
+		}
+		while (weight > maxWeight) {
+			LruCacheEntry<K, V> removed = lru.peekTail();
+			removeLruAndIndex(removed);
+			stats.recordEviction();
+			notifier.enqueue(removed.getKey(), removed.getValue(), RemovalCause.EVICTED);
 		}
 	}
 
-	@Override
-	public synchronized V get(final K key) {
+	private V getImpl(final K key) {
 		Validation.notNull(key);
 		LruCacheEntry<K, V> entry = index.get(key);
 		if (entry == null) {
+			stats.recordMiss();
 			return null;
 		}
+		final long now = expiry.now();
+		if (entry.isExpired(expiry, now)) {
+			removeLruAndIndex(entry);
+			stats.recordEviction();
+			stats.recordMiss();
+			notifier.enqueue(key, entry.getValue(), RemovalCause.EXPIRED);
+			return null;
+		}
+		stats.recordHit();
+		entry.setAccessed(now);
 		lru.moveToHead(entry);
 		return valueCloner.clone(entry.getValue());
 	}
 
-	@Override
-	public synchronized void remove(final K key) {
+	private void removeImpl(final K key) {
 		Validation.notNull(key);
-		removeLruAndIndex(index.get(key));
+		LruCacheEntry<K, V> entry = index.get(key);
+		if (entry != null) {
+			removeLruAndIndex(entry);
+			stats.recordRemoval();
+			notifier.enqueue(key, entry.getValue(), RemovalCause.EXPLICIT);
+		}
 	}
 
 	@Override
@@ -94,15 +286,67 @@ public final class LruCache<K, V> implements Cache<K, V> {
 	}
 
 	@Override
-	public synchronized void clear() {
-		lru.clear();
-		index.clear();
+	public void clear() {
+		synchronized (this) {
+			if (notifier.isEnabled()) {
+				for (LruCacheEntry<K, V> e = lru.peekTail(); e != null; e = lru.previous(e)) {
+					notifier.enqueue(e.getKey(), e.getValue(), RemovalCause.EXPLICIT);
+				}
+			}
+			lru.clear();
+			index.clear();
+			weight = 0;
+		}
+		notifier.dispatch();
+	}
+
+	/**
+	 * @return The total weight of all entries, the number of entries if this cache was constructed without a
+	 * {@link Weigher}.
+	 */
+	public synchronized long weight() {
+		return weight;
+	}
+
+	public long maxWeight() {
+		return maxWeight;
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats.snapshot();
 	}
 
-	private void removeLruAndIndex(final LruCacheEntry<K, V> entry) {
-		if (entry != null) {
-			index.remove(entry);
-			lru.remove(entry);
+	/**
+	 * Removes all expired entries. Expired entries are otherwise removed when they are read or when they are
+	 * encountered close to the tail of the LRU during writes.
+	 */
+	public void cleanUp() {
+		synchronized (this) {
+			expire(expiry.now(), Integer.MAX_VALUE);
 		}
+		notifier.dispatch();
+	}
+
+	private void expire(final long now, final int limit) {
+		if (!expiry.isEnabled()) {
+			return;
+		}
+		LruCacheEntry<K, V> entry = lru.peekTail();
+		for (int i = 0; entry != null && i < limit; i++) {
+			LruCacheEntry<K, V> prev = lru.previous(entry);
+			if (entry.isExpired(expiry, now)) {
+				removeLruAndIndex(entry);
+				stats.recordEviction();
+				notifier.enqueue(entry.getKey(), entry.getValue(), RemovalCause.EXPIRED);
+			}
+			entry = prev;
+		}
+	}
+
+	private void removeLruAndIndex(final LruCacheEntry<K, V> entry) {
+		index.remove(entry);
+		lru.remove(entry);
+		weight -= entry.getWeight();
 	}
 }
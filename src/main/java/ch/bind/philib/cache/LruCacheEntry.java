@@ -37,6 +37,12 @@ class LruCacheEntry<K, V> implements Entry<K>, LruNode {
 
 	private LruNode lruPrev;
 
+	private long writeTimeNs;
+
+	private long accessTimeNs;
+
+	private int weight;
+
 	LruCacheEntry(K key, V value) {
 		this.key = key;
 		this.value = value;
@@ -55,6 +61,27 @@ class LruCacheEntry<K, V> implements Entry<K>, LruNode {
 		return value;
 	}
 
+	void setWritten(long nowNs) {
+		this.writeTimeNs = nowNs;
+		this.accessTimeNs = nowNs;
+	}
+
+	void setAccessed(long nowNs) {
+		this.accessTimeNs = nowNs;
+	}
+
+	int getWeight() {
+		return weight;
+	}
+
+	void setWeight(int weight) {
+		this.weight = weight;
+	}
+
+	boolean isExpired(Expiry expiry, long nowNs) {
+		return expiry.isExpired(writeTimeNs, accessTimeNs, nowNs);
+	}
+
 	@Override
 	public Entry<K> getNextIndexEntry() {
 		return nextIndexEntry;
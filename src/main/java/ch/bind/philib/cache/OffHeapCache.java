@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.io.EndianCodec;
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.math.Calc;
+import ch.bind.philib.pool.manager.ByteBufferManager;
+import ch.bind.philib.validation.Validation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A cache for binary keys and values which stores its records outside of the java heap.
+ * <p>
+ * Records are appended to large direct {@link ByteBuffer} segments which are used as a ring. Once the ring is full
+ * the oldest segment is reclaimed as a whole: all records which are still live in that segment are evicted and the
+ * segment is overwritten (FIFO eviction). Overwritten and removed records keep occupying their segment until it is
+ * reclaimed.
+ * </p>
+ * <p>
+ * The index lives on the heap but consists of two primitive arrays only, an open addressing table of
+ * {@link MurmurHash#murmur3(byte[])} key hashes and record addresses. The number of objects which the garbage
+ * collector has to trace does therefore not depend on the number of cached entries.
+ * </p>
+ * <p>
+ * Keys are compared by their content. Values are copied into the cache on {@link #set(byte[], byte[])} and copied
+ * out of it on {@link #get(byte[])}. Records which do not fit into a single segment are not cached.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class OffHeapCache implements Cache<byte[], byte[]> {
+
+	public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+	public static final int DEFAULT_SEGMENTS = 16;
+
+	// hash, key length, value length
+	static final int HEADER_SIZE = 12;
+
+	private static final long EMPTY = -1;
+
+	private final ByteBufferManager bufferManager;
+	private final ByteBuffer[] segments;
+	private final int[] segmentEnds;
+	private final int segmentSize;
+
+	private final int[] hashes;
+	private final long[] addresses;
+	private final int mask;
+	private final int capacity;
+
+	private final byte[] header = new byte[HEADER_SIZE];
+	private final StatsCounter stats;
+
+	private int size;
+	private int writeSegment;
+	private int writePos;
+
+	public OffHeapCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public OffHeapCache(int capacity) {
+		this(capacity, DEFAULT_SEGMENT_SIZE, DEFAULT_SEGMENTS);
+	}
+
+	public OffHeapCache(int capacity, int segmentSize, int segments) {
+		this(capacity, segmentSize, segments, false);
+	}
+
+	/**
+	 * @param capacity    The maximum number of entries.
+	 * @param segmentSize The size of a single segment in bytes, this is also the maximum size of a record.
+	 * @param segments    The number of segments. Segments are allocated when they are written to for the first time.
+	 * @param recordStats Whether or not statistics should be recorded, see {@link #getStats()}.
+	 */
+	public OffHeapCache(int capacity, int segmentSize, int segments, boolean recordStats) {
+		Validation.isTrue(capacity > 0, "capacity must be greater than 0");
+		Validation.isTrue(segmentSize > HEADER_SIZE, "segmentSize must be greater than " + HEADER_SIZE);
+		Validation.isTrue(segments > 0, "segments must be greater than 0");
+		this.capacity = capacity;
+		this.segmentSize = segmentSize;
+		this.bufferManager = new ByteBufferManager(segmentSize, true);
+		this.segments = new ByteBuffer[segments];
+		this.segmentEnds = new int[segments];
+		int tableSize = Calc.nextPowerOfTwo(Math.max(capacity * 2, 16));
+		this.hashes = new int[tableSize];
+		this.addresses = new long[tableSize];
+		this.mask = tableSize - 1;
+		Arrays.fill(addresses, EMPTY);
+		this.stats = StatsCounter.create(recordStats);
+	}
+
+	@Override
+	public synchronized void set(final byte[] key, final byte[] value) {
+		setImpl(key, value);
+	}
+
+	@Override
+	public synchronized byte[] get(final byte[] key) {
+		return getImpl(key);
+	}
+
+	@Override
+	public synchronized void remove(final byte[] key) {
+		removeImpl(key);
+	}
+
+	/**
+	 * Note that the returned map is keyed by array identity, the caller's key instances can be used for lookups.
+	 */
+	@Override
+	public synchronized Map<byte[], byte[]> getAll(final Collection<? extends byte[]> keys) {
+		Validation.notNull(keys);
+		Map<byte[], byte[]> result = new HashMap<>();
+		for (byte[] key : keys) {
+			byte[] value = getImpl(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized void setAll(final Map<? extends byte[], ? extends byte[]> entries) {
+		Validation.notNull(entries);
+		for (Map.Entry<? extends byte[], ? extends byte[]> e : entries.entrySet()) {
+			setImpl(e.getKey(), e.getValue());
+		}
+	}
+
+	@Override
+	public synchronized void removeAll(final Collection<? extends byte[]> keys) {
+		Validation.notNull(keys);
+		for (byte[] key : keys) {
+			removeImpl(key);
+		}
+	}
+
+	private void setImpl(final byte[] key, final byte[] value) {
+		Validation.notNull(key);
+		Validation.notNull(value);
+		stats.recordPut();
+		final int hash = MurmurHash.murmur3(key);
+		final int slot = find(hash, key);
+		if (slot != -1) {
+			deleteSlot(slot);
+		}
+		final int recordSize = HEADER_SIZE + key.length + value.length;
+		if (recordSize > segmentSize) {
+			return;
+		}
+		while (size >= capacity) {
+			evictOldestSegment();
+		}
+		if (writePos + recordSize > segmentSize) {
+			advanceWriteSegment();
+		}
+		ByteBuffer buf = segment(writeSegment);
+		EndianCodec.encodeInt32BE(hash, header, 0);
+		EndianCodec.encodeInt32BE(key.length, header, 4);
+		EndianCodec.encodeInt32BE(value.length, header, 8);
+		buf.position(writePos);
+		buf.put(header);
+		buf.put(key);
+		buf.put(value);
+		insert(hash, address(writeSegment, writePos));
+		writePos += recordSize;
+		segmentEnds[writeSegment] = writePos;
+	}
+
+	private byte[] getImpl(final byte[] key) {
+		Validation.notNull(key);
+		final int slot = find(MurmurHash.murmur3(key), key);
+		if (slot == -1) {
+			stats.recordMiss();
+			return null;
+		}
+		stats.recordHit();
+		final long address = addresses[slot];
+		final ByteBuffer buf = segments[segmentOf(address)];
+		final int offset = offsetOf(address);
+		readHeader(buf, offset);
+		final int keyLen = EndianCodec.decodeInt32BE(header, 4);
+		final byte[] value = new byte[EndianCodec.decodeInt32BE(header, 8)];
+		buf.position(offset + HEADER_SIZE + keyLen);
+		buf.get(value);
+		return value;
+	}
+
+	private void removeImpl(final byte[] key) {
+		Validation.notNull(key);
+		final int slot = find(MurmurHash.murmur3(key), key);
+		if (slot != -1) {
+			deleteSlot(slot);
+			stats.recordRemoval();
+		}
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+
+	@Override
+	public synchronized void clear() {
+		Arrays.fill(addresses, EMPTY);
+		Arrays.fill(segmentEnds, 0);
+		size = 0;
+		writeSegment = 0;
+		writePos = 0;
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats.snapshot();
+	}
+
+	/**
+	 * @return The number of entries in this cache.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * @return The number of off-heap bytes which this cache occupies once all segments have been allocated.
+	 */
+	public long maxMemory() {
+		return (long) segmentSize * segments.length;
+	}
+
+	private ByteBuffer segment(final int segment) {
+		ByteBuffer buf = segments[segment];
+		if (buf == null) {
+			buf = bufferManager.create();
+			segments[segment] = buf;
+		}
+		return buf;
+	}
+
+	private void advanceWriteSegment() {
+		writeSegment = (writeSegment + 1) % segments.length;
+		writePos = 0;
+		reclaim(writeSegment);
+	}
+
+	private void evictOldestSegment() {
+		// the segment after the write segment is the oldest one
+		for (int i = 1; i <= segments.length; i++) {
+			final int segment = (writeSegment + i) % segments.length;
+			if (segmentEnds[segment] > 0) {
+				reclaim(segment);
+				if (segment == writeSegment) {
+					writePos = 0;
+				}
+				return;
+			}
+		}
+	}
+
+	private void reclaim(final int segment) {
+		final int end = segmentEnds[segment];
+		final ByteBuffer buf = segments[segment];
+		int pos = 0;
+		while (pos < end) {
+			readHeader(buf, pos);
+			final int hash = EndianCodec.decodeInt32BE(header, 0);
+			final int keyLen = EndianCodec.decodeInt32BE(header, 4);
+			final int valueLen = EndianCodec.decodeInt32BE(header, 8);
+			final int slot = findAddress(hash, address(segment, pos));
+			if (slot != -1) {
+				// the record is still live
+				deleteSlot(slot);
+				stats.recordEviction();
+			}
+			pos += HEADER_SIZE + keyLen + valueLen;
+		}
+		segmentEnds[segment] = 0;
+	}
+
+	private void readHeader(final ByteBuffer buf, final int offset) {
+		buf.position(offset);
+		buf.get(header);
+	}
+
+	private int find(final int hash, final byte[] key) {
+		int slot = hash & mask;
+		long address;
+		while ((address = addresses[slot]) != EMPTY) {
+			if (hashes[slot] == hash && keyEquals(address, key)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private int findAddress(final int hash, final long address) {
+		int slot = hash & mask;
+		long a;
+		while ((a = addresses[slot]) != EMPTY) {
+			if (a == address) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private boolean keyEquals(final long address, final byte[] key) {
+		final ByteBuffer buf = segments[segmentOf(address)];
+		final int offset = offsetOf(address);
+		if (buf.getInt(offset + 4) != key.length) {
+			return false;
+		}
+		final int keyStart = offset + HEADER_SIZE;
+		for (int i = 0; i < key.length; i++) {
+			if (buf.get(keyStart + i) != key[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void insert(final int hash, final long address) {
+		int slot = hash & mask;
+		while (addresses[slot] != EMPTY) {
+			slot = (slot + 1) & mask;
+		}
+		hashes[slot] = hash;
+		addresses[slot] = address;
+		size++;
+	}
+
+	/**
+	 * Deletes a slot from the linear probing table by shifting back subsequent entries of the same cluster, so no
+	 * tombstones are required.
+	 */
+	private void deleteSlot(int slot) {
+		size--;
+		int next = slot;
+		while (true) {
+			addresses[slot] = EMPTY;
+			while (true) {
+				next = (next + 1) & mask;
+				if (addresses[next] == EMPTY) {
+					return;
+				}
+				final int ideal = hashes[next] & mask;
+				// move the entry back unless its ideal slot lies cyclically within (slot, next]
+				final boolean stays = slot <= next ? (slot < ideal && ideal <= next) : (slot < ideal || ideal <= next);
+				if (!stays) {
+					hashes[slot] = hashes[next];
+					addresses[slot] = addresses[next];
+					slot = next;
+					break;
+				}
+			}
+		}
+	}
+
+	private static long address(final int segment, final int offset) {
+		return ((long) segment << 32) | offset;
+	}
+
+	private static int segmentOf(final long address) {
+		return (int) (address >>> 32);
+	}
+
+	private static int offsetOf(final long address) {
+		return (int) address;
+	}
+}
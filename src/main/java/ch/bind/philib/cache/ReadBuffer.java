@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.math.Calc;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A lossy buffer for recording accesses to cache entries without taking the cache's lock.
+ * <p>
+ * The buffer is striped by thread. Each stripe is a small ring buffer into which accesses are recorded with a single
+ * CAS. Accesses are dropped if a stripe is full or if a concurrent thread is recording into the same stripe. Recorded
+ * accesses must be drained periodically while holding the lock which guards the cache's eviction order.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+final class ReadBuffer<E> {
+
+	/** The number of accesses which can be buffered per stripe, must be a power of two. */
+	static final int STRIPE_SIZE = 32;
+
+	/** The number of pending accesses in a stripe after which a drain is recommended. */
+	static final int DRAIN_THRESHOLD = STRIPE_SIZE / 2;
+
+	private static final int MAX_STRIPES = 64;
+
+	private final Stripe<E>[] stripes;
+
+	private final int stripeMask;
+
+	@SuppressWarnings("unchecked")
+	ReadBuffer() {
+		int n = Calc.nextPowerOfTwo(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+		stripes = new Stripe[n];
+		for (int i = 0; i < n; i++) {
+			stripes[i] = new Stripe<>();
+		}
+		stripeMask = n - 1;
+	}
+
+	/**
+	 * Records an access.
+	 *
+	 * @return {@code true} if the stripe of the calling thread should be drained, {@code false} otherwise.
+	 */
+	boolean record(E e) {
+		int hash = MurmurHash.murmur3_finalize_mix32((int) Thread.currentThread().getId());
+		return stripes[hash & stripeMask].record(e);
+	}
+
+	/**
+	 * Replays all recorded accesses against the consumer. Must be called while holding the lock which guards the data
+	 * structures which are updated by the consumer.
+	 */
+	void drain(Consumer<E> consumer) {
+		for (Stripe<E> stripe : stripes) {
+			stripe.drain(consumer);
+		}
+	}
+
+	private static final class Stripe<E> {
+
+		private static final int MASK = STRIPE_SIZE - 1;
+
+		private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(STRIPE_SIZE);
+
+		private final AtomicLong writes = new AtomicLong();
+
+		// only written while draining
+		private volatile long reads;
+
+		boolean record(E e) {
+			final long w = writes.get();
+			final long pending = w - reads;
+			if (pending >= STRIPE_SIZE) {
+				// full, drop the access
+				return true;
+			}
+			if (writes.compareAndSet(w, w + 1)) {
+				buffer.lazySet((int) w & MASK, e);
+				return pending + 1 >= DRAIN_THRESHOLD;
+			}
+			// contended, drop the access
+			return false;
+		}
+
+		void drain(Consumer<E> consumer) {
+			long r = reads;
+			final long w = writes.get();
+			for (; r < w; r++) {
+				final int idx = (int) r & MASK;
+				final E e = buffer.get(idx);
+				if (e == null) {
+					// the slot was claimed but the recording thread has not yet stored its element
+					break;
+				}
+				buffer.lazySet(idx, null);
+				consumer.accept(e);
+			}
+			reads = r;
+		}
+	}
+}
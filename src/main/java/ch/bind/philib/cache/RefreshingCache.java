@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.validation.Validation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A loading cache with refresh-after-write semantics.
+ * <p>
+ * Missing keys are loaded synchronously just like in a {@link LoadingCache}. Once a value has reached the configured
+ * age, the next read returns the stale value immediately and triggers a single reload on the supplied
+ * {@link Executor}. When the reload finishes its value replaces the stale one in the underlying cache, but only if the
+ * key was neither set nor removed since the stale value was read. Otherwise the reloaded value is dropped, a reload
+ * which is still pending at that point does not invoke the loader at all. Reloads are deduplicated per key,
+ * concurrent reads of a stale value schedule at most one reload. Synchronous loads never wait for a reload.
+ * </p>
+ * <p>
+ * A failed reload is logged and the stale value is kept, the next read of the key schedules another reload.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class RefreshingCache<K, V> implements Cache<K, V> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RefreshingCache.class);
+
+	private final LoadingCache<K, TimedValue<V>> loading;
+	private final long refreshAfterWriteNs;
+	private final Executor executor;
+	private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+
+	public RefreshingCache(Cache<K, TimedValue<V>> cache, CacheLoader<K, V> loader, long refreshAfterWrite,
+			TimeUnit unit, Executor executor) {
+		this(cache, loader, refreshAfterWrite, unit, executor, false);
+	}
+
+	/**
+	 * @param cache             The cache in which loaded values are stored together with their write time.
+	 * @param loader            The loader for missing keys and for refreshes.
+	 * @param refreshAfterWrite The age after which a value is reloaded in the background.
+	 * @param unit              The unit of {@code refreshAfterWrite}.
+	 * @param executor          The executor on which refreshes are performed.
+	 * @param recordStats       Whether or not hits, misses and loads should be recorded, see {@link #getStats()}.
+	 */
+	public RefreshingCache(Cache<K, TimedValue<V>> cache, CacheLoader<K, V> loader, long refreshAfterWrite,
+			TimeUnit unit, Executor executor, boolean recordStats) {
+		Validation.notNull(loader);
+		Validation.isTrue(refreshAfterWrite > 0, "refreshAfterWrite must be greater than zero");
+		this.refreshAfterWriteNs = Validation.notNull(unit).toNanos(refreshAfterWrite);
+		this.executor = Validation.notNull(executor);
+		this.loading = new LoadingCache<>(cache, key -> TimedValue.of(loader.load(key)), recordStats);
+	}
+
+	@Override
+	public void set(final K key, final V value) {
+		loading.set(key, TimedValue.of(value));
+	}
+
+	/**
+	 * Query a value from the cache by its key, loading it if it is not present. If the value is older than the
+	 * configured refresh age it is returned nonetheless and a reload is scheduled on the executor.
+	 *
+	 * @return The cached or loaded value, {@code null} if the loader did not provide a value.
+	 * @throws IllegalArgumentException if the key is {@code null}.
+	 * @throws CacheLoaderException     if a synchronous load failed with a checked exception or if the calling thread
+	 *                                  was interrupted while waiting for another thread's load.
+	 */
+	@Override
+	public V get(final K key) {
+		// read before the value, so that any later write invalidates the refresh
+		final long version = loading.version(key);
+		TimedValue<V> timed = loading.get(key);
+		if (timed == null) {
+			return null;
+		}
+		// a refresh of a value which was just written, e.g. loaded by this call, would be dropped anyway
+		if (System.nanoTime() - timed.writeTimeNs >= refreshAfterWriteNs && loading.version(key) == version) {
+			scheduleRefresh(key, version);
+		}
+		return timed.value;
+	}
+
+	@Override
+	public void remove(final K key) {
+		loading.remove(key);
+	}
+
+	@Override
+	public int capacity() {
+		return loading.capacity();
+	}
+
+	@Override
+	public void clear() {
+		loading.clear();
+	}
+
+	/**
+	 * @return The statistics of the underlying {@link LoadingCache}, refreshes are counted as loads.
+	 */
+	@Override
+	public CacheStats getStats() {
+		return loading.getStats();
+	}
+
+	private void scheduleRefresh(final K key, final long version) {
+		if (!refreshing.add(key)) {
+			// a refresh of this key is already pending
+			return;
+		}
+		try {
+			executor.execute(() -> refresh(key, version));
+		} catch (RejectedExecutionException e) {
+			refreshing.remove(key);
+			LOG.warn("refresh of " + key + " was rejected by the executor", e);
+		}
+	}
+
+	private void refresh(final K key, final long version) {
+		try {
+			loading.refresh(key, version);
+		} catch (RuntimeException e) {
+			LOG.warn("refresh of " + key + " failed: " + e.getMessage(), e);
+		} finally {
+			refreshing.remove(key);
+		}
+	}
+
+	/**
+	 * A value together with the time at which it was written to a {@link RefreshingCache}.
+	 *
+	 * @author Philipp Meinen
+	 */
+	public static final class TimedValue<V> {
+
+		private final V value;
+
+		private final long writeTimeNs;
+
+		TimedValue(V value, long writeTimeNs) {
+			this.value = value;
+			this.writeTimeNs = writeTimeNs;
+		}
+
+		static <V> TimedValue<V> of(V value) {
+			return value == null ? null : new TimedValue<>(value, System.nanoTime());
+		}
+
+		public V getValue() {
+			return value;
+		}
+
+		/**
+		 * @return The write time as reported by {@link System#nanoTime()}.
+		 */
+		public long getWriteTimeNs() {
+			return writeTimeNs;
+		}
+	}
+}
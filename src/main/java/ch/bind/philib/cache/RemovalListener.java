@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.validation.Validation;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Receives the entries which are removed from a cache, for example to release pooled resources or to write back
+ * modified values.
+ * <p>
+ * Caches queue the notifications while they hold their locks and deliver them to the listener after the locks have
+ * been released, on the thread which caused the removals. Slow listeners therefore never extend lock hold times, but
+ * they still delay the cache operation which triggered them. Use {@link #async(RemovalListener, Executor)} to deliver
+ * the notifications on an executor instead.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+@FunctionalInterface
+public interface RemovalListener<K, V> {
+
+	/**
+	 * @param key   The key of the removed entry.
+	 * @param value The value of the removed entry, the old value if the cause is {@link RemovalCause#REPLACED}.
+	 * @param cause Why the entry was removed.
+	 */
+	void onRemoval(K key, V value, RemovalCause cause);
+
+	/**
+	 * @return A listener which hands every notification to {@code executor} for delivery to {@code listener}.
+	 * Notifications may then be delivered concurrently and out of order, depending on the executor.
+	 */
+	static <K, V> RemovalListener<K, V> async(RemovalListener<K, V> listener, Executor executor) {
+		Validation.notNull(listener);
+		Validation.notNull(executor);
+		return (key, value, cause) -> executor.execute(() -> listener.onRemoval(key, value, cause));
+	}
+}
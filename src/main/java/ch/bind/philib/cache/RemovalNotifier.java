@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Queues removal notifications while a cache holds its lock and delivers them once the lock has been released.
+ * Caches without a listener use {@link #DISABLED}, whose methods are empty.
+ *
+ * @author Philipp Meinen
+ */
+class RemovalNotifier<K, V> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RemovalNotifier.class);
+
+	@SuppressWarnings("rawtypes")
+	private static final RemovalNotifier DISABLED = new RemovalNotifier<>(null) {
+
+		@Override
+		boolean isEnabled() {
+			return false;
+		}
+
+		@Override
+		void enqueue(Object key, Object value, RemovalCause cause) {
+		}
+
+		@Override
+		void dispatch() {
+		}
+	};
+
+	private final RemovalListener<K, V> listener;
+
+	private final ConcurrentLinkedQueue<Notification<K, V>> queue = new ConcurrentLinkedQueue<>();
+
+	private RemovalNotifier(RemovalListener<K, V> listener) {
+		this.listener = listener;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <K, V> RemovalNotifier<K, V> create(RemovalListener<K, V> listener) {
+		return listener == null ? DISABLED : new RemovalNotifier<>(listener);
+	}
+
+	/**
+	 * @return Whether a listener is registered, caches can skip work which is only needed for notifications if not.
+	 */
+	boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * Queues a notification, may be called while holding a lock.
+	 */
+	void enqueue(K key, V value, RemovalCause cause) {
+		queue.add(new Notification<>(key, value, cause));
+	}
+
+	/**
+	 * Delivers all queued notifications, must be called without holding a lock. Notifications which were queued by
+	 * other threads may be delivered as well.
+	 */
+	void dispatch() {
+		Notification<K, V> n;
+		while ((n = queue.poll()) != null) {
+			try {
+				listener.onRemoval(n.key, n.value, n.cause);
+			} catch (RuntimeException e) {
+				LOG.warn("removal listener failed for " + n.key + ": " + e.getMessage(), e);
+			}
+		}
+	}
+
+	private static final class Notification<K, V> {
+		final K key;
+		final V value;
+		final RemovalCause cause;
+
+		Notification(K key, V value, RemovalCause cause) {
+			this.key = key;
+			this.value = value;
+			this.cause = cause;
+		}
+	}
+}
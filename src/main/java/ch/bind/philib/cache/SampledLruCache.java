@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import ch.bind.philib.lang.ClonerNoop;
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.math.Calc;
+import ch.bind.philib.validation.Validation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A cache which approximates LRU by sampling, similar to the eviction of redis.
+ * <p>
+ * Entries are stored in an open-addressing table of parallel arrays for keys, values and access stamps, there are no
+ * per-entry objects. The access stamp is taken from a logical clock which advances with every write. When the cache
+ * is full, a write samples a number of entries from a random position of the table and evicts the one with the
+ * oldest access stamp. Caches whose capacity is not larger than the number of samples evict the least recently used
+ * entry.
+ * </p>
+ * <p>
+ * Writes are serialized by a lock. Reads are optimistic and take no lock unless they race with a write, recording an
+ * access is a plain write of the current clock into the stamp array.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class SampledLruCache<K, V> implements Cache<K, V> {
+
+	/** The default number of entries which are compared to find an eviction victim. */
+	public static final int DEFAULT_SAMPLES = 5;
+
+	private final Object[] keys;
+	private final Object[] values;
+	private final int[] stamps;
+	private final StampedLock lock = new StampedLock();
+	private final Cloner<V> valueCloner;
+	private final StatsCounter stats;
+
+	private final int capacity;
+	private final int samples;
+	private final int mask;
+
+	// advanced by writes, which hold the write lock
+	private volatile int clock;
+
+	private int size;
+
+	private int rnd = 0x2545F491;
+
+	public SampledLruCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public SampledLruCache(int capacity) {
+		this(capacity, null);
+	}
+
+	public SampledLruCache(Cloner<V> valueCloner) {
+		this(DEFAULT_CAPACITY, valueCloner);
+	}
+
+	public SampledLruCache(int capacity, Cloner<V> valueCloner) {
+		this(capacity, valueCloner, false);
+	}
+
+	public SampledLruCache(int capacity, Cloner<V> valueCloner, boolean recordStats) {
+		this(capacity, DEFAULT_SAMPLES, valueCloner, recordStats);
+	}
+
+	/**
+	 * @param capacity    The maximum number of entries.
+	 * @param samples     The number of entries which are compared to find an eviction victim. More samples come
+	 *                    closer to LRU at the cost of slower evictions.
+	 * @param valueCloner The cloner for values which are returned by {@link #get(Object)}, may be {@code null}.
+	 * @param recordStats Whether or not statistics should be recorded, see {@link #getStats()}.
+	 */
+	public SampledLruCache(int capacity, int samples, Cloner<V> valueCloner, boolean recordStats) {
+		Validation.isTrue(capacity > 0, "capacity must be greater than 0");
+		Validation.isTrue(samples > 0, "samples must be greater than 0");
+		Validation.isTrue(capacity <= (1 << 29), "capacity is too large");
+		this.capacity = capacity;
+		this.samples = samples;
+		// a load factor between 0.375 and 0.75
+		final int tableSize = Calc.nextPowerOfTwo(Math.max(2, (int) Calc.ceilDiv(capacity * 4L, 3)));
+		this.keys = new Object[tableSize];
+		this.values = new Object[tableSize];
+		this.stamps = new int[tableSize];
+		this.mask = tableSize - 1;
+		this.valueCloner = ClonerNoop.getIfNull(valueCloner);
+		this.stats = StatsCounter.create(recordStats);
+	}
+
+	@Override
+	public void set(final K key, final V value) {
+		Validation.notNull(key);
+		Validation.notNull(value);
+		final long stamp = lock.writeLock();
+		try {
+			setImpl(key, value);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(final K key) {
+		Validation.notNull(key);
+		final int hash = hash(key);
+		int idx;
+		Object value;
+		long stamp = lock.tryOptimisticRead();
+		if (stamp != 0) {
+			// the table may be modified concurrently, the result is only used if no write happened in the meantime
+			idx = indexOf(key, hash);
+			value = idx == -1 ? null : values[idx];
+			if (!lock.validate(stamp)) {
+				stamp = 0;
+			}
+		} else {
+			idx = -1;
+			value = null;
+		}
+		if (stamp == 0) {
+			stamp = lock.readLock();
+			try {
+				idx = indexOf(key, hash);
+				value = idx == -1 ? null : values[idx];
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		if (value == null) {
+			stats.recordMiss();
+			return null;
+		}
+		// if a write moved the entry in the meantime another entry appears recently used, which is acceptable
+		stamps[idx] = clock;
+		stats.recordHit();
+		return valueCloner.clone((V) value);
+	}
+
+	@Override
+	public void remove(final K key) {
+		Validation.notNull(key);
+		final long stamp = lock.writeLock();
+		try {
+			removeImpl(key);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void setAll(final Map<? extends K, ? extends V> entries) {
+		Validation.notNull(entries);
+		final long stamp = lock.writeLock();
+		try {
+			for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+				Validation.notNull(e.getKey());
+				Validation.notNull(e.getValue());
+				setImpl(e.getKey(), e.getValue());
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void removeAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		final long stamp = lock.writeLock();
+		try {
+			for (K key : keys) {
+				Validation.notNull(key);
+				removeImpl(key);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	private void setImpl(final K key, final V value) {
+		stats.recordPut();
+		final int now = clock + 1;
+		clock = now;
+		final int hash = hash(key);
+		int idx = indexOf(key, hash);
+		if (idx == -1) {
+			if (size == capacity) {
+				delete(sampleVictim(now));
+				stats.recordEviction();
+			}
+			idx = hash & mask;
+			while (keys[idx] != null) {
+				idx = (idx + 1) & mask;
+			}
+			keys[idx] = key;
+			size++;
+		}
+		values[idx] = value;
+		stamps[idx] = now;
+	}
+
+	private void removeImpl(final K key) {
+		final int idx = indexOf(key, hash(key));
+		if (idx != -1) {
+			delete(idx);
+			stats.recordRemoval();
+		}
+	}
+
+	/**
+	 * @return The slot of the key or -1 if the key is not in the table.
+	 */
+	private int indexOf(final Object key, final int hash) {
+		int idx = hash & mask;
+		// bounded, concurrent writes may leave an optimistic reader without an empty slot to stop at
+		for (int i = 0; i <= mask; i++) {
+			final Object k = keys[idx];
+			if (k == null) {
+				return -1;
+			}
+			if (k == key || k.equals(key)) {
+				return idx;
+			}
+			idx = (idx + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Compares the next {@code samples} entries from a random position of the table.
+	 *
+	 * @return The slot of the entry with the oldest access stamp.
+	 */
+	private int sampleVictim(final int now) {
+		int x = rnd;
+		x ^= x << 13;
+		x ^= x >>> 17;
+		x ^= x << 5;
+		rnd = x;
+
+		int idx = x & mask;
+		int victim = -1;
+		int victimAge = -1;
+		for (int found = 0; found < samples && found < size; idx = (idx + 1) & mask) {
+			if (keys[idx] == null) {
+				continue;
+			}
+			found++;
+			// ages instead of stamps, so that a wrap-around of the clock does not matter
+			final int age = now - stamps[idx];
+			if (age > victimAge || victim == -1) {
+				victim = idx;
+				victimAge = age;
+			}
+		}
+		return victim;
+	}
+
+	/**
+	 * Removes the entry of a slot and shifts the following entries of its probe sequence back, so that lookups never
+	 * need tombstones.
+	 */
+	private void delete(int idx) {
+		int next = idx;
+		while (true) {
+			next = (next + 1) & mask;
+			final Object k = keys[next];
+			if (k == null) {
+				break;
+			}
+			final int home = hash(k) & mask;
+			// the entry may move into the hole if its home slot is not between the hole and its current slot
+			if (((next - home) & mask) >= ((next - idx) & mask)) {
+				keys[idx] = k;
+				values[idx] = values[next];
+				stamps[idx] = stamps[next];
+				idx = next;
+			}
+		}
+		keys[idx] = null;
+		values[idx] = null;
+		size--;
+	}
+
+	private static int hash(final Object key) {
+		return MurmurHash.murmur3_finalize_mix32(key.hashCode());
+	}
+
+	/**
+	 * @return The number of entries in this cache.
+	 */
+	public int size() {
+		final long stamp = lock.readLock();
+		try {
+			return size;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+
+	@Override
+	public void clear() {
+		final long stamp = lock.writeLock();
+		try {
+			Arrays.fill(keys, null);
+			Arrays.fill(values, null);
+			size = 0;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats.snapshot();
+	}
+}
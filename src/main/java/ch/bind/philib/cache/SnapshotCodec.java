@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.io.EndianCodec;
+import ch.bind.philib.validation.Validation;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts keys or values of a cache to and from bytes for cache snapshots.
+ *
+ * @author Philipp Meinen
+ * @see LruCache#writeSnapshot(java.nio.file.Path, SnapshotCodec, SnapshotCodec)
+ * @see StagedLruCache#writeSnapshot(java.nio.file.Path, SnapshotCodec, SnapshotCodec)
+ */
+public interface SnapshotCodec<T> {
+
+	byte[] encode(T value);
+
+	T decode(byte[] data);
+
+	/**
+	 * @return A codec for strings in UTF-8.
+	 */
+	static SnapshotCodec<String> utf8() {
+		return new SnapshotCodec<String>() {
+
+			@Override
+			public byte[] encode(String value) {
+				return value.getBytes(StandardCharsets.UTF_8);
+			}
+
+			@Override
+			public String decode(byte[] data) {
+				return new String(data, StandardCharsets.UTF_8);
+			}
+		};
+	}
+
+	/**
+	 * @return A codec for longs in eight big-endian bytes.
+	 */
+	static SnapshotCodec<Long> int64() {
+		return new SnapshotCodec<Long>() {
+
+			@Override
+			public byte[] encode(Long value) {
+				byte[] data = new byte[8];
+				EndianCodec.encodeInt64BE(value, data);
+				return data;
+			}
+
+			@Override
+			public Long decode(byte[] data) {
+				Validation.isTrue(data.length == 8, "not an encoded long");
+				return EndianCodec.decodeInt64BE(data);
+			}
+		};
+	}
+}
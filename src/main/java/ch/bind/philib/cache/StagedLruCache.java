@@ -25,11 +25,18 @@ package ch.bind.philib.cache;
 import ch.bind.philib.lang.Cloner;
 import ch.bind.philib.lang.ClonerNoop;
 import ch.bind.philib.math.Calc;
-import ch.bind.philib.util.ClusteredHashIndex;
 import ch.bind.philib.util.ClusteredIndex;
 import ch.bind.philib.util.LruList;
 import ch.bind.philib.validation.Validation;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 public final class StagedLruCache<K, V> implements Cache<K, V> {
 
 	/** The default capacity of an object cache relative to its capacity. */
@@ -42,10 +49,20 @@ public final class StagedLruCache<K, V> implements Cache<K, V> {
 
 	private static final double MAX_OLD_GEN_RATIO = 0.9;
 
+	/** The maximum number of entries per generation which are inspected for expiration on each write. */
+	static final int EXPIRE_SCAN_LIMIT = 8;
+
 	private final LruList<StagedLruCacheEntry<K, V>> lruYoungGen;
 	private final LruList<StagedLruCacheEntry<K, V>> lruOldGen;
 	private final ClusteredIndex<K, StagedLruCacheEntry<K, V>> index;
 	private final Cloner<V> valueCloner;
+	private final StatsCounter stats;
+	private final Expiry expiry;
+	private final Weigher<K, V> weigher;
+	private final long maxWeight;
+	private final RemovalNotifier<K, V> notifier;
+
+	private long weight;
 
 	private final int oldGenAfterHits;
 	private final int capacity;
@@ -63,7 +80,13 @@ public final class StagedLruCache<K, V> implements Cache<K, V> {
 	}
 
 	public StagedLruCache(int capacity, Cloner<V> valueCloner, double oldGenRatio, int oldGenAfterHits) {
+		this(capacity, oldGenRatio, oldGenAfterHits, new CacheOptions<K, V>().valueCloner(valueCloner));
+	}
+
+	private StagedLruCache(int capacity, double oldGenRatio, int oldGenAfterHits, CacheOptions<K, V> options) {
 		Validation.isTrue(capacity > 0, "capacity must be greater than 0");
+		Validation.notNull(options, "options must not be null");
+		Validation.isTrue(!options.isTrackAccess(), "trackAccess is not supported by StagedLruCache");
 
 		this.capacity = capacity;
 		this.oldGenAfterHits = Math.max(1, oldGenAfterHits);
@@ -72,32 +95,224 @@ public final class StagedLruCache<K, V> implements Cache<K, V> {
 		int youngCap = this.capacity - oldCap;
 		this.lruYoungGen = new LruList<>(youngCap);
 		this.lruOldGen = new LruList<>(oldCap);
-		this.index = new ClusteredHashIndex<>(capacity);
-		this.valueCloner = ClonerNoop.getIfNull(valueCloner);
+		this.index = options.createIndex(capacity);
+		this.valueCloner = ClonerNoop.getIfNull(options.getValueCloner());
+		this.stats = StatsCounter.create(options.isRecordStats());
+		this.expiry = Expiry.getIfNull(options.getExpiry());
+		this.weigher = options.getWeigher() == null ? Weigher.singleton() : options.getWeigher();
+		this.maxWeight = options.getMaxWeight();
+		this.notifier = RemovalNotifier.create(options.getRemovalListener());
+	}
+
+	/**
+	 * Creates a cache with the default generation ratio and promotion threshold.
+	 *
+	 * @see #create(int, double, int, CacheOptions)
+	 */
+	public static <K, V> StagedLruCache<K, V> create(int capacity, CacheOptions<K, V> options) {
+		return new StagedLruCache<>(capacity, DEFAULT_OLD_GEN_RATIO, DEFAULT_OLD_GEN_AFTER_HITS, options);
+	}
+
+	/**
+	 * @param options The optional settings of the cache. When the budget of
+	 *                {@link CacheOptions#maxWeight(long, Weigher)} is exceeded the least recently used entries of the
+	 *                young generation are evicted first, those of the old generation only once the young generation is
+	 *                empty. {@link CacheOptions#trackAccess()} is not supported.
+	 */
+	public static <K, V> StagedLruCache<K, V> create(int capacity, double oldGenRatio, int oldGenAfterHits,
+			CacheOptions<K, V> options) {
+		return new StagedLruCache<>(capacity, oldGenRatio, oldGenAfterHits, options);
 	}
 
 	// TODO: remove code duplication with LruCache
 	@Override
-	public synchronized void set(final K key, final V value) {
+	public void set(final K key, final V value) {
+		synchronized (this) {
+			setImpl(key, value);
+		}
+		notifier.dispatch();
+	}
+
+	@Override
+	public V get(final K key) {
+		final V value;
+		synchronized (this) {
+			value = getImpl(key);
+		}
+		notifier.dispatch();
+		return value;
+	}
+
+	@Override
+	public void remove(final K key) {
+		synchronized (this) {
+			removeImpl(key);
+		}
+		notifier.dispatch();
+	}
+
+	@Override
+	public Map<K, V> getAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		Map<K, V> result = new HashMap<>();
+		synchronized (this) {
+			for (K key : keys) {
+				V value = getImpl(key);
+				if (value != null) {
+					result.put(key, value);
+				}
+			}
+		}
+		notifier.dispatch();
+		return result;
+	}
+
+	@Override
+	public void setAll(final Map<? extends K, ? extends V> entries) {
+		Validation.notNull(entries);
+		synchronized (this) {
+			for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+				setImpl(e.getKey(), e.getValue());
+			}
+		}
+		notifier.dispatch();
+	}
+
+	@Override
+	public void removeAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		synchronized (this) {
+			for (K key : keys) {
+				removeImpl(key);
+			}
+		}
+		notifier.dispatch();
+	}
+
+	/**
+	 * Writes the entries of this cache to a snapshot file, the old generation first, each generation from the least to
+	 * the most recently used entry. The generation of every entry is recorded, restored entries of the old generation
+	 * go straight back into the old generation. The lock is only held while the entries are collected, they are
+	 * encoded and written afterwards.
+	 *
+	 * @param valueCodec The codec for the values, {@code null} to write only the keys. Such snapshots are restored
+	 *                   with {@link #readSnapshot(Path, SnapshotCodec, CacheLoader)}.
+	 * @return The number of entries written.
+	 */
+	public int writeSnapshot(final Path file, final SnapshotCodec<K> keyCodec, final SnapshotCodec<V> valueCodec)
+			throws IOException {
+		final List<CacheSnapshot.Record<K, V>> records;
+		synchronized (this) {
+			records = new ArrayList<>(lruOldGen.size() + lruYoungGen.size());
+			collect(lruOldGen, CacheSnapshot.GEN_OLD, records);
+			collect(lruYoungGen, CacheSnapshot.GEN_YOUNG, records);
+		}
+		CacheSnapshot.write(file, records, keyCodec, valueCodec);
+		return records.size();
+	}
+
+	/**
+	 * Restores the entries of a snapshot which was written with values. The entries are written into this cache as if
+	 * they were new, in the order of the snapshot, which may evict existing entries. Expiration starts over from the
+	 * time of the restore.
+	 *
+	 * @return The number of restored entries.
+	 * @throws IOException if the snapshot can not be read, is corrupt or does not contain values.
+	 */
+	public int readSnapshot(final Path file, final SnapshotCodec<K> keyCodec, final SnapshotCodec<V> valueCodec)
+			throws IOException {
+		Validation.notNull(valueCodec);
+		return restore(CacheSnapshot.read(file, keyCodec, valueCodec));
+	}
+
+	/**
+	 * Restores the keys of a snapshot and loads their values through {@code loader}, see
+	 * {@link #readSnapshot(Path, SnapshotCodec, SnapshotCodec)}. Keys whose values can not be loaded are skipped.
+	 *
+	 * @return The number of restored entries.
+	 * @throws IOException if the snapshot can not be read or is corrupt.
+	 */
+	public int readSnapshot(final Path file, final SnapshotCodec<K> keyCodec, final CacheLoader<K, V> loader)
+			throws IOException {
+		return restore(CacheSnapshot.load(CacheSnapshot.read(file, keyCodec, null), loader));
+	}
+
+	private static <K, V> void collect(final LruList<StagedLruCacheEntry<K, V>> lru, final int generation,
+			final List<CacheSnapshot.Record<K, V>> records) {
+		for (StagedLruCacheEntry<K, V> e = lru.peekTail(); e != null; e = lru.previous(e)) {
+			records.add(new CacheSnapshot.Record<>(e.getKey(), e.getValue(), generation));
+		}
+	}
+
+	private int restore(final List<CacheSnapshot.Record<K, V>> records) {
+		synchronized (this) {
+			for (CacheSnapshot.Record<K, V> r : records) {
+				setImpl(r.key, r.value);
+				if (r.generation == CacheSnapshot.GEN_OLD) {
+					final StagedLruCacheEntry<K, V> entry = index.get(r.key);
+					if (entry != null && entry.isInYoungGen()) {
+						entry.resetHits();
+						lruYoungGen.remove(entry);
+						addOldGen(entry);
+					}
+				}
+			}
+		}
+		notifier.dispatch();
+		return records.size();
+	}
+
+	private void setImpl(final K key, final V value) {
 		Validation.notNull(key);
 		Validation.notNull(value);
+		stats.recordPut();
+		final long now = expiry.now();
+		expire(lruYoungGen, now, EXPIRE_SCAN_LIMIT);
+		expire(lruOldGen, now, EXPIRE_SCAN_LIMIT);
+		final int w = Validation.notNegative(weigher.weigh(key, value), "weight must not be negative");
 		StagedLruCacheEntry<K, V> entry = index.get(key);
 		if (entry == null) {
 			entry = new StagedLruCacheEntry<>(key, value);
+			entry.setWritten(now);
+			entry.setWeight(w);
+			weight += w;
 			index.add(entry);
 			addYoungGen(entry);
 		} else {
+			notifier.enqueue(key, entry.getValue(), RemovalCause.REPLACED);
 			entry.setValue(value);
+			entry.setWritten(now);
+			weight += w - entry.getWeight();
+			entry.setWeight(w);
+		}
+		while (weight > maxWeight) {
+			StagedLruCacheEntry<K, V> removed = lruYoungGen.peekTail();
+			if (removed == null) {
+				removed = lruOldGen.peekTail();
+			}
+			removeLruAndIndex(removed);
+			stats.recordEviction();
+			notifier.enqueue(removed.getKey(), removed.getValue(), RemovalCause.EVICTED);
 		}
 	}
 
-	@Override
-	public synchronized V get(final K key) {
+	private V getImpl(final K key) {
 		Validation.notNull(key);
 		final StagedLruCacheEntry<K, V> entry = index.get(key);
 		if (entry == null) {
+			stats.recordMiss();
 			return null;
 		}
+		final long now = expiry.now();
+		if (entry.isExpired(expiry, now)) {
+			removeLruAndIndex(entry);
+			stats.recordEviction();
+			stats.recordMiss();
+			notifier.enqueue(key, entry.getValue(), RemovalCause.EXPIRED);
+			return null;
+		}
+		stats.recordHit();
+		entry.setAccessed(now);
 		if (entry.isInYoungGen()) {
 			int hits = entry.recordHit();
 			if (hits >= oldGenAfterHits) {
@@ -113,10 +328,14 @@ public final class StagedLruCache<K, V> implements Cache<K, V> {
 		return valueCloner.clone(entry.getValue());
 	}
 
-	@Override
-	public synchronized void remove(final K key) {
+	private void removeImpl(final K key) {
 		Validation.notNull(key);
-		removeLruAndIndex(index.get(key));
+		StagedLruCacheEntry<K, V> entry = index.get(key);
+		if (entry != null) {
+			removeLruAndIndex(entry);
+			stats.recordRemoval();
+			notifier.enqueue(key, entry.getValue(), RemovalCause.EXPLICIT);
+		}
 	}
 
 	@Override
@@ -125,20 +344,79 @@ public final class StagedLruCache<K, V> implements Cache<K, V> {
 	}
 
 	@Override
-	public synchronized void clear() {
-		lruYoungGen.clear();
-		lruOldGen.clear();
-		index.clear();
+	public void clear() {
+		synchronized (this) {
+			if (notifier.isEnabled()) {
+				enqueueAll(lruYoungGen);
+				enqueueAll(lruOldGen);
+			}
+			lruYoungGen.clear();
+			lruOldGen.clear();
+			index.clear();
+			weight = 0;
+		}
+		notifier.dispatch();
 	}
 
-	private void removeLruAndIndex(final StagedLruCacheEntry<K, V> entry) {
-		if (entry != null) {
-			index.remove(entry);
-			if (entry.isInYoungGen()) {
-				lruYoungGen.remove(entry);
-			} else {
-				lruOldGen.remove(entry);
+	private void enqueueAll(final LruList<StagedLruCacheEntry<K, V>> lru) {
+		for (StagedLruCacheEntry<K, V> e = lru.peekTail(); e != null; e = lru.previous(e)) {
+			notifier.enqueue(e.getKey(), e.getValue(), RemovalCause.EXPLICIT);
+		}
+	}
+
+	/**
+	 * @return The total weight of all entries, the number of entries if this cache was constructed without a
+	 * {@link Weigher}.
+	 */
+	public synchronized long weight() {
+		return weight;
+	}
+
+	public long maxWeight() {
+		return maxWeight;
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats.snapshot();
+	}
+
+	/**
+	 * Removes all expired entries. Expired entries are otherwise removed when they are read or when they are
+	 * encountered close to the tail of either generation during writes.
+	 */
+	public void cleanUp() {
+		synchronized (this) {
+			final long now = expiry.now();
+			expire(lruYoungGen, now, Integer.MAX_VALUE);
+			expire(lruOldGen, now, Integer.MAX_VALUE);
+		}
+		notifier.dispatch();
+	}
+
+	private void expire(final LruList<StagedLruCacheEntry<K, V>> lru, final long now, final int limit) {
+		if (!expiry.isEnabled()) {
+			return;
+		}
+		StagedLruCacheEntry<K, V> entry = lru.peekTail();
+		for (int i = 0; entry != null && i < limit; i++) {
+			StagedLruCacheEntry<K, V> prev = lru.previous(entry);
+			if (entry.isExpired(expiry, now)) {
+				removeLruAndIndex(entry);
+				stats.recordEviction();
+				notifier.enqueue(entry.getKey(), entry.getValue(), RemovalCause.EXPIRED);
 			}
+			entry = prev;
+		}
+	}
+
+	private void removeLruAndIndex(final StagedLruCacheEntry<K, V> entry) {
+		index.remove(entry);
+		weight -= entry.getWeight();
+		if (entry.isInYoungGen()) {
+			lruYoungGen.remove(entry);
+		} else {
+			lruOldGen.remove(entry);
 		}
 	}
 
@@ -147,6 +425,9 @@ public final class StagedLruCache<K, V> implements Cache<K, V> {
 		StagedLruCacheEntry<K, V> removed = lruYoungGen.add(entry);
 		if (removed != null) {
 			index.remove(removed);
+			weight -= removed.getWeight();
+			stats.recordEviction();
+			notifier.enqueue(removed.getKey(), removed.getValue(), RemovalCause.EVICTED);
 		}
 	}
 
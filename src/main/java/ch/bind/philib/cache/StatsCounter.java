@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the statistics of a cache.
+ * <p>
+ * The counters are striped, so that concurrent recordings from different threads do not contend on the same memory
+ * location. Caches which do not record statistics use {@link #DISABLED}, whose methods are empty.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+class StatsCounter {
+
+	static final StatsCounter DISABLED = new StatsCounter() {
+
+		@Override
+		void recordHit() {
+		}
+
+		@Override
+		void recordMiss() {
+		}
+
+		@Override
+		void recordPut() {
+		}
+
+		@Override
+		void recordEviction() {
+		}
+
+		@Override
+		void recordRemoval() {
+		}
+
+		@Override
+		void recordLoad(long timeNs) {
+		}
+
+		@Override
+		CacheStats snapshot() {
+			return CacheStats.EMPTY;
+		}
+	};
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder puts = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder removals = new LongAdder();
+	private final LongAdder loads = new LongAdder();
+	private final LongAdder totalLoadTimeNs = new LongAdder();
+
+	static StatsCounter create(boolean recordStats) {
+		return recordStats ? new StatsCounter() : DISABLED;
+	}
+
+	void recordHit() {
+		hits.increment();
+	}
+
+	void recordMiss() {
+		misses.increment();
+	}
+
+	void recordPut() {
+		puts.increment();
+	}
+
+	void recordEviction() {
+		evictions.increment();
+	}
+
+	void recordRemoval() {
+		removals.increment();
+	}
+
+	void recordLoad(long timeNs) {
+		loads.increment();
+		totalLoadTimeNs.add(timeNs);
+	}
+
+	CacheStats snapshot() {
+		return new CacheStats(hits.sum(), misses.sum(), puts.sum(), evictions.sum(), removals.sum(), loads.sum(),
+				totalLoadTimeNs.sum());
+	}
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import ch.bind.philib.lang.ClonerNoop;
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.util.ClusteredHashIndex;
+import ch.bind.philib.util.ClusteredIndex;
+import ch.bind.philib.util.LruList;
+import ch.bind.philib.validation.Validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A LRU cache which partitions its key space into independently locked stripes.
+ * <p>
+ * Each stripe is a small LRU cache of its own, so concurrent accesses to keys which map to different stripes do not
+ * contend for the same lock. The least recently used order is only maintained per stripe.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class StripedLruCache<K, V> implements Cache<K, V> {
+
+	/** The default number of stripes. */
+	public static final int DEFAULT_STRIPES = 16;
+
+	private final Stripe<K, V>[] stripes;
+	private final Cloner<V> valueCloner;
+	private final StatsCounter stats;
+
+	private final int stripeMask;
+	private final int stripeShift;
+	private final int capacity;
+
+	public StripedLruCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public StripedLruCache(int capacity) {
+		this(capacity, DEFAULT_STRIPES, null);
+	}
+
+	public StripedLruCache(Cloner<V> valueCloner) {
+		this(DEFAULT_CAPACITY, DEFAULT_STRIPES, valueCloner);
+	}
+
+	/**
+	 * @param capacity    The total capacity of the cache, which is distributed evenly over all stripes.
+	 * @param stripes     The number of stripes, must be a power of two and must not exceed the capacity.
+	 * @param valueCloner An optional cloner for values which are handed out by {@link #get(Object)}.
+	 */
+	public StripedLruCache(int capacity, int stripes, Cloner<V> valueCloner) {
+		this(capacity, stripes, valueCloner, false);
+	}
+
+	/**
+	 * @param capacity    The total capacity of the cache, which is distributed evenly over all stripes.
+	 * @param stripes     The number of stripes, must be a power of two and must not exceed the capacity.
+	 * @param valueCloner An optional cloner for values which are handed out by {@link #get(Object)}.
+	 * @param recordStats Whether or not statistics should be recorded, see {@link #getStats()}.
+	 */
+	@SuppressWarnings("unchecked")
+	public StripedLruCache(int capacity, int stripes, Cloner<V> valueCloner, boolean recordStats) {
+		Validation.isTrue(capacity > 0 && stripes > 0, "capacity and stripes must be greater than zero");
+		Validation.isTrue(Integer.bitCount(stripes) == 1, "stripes must be a power of two");
+		Validation.isTrue(capacity >= stripes, "capacity must not be less than the number of stripes");
+
+		this.capacity = capacity;
+		this.stats = StatsCounter.create(recordStats);
+		this.stripes = new Stripe[stripes];
+		int perStripe = capacity / stripes;
+		int remainder = capacity % stripes;
+		for (int i = 0; i < stripes; i++) {
+			int cap = i < remainder ? perStripe + 1 : perStripe;
+			this.stripes[i] = new Stripe<>(cap, stats);
+		}
+		this.stripeMask = stripes - 1;
+		// a shift by 32 is a shift by 0, the mask of a single stripe is 0
+		this.stripeShift = 32 - Integer.numberOfTrailingZeros(stripes);
+		this.valueCloner = ClonerNoop.getIfNull(valueCloner);
+	}
+
+	@Override
+	public void set(final K key, final V value) {
+		Validation.notNull(key);
+		Validation.notNull(value);
+		stats.recordPut();
+		stripeFor(key).set(key, value);
+	}
+
+	@Override
+	public V get(final K key) {
+		Validation.notNull(key);
+		V value = stripeFor(key).get(key);
+		if (value == null) {
+			stats.recordMiss();
+			return null;
+		}
+		stats.recordHit();
+		return valueCloner.clone(value);
+	}
+
+	@Override
+	public void remove(final K key) {
+		Validation.notNull(key);
+		if (stripeFor(key).remove(key)) {
+			stats.recordRemoval();
+		}
+	}
+
+	/**
+	 * Queries the keys grouped by stripe, the lock of each stripe is acquired once.
+	 */
+	@Override
+	public Map<K, V> getAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		final List<K>[] groups = groupByStripe(keys);
+		final Map<K, V> result = new HashMap<>();
+		for (int i = 0; i < groups.length; i++) {
+			if (groups[i] != null) {
+				stripes[i].getAll(groups[i], result);
+			}
+		}
+		result.replaceAll((key, value) -> valueCloner.clone(value));
+		return result;
+	}
+
+	/**
+	 * Sets the entries grouped by stripe, the lock of each stripe is acquired once.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void setAll(final Map<? extends K, ? extends V> entries) {
+		Validation.notNull(entries);
+		final List<Map.Entry<? extends K, ? extends V>>[] groups = new List[stripes.length];
+		for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+			Validation.notNull(e.getKey());
+			Validation.notNull(e.getValue());
+			final int idx = stripeIndex(e.getKey());
+			if (groups[idx] == null) {
+				groups[idx] = new ArrayList<>();
+			}
+			groups[idx].add(e);
+		}
+		for (int i = 0; i < groups.length; i++) {
+			if (groups[i] != null) {
+				stripes[i].setAll(groups[i]);
+			}
+		}
+	}
+
+	/**
+	 * Removes the keys grouped by stripe, the lock of each stripe is acquired once.
+	 */
+	@Override
+	public void removeAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		final List<K>[] groups = groupByStripe(keys);
+		for (int i = 0; i < groups.length; i++) {
+			if (groups[i] != null) {
+				stripes[i].removeAll(groups[i]);
+			}
+		}
+	}
+
+	@Override
+	public int capacity() {
+		return capacity;
+	}
+
+	@Override
+	public void clear() {
+		for (Stripe<K, V> stripe : stripes) {
+			stripe.clear();
+		}
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats.snapshot();
+	}
+
+	/** @return the number of stripes of this cache. */
+	public int getStripes() {
+		return stripes.length;
+	}
+
+	private Stripe<K, V> stripeFor(final K key) {
+		return stripes[stripeIndex(key)];
+	}
+
+	// package-private for tests
+	int stripeIndex(final K key) {
+		final int hash = MurmurHash.murmur3_finalize_mix32(key.hashCode());
+		// the ClusteredHashIndex of each stripe applies the same mix and selects its bin by
+		// the lowest bits, the stripe is selected by the highest bits in order not to overlap
+		return (hash >>> stripeShift) & stripeMask;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<K>[] groupByStripe(final Collection<? extends K> keys) {
+		final List<K>[] groups = new List[stripes.length];
+		for (K key : keys) {
+			Validation.notNull(key);
+			final int idx = stripeIndex(key);
+			if (groups[idx] == null) {
+				groups[idx] = new ArrayList<>();
+			}
+			groups[idx].add(key);
+		}
+		return groups;
+	}
+
+	private static final class Stripe<K, V> {
+
+		private final LruList<LruCacheEntry<K, V>> lru;
+		private final ClusteredIndex<K, LruCacheEntry<K, V>> index;
+		private final StatsCounter stats;
+
+		Stripe(int capacity, StatsCounter stats) {
+			this.lru = new LruList<>(capacity);
+			this.index = new ClusteredHashIndex<>(capacity);
+			this.stats = stats;
+		}
+
+		synchronized void set(final K key, final V value) {
+			setImpl(key, value);
+		}
+
+		synchronized V get(final K key) {
+			return getImpl(key);
+		}
+
+		synchronized boolean remove(final K key) {
+			return removeImpl(key);
+		}
+
+		synchronized void getAll(final List<K> keys, final Map<K, V> result) {
+			for (K key : keys) {
+				V value = getImpl(key);
+				if (value == null) {
+					stats.recordMiss();
+				} else {
+					stats.recordHit();
+					result.put(key, value);
+				}
+			}
+		}
+
+		synchronized void setAll(final List<Map.Entry<? extends K, ? extends V>> entries) {
+			for (Map.Entry<? extends K, ? extends V> e : entries) {
+				stats.recordPut();
+				setImpl(e.getKey(), e.getValue());
+			}
+		}
+
+		synchronized void removeAll(final List<K> keys) {
+			for (K key : keys) {
+				if (removeImpl(key)) {
+					stats.recordRemoval();
+				}
+			}
+		}
+
+		private void setImpl(final K key, final V value) {
+			LruCacheEntry<K, V> entry = index.get(key);
+			if (entry == null) {
+				entry = new LruCacheEntry<>(key, value);
+				index.add(entry);
+				LruCacheEntry<K, V> removed = lru.add(entry);
+				if (removed != null) {
+					index.remove(removed);
+					stats.recordEviction();
+				}
+			} else {
+				entry.setValue(value);
+			}
+		}
+
+		private V getImpl(final K key) {
+			LruCacheEntry<K, V> entry = index.get(key);
+			if (entry == null) {
+				return null;
+			}
+			lru.moveToHead(entry);
+			return entry.getValue();
+		}
+
+		private boolean removeImpl(final K key) {
+			LruCacheEntry<K, V> entry = index.get(key);
+			if (entry == null) {
+				return false;
+			}
+			index.remove(entry);
+			lru.remove(entry);
+			return true;
+		}
+
+		synchronized void clear() {
+			lru.clear();
+			index.clear();
+		}
+	}
+}
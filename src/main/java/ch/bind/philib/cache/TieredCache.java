@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import ch.bind.philib.lang.ClonerNoop;
+import ch.bind.philib.validation.Validation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache with two tiers: a small, lock-free {@link LineCache} in front of a larger second tier such as a
+ * {@link LruCache} or {@link StagedLruCache}.
+ * <p>
+ * The tiers are exclusive. New values are written into the first tier, entries which the first tier evicts are
+ * demoted into the second tier. Lookups which miss the first tier but hit the second tier promote the entry back into
+ * the first tier. Hits of the first tier therefore only cost a lock-free {@link LineCache} lookup, all promotion and
+ * demotion work happens on misses and writes.
+ * </p>
+ * <p>
+ * Writes, promotions and demotions lock one of a fixed number of stripes, chosen by the line of the first tier which
+ * the key belongs to. A write can only evict entries of its own line, the write of a key and the demotion of the
+ * entry which it evicted therefore happen under the same lock. Neither a promotion nor a demotion can thereby bring
+ * back a value which was replaced or removed concurrently. Demotions are performed by the writing thread, lookups
+ * never do work on behalf of other threads.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class TieredCache<K, V> implements Cache<K, V> {
+
+	private static final int LOCK_STRIPES = 64;
+
+	private final LineCache<K, V> l1;
+	private final Cache<K, V> l2;
+	private final Cloner<V> valueCloner;
+	private final StatsCounter stats;
+	private final TierCounters counters;
+	private final Object[] locks = new Object[LOCK_STRIPES];
+
+	/**
+	 * @param l1Capacity The capacity of the first tier, a multiple of {@link LineCache}'s default order.
+	 * @param l2         The second tier, which should not clone its values.
+	 */
+	public TieredCache(int l1Capacity, Cache<K, V> l2) {
+		this(l1Capacity, LineCache.DEFAULT_ORDER, l2, null, false);
+	}
+
+	/**
+	 * @param l1Capacity  The capacity of the first tier.
+	 * @param l1Order     The order of the first tier, see {@link LineCache}.
+	 * @param l2          The second tier, which should not clone its values.
+	 * @param valueCloner The cloner for values which are returned by {@link #get(Object)}, may be {@code null}.
+	 * @param recordStats Whether or not statistics should be recorded, see {@link #getStats()} and
+	 *                    {@link #getTierStats()}. Recording the latencies of the tiers costs two reads of the system
+	 *                    clock per lookup.
+	 */
+	public TieredCache(int l1Capacity, int l1Order, Cache<K, V> l2, Cloner<V> valueCloner, boolean recordStats) {
+		Validation.notNull(l2);
+		this.l2 = l2;
+		this.valueCloner = ClonerNoop.getIfNull(valueCloner);
+		this.stats = StatsCounter.create(recordStats);
+		this.counters = recordStats ? new TierCounters() : null;
+		this.l1 = new LineCache<>(l1Capacity, l1Order, valueCloner);
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	@Override
+	public void set(final K key, final V value) {
+		Validation.notNull(key);
+		Validation.notNull(value);
+		stats.recordPut();
+		synchronized (lock(key)) {
+			l2.remove(key);
+			l1.set(key, value, this::demote);
+		}
+	}
+
+	@Override
+	public V get(final K key) {
+		Validation.notNull(key);
+		final long start = counters == null ? 0 : System.nanoTime();
+		final V v1 = l1.get(key);
+		if (v1 != null) {
+			stats.recordHit();
+			if (counters != null) {
+				counters.record(counters.l1Hits, counters.l1HitTimeNs, start);
+			}
+			return v1;
+		}
+		final V v2;
+		synchronized (lock(key)) {
+			// a concurrent promotion or write of the same key might have completed in the meantime
+			final V v = l1.get(key);
+			if (v != null) {
+				stats.recordHit();
+				if (counters != null) {
+					counters.record(counters.l1Hits, counters.l1HitTimeNs, start);
+				}
+				return v;
+			}
+			v2 = l2.get(key);
+			if (v2 != null) {
+				l2.remove(key);
+				l1.set(key, v2, this::demote);
+			}
+		}
+		if (v2 == null) {
+			stats.recordMiss();
+			if (counters != null) {
+				counters.record(counters.misses, counters.missTimeNs, start);
+			}
+			return null;
+		}
+		stats.recordHit();
+		if (counters != null) {
+			counters.promotions.increment();
+			counters.record(counters.l2Hits, counters.l2HitTimeNs, start);
+		}
+		return valueCloner.clone(v2);
+	}
+
+	@Override
+	public void remove(final K key) {
+		Validation.notNull(key);
+		stats.recordRemoval();
+		synchronized (lock(key)) {
+			l1.remove(key);
+			l2.remove(key);
+		}
+	}
+
+	/**
+	 * Receives the entries which the first tier evicted, called with the lock of their line held.
+	 */
+	private void demote(final K key, final V value) {
+		l2.set(key, value);
+		if (counters != null) {
+			counters.demotions.increment();
+		}
+	}
+
+	private Object lock(final K key) {
+		return locks[l1.line(key) & (LOCK_STRIPES - 1)];
+	}
+
+	private void withAllStripes(final int stripe, final Runnable action) {
+		if (stripe == LOCK_STRIPES) {
+			action.run();
+			return;
+		}
+		synchronized (locks[stripe]) {
+			withAllStripes(stripe + 1, action);
+		}
+	}
+
+	/**
+	 * @return The capacity of both tiers combined.
+	 */
+	@Override
+	public int capacity() {
+		return l1.capacity() + l2.capacity();
+	}
+
+	@Override
+	public void clear() {
+		withAllStripes(0, () -> {
+			l1.clear();
+			l2.clear();
+		});
+	}
+
+	/**
+	 * @return Hits, misses, puts and removals of this cache. Evictions are those of the second tier, if it records
+	 * statistics, entries which the first tier evicts are demoted and not counted.
+	 */
+	@Override
+	public CacheStats getStats() {
+		final CacheStats s = stats.snapshot();
+		return new CacheStats(s.getHits(), s.getMisses(), s.getPuts(), l2.getStats().getEvictions(), s.getRemovals(), 0,
+				0);
+	}
+
+	/**
+	 * @return The hits and latencies per tier, empty statistics if this cache does not record statistics.
+	 */
+	public TierStats getTierStats() {
+		if (counters == null) {
+			return new TierStats(0, 0, 0, 0, 0, 0, 0, 0);
+		}
+		return new TierStats( //
+				counters.l1Hits.sum(), counters.l1HitTimeNs.sum(), //
+				counters.l2Hits.sum(), counters.l2HitTimeNs.sum(), //
+				counters.misses.sum(), counters.missTimeNs.sum(), //
+				counters.promotions.sum(), counters.demotions.sum());
+	}
+
+	private static final class TierCounters {
+		final LongAdder l1Hits = new LongAdder();
+		final LongAdder l1HitTimeNs = new LongAdder();
+		final LongAdder l2Hits = new LongAdder();
+		final LongAdder l2HitTimeNs = new LongAdder();
+		final LongAdder misses = new LongAdder();
+		final LongAdder missTimeNs = new LongAdder();
+		final LongAdder promotions = new LongAdder();
+		final LongAdder demotions = new LongAdder();
+
+		void record(final LongAdder count, final LongAdder timeNs, final long start) {
+			count.increment();
+			timeNs.add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * An immutable snapshot of the per tier statistics of a {@link TieredCache}.
+	 */
+	public static final class TierStats {
+
+		private final long l1Hits;
+		private final long l1HitTimeNs;
+		private final long l2Hits;
+		private final long l2HitTimeNs;
+		private final long misses;
+		private final long missTimeNs;
+		private final long promotions;
+		private final long demotions;
+
+		TierStats(long l1Hits, long l1HitTimeNs, long l2Hits, long l2HitTimeNs, long misses, long missTimeNs,
+				long promotions, long demotions) {
+			this.l1Hits = l1Hits;
+			this.l1HitTimeNs = l1HitTimeNs;
+			this.l2Hits = l2Hits;
+			this.l2HitTimeNs = l2HitTimeNs;
+			this.misses = misses;
+			this.missTimeNs = missTimeNs;
+			this.promotions = promotions;
+			this.demotions = demotions;
+		}
+
+		/** @return The number of lookups which were served by the first tier. */
+		public long getL1Hits() {
+			return l1Hits;
+		}
+
+		/** @return The total time of lookups which were served by the first tier in nanoseconds. */
+		public long getL1HitTimeNs() {
+			return l1HitTimeNs;
+		}
+
+		/** @return The number of lookups which were served by the second tier. */
+		public long getL2Hits() {
+			return l2Hits;
+		}
+
+		/** @return The total time of lookups which were served by the second tier in nanoseconds, promotions included. */
+		public long getL2HitTimeNs() {
+			return l2HitTimeNs;
+		}
+
+		/** @return The number of lookups which missed both tiers. */
+		public long getMisses() {
+			return misses;
+		}
+
+		/** @return The total time of lookups which missed both tiers in nanoseconds. */
+		public long getMissTimeNs() {
+			return missTimeNs;
+		}
+
+		/** @return The number of entries which were moved from the second into the first tier. */
+		public long getPromotions() {
+			return promotions;
+		}
+
+		/** @return The number of entries which were moved from the first into the second tier. */
+		public long getDemotions() {
+			return demotions;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("l1Hits=%d (%dns avg), l2Hits=%d (%dns avg), misses=%d (%dns avg), promotions=%d, " + //
+							"demotions=%d", l1Hits, avg(l1HitTimeNs, l1Hits), l2Hits, avg(l2HitTimeNs, l2Hits), misses,
+					avg(missTimeNs, misses), promotions, demotions);
+		}
+
+		private static long avg(long total, long count) {
+			return count == 0 ? 0 : total / count;
+		}
+	}
+}
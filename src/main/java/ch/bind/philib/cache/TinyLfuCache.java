@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import ch.bind.philib.lang.ClonerNoop;
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.util.ClusteredHashIndex;
+import ch.bind.philib.util.ClusteredIndex;
+import ch.bind.philib.util.LruList;
+import ch.bind.philib.validation.Validation;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static ch.bind.philib.cache.TinyLfuCacheEntry.PROBATION;
+import static ch.bind.philib.cache.TinyLfuCacheEntry.PROTECTED;
+import static ch.bind.philib.cache.TinyLfuCacheEntry.WINDOW;
+
+/**
+ * A cache with a W-TinyLFU admission policy.
+ * <p>
+ * New entries are put into a small window LRU. Entries which are evicted from the window are candidates for the main
+ * space, which is a segmented LRU with a probation and a protected generation (similar to the young and old
+ * generations of the {@link StagedLruCache}). Once the main space is full, a candidate is only admitted if its
+ * estimated access frequency is higher than that of the main space's eviction victim. The access frequencies are
+ * tracked in a {@link FrequencySketch}, which makes the cache resistant to scans of keys which are accessed only
+ * once.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class TinyLfuCache<K, V> implements Cache<K, V> {
+
+	/** The default capacity of the window LRU relative to the capacity. */
+	public static final double DEFAULT_WINDOW_RATIO = 0.01;
+
+	/** The capacity of the protected generation relative to the main space. */
+	private static final double PROTECTED_RATIO = 0.8;
+
+	private final LruList<TinyLfuCacheEntry<K, V>> window;
+	private final LruList<TinyLfuCacheEntry<K, V>> probation;
+	private final LruList<TinyLfuCacheEntry<K, V>> protect;
+	private final ClusteredIndex<K, TinyLfuCacheEntry<K, V>> index;
+	private final FrequencySketch sketch;
+	private final Cloner<V> valueCloner;
+	private final StatsCounter stats;
+
+	private final int capacity;
+	private final int mainCapacity;
+	private final int protectedCapacity;
+
+	public TinyLfuCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public TinyLfuCache(int capacity) {
+		this(capacity, null);
+	}
+
+	public TinyLfuCache(Cloner<V> valueCloner) {
+		this(DEFAULT_CAPACITY, valueCloner);
+	}
+
+	public TinyLfuCache(int capacity, Cloner<V> valueCloner) {
+		this(capacity, valueCloner, false);
+	}
+
+	public TinyLfuCache(int capacity, Cloner<V> valueCloner, boolean recordStats) {
+		Validation.isTrue(capacity > 1, "capacity must be greater than 1");
+		this.capacity = capacity;
+		int windowCap = Math.max(1, (int) (capacity * DEFAULT_WINDOW_RATIO));
+		this.mainCapacity = capacity - windowCap;
+		this.protectedCapacity = Math.max(1, (int) (mainCapacity * PROTECTED_RATIO));
+		this.window = new LruList<>(windowCap);
+		// the sizes of the main generations are managed by this cache
+		this.probation = new LruList<>(mainCapacity);
+		this.protect = new LruList<>(mainCapacity);
+		this.index = new ClusteredHashIndex<>(capacity);
+		this.sketch = new FrequencySketch(capacity);
+		this.valueCloner = ClonerNoop.getIfNull(valueCloner);
+		this.stats = StatsCounter.create(recordStats);
+	}
+
+	@Override
+	public synchronized void set(final K key, final V value) {
+		setImpl(key, value);
+	}
+
+	@Override
+	public synchronized V get(final K key) {
+		return getImpl(key);
+	}
+
+	@Override
+	public synchronized void remove(final K key) {
+		removeImpl(key);
+	}
+
+	@Override
+	public synchronized Map<K, V> getAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		Map<K, V> result = new HashMap<>();
+		for (K key : keys) {
+			V value = getImpl(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized void setAll(final Map<? extends K, ? extends V> entries) {
+		Validation.notNull(entries);
+		for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+			setImpl(e.getKey(), e.getValue());
+		}
+	}
+
+	@Override
+	public synchronized void removeAll(final Collection<? extends K> keys) {
+		Validation.notNull(keys);
+		for (K key : keys) {
+			removeImpl(key);
+		}
+	}
+
+	private void setImpl(final K key, final V value) {
+		Validation.notNull(key);
+		Validation.notNull(value);
+		stats.recordPut();
+		TinyLfuCacheEntry<K, V> entry = index.get(key);
+		sketch.increment(hash(key));
+		if (entry == null) {
+			entry = new TinyLfuCacheEntry<>(key, value);
+			index.add(entry);
+			TinyLfuCacheEntry<K, V> candidate = window.add(entry);
+			if (candidate != null) {
+				admit(candidate);
+			}
+		} else {
+			entry.setValue(value);
+		}
+	}
+
+	private V getImpl(final K key) {
+		Validation.notNull(key);
+		final TinyLfuCacheEntry<K, V> entry = index.get(key);
+		sketch.increment(hash(key));
+		if (entry == null) {
+			stats.recordMiss();
+			return null;
+		}
+		stats.recordHit();
+		switch (entry.getQueue()) {
+			case WINDOW:
+				window.moveToHead(entry);
+				break;
+			case PROBATION:
+				probation.remove(entry);
+				addProtected(entry);
+				break;
+			default:
+				protect.moveToHead(entry);
+		}
+		return valueCloner.clone(entry.getValue());
+	}
+
+	private void removeImpl(final K key) {
+		Validation.notNull(key);
+		final TinyLfuCacheEntry<K, V> entry = index.get(key);
+		if (entry != null) {
+			index.remove(entry);
+			listOf(entry).remove(entry);
+			stats.recordRemoval();
+		}
+	}
+
+	@Override
+	public synchronized int capacity() {
+		return capacity;
+	}
+
+	@Override
+	public synchronized void clear() {
+		window.clear();
+		probation.clear();
+		protect.clear();
+		index.clear();
+		sketch.clear();
+	}
+
+	@Override
+	public CacheStats getStats() {
+		return stats.snapshot();
+	}
+
+	private void admit(final TinyLfuCacheEntry<K, V> candidate) {
+		if (probation.size() + protect.size() < mainCapacity) {
+			addProbation(candidate);
+			return;
+		}
+		final TinyLfuCacheEntry<K, V> victim = probation.size() > 0 ? probation.peekTail() : protect.peekTail();
+		if (sketch.frequency(hash(candidate.getKey())) > sketch.frequency(hash(victim.getKey()))) {
+			index.remove(victim);
+			listOf(victim).remove(victim);
+			addProbation(candidate);
+		} else {
+			index.remove(candidate);
+		}
+		stats.recordEviction();
+	}
+
+	private void addProbation(final TinyLfuCacheEntry<K, V> entry) {
+		entry.setQueue(PROBATION);
+		probation.add(entry);
+	}
+
+	private void addProtected(final TinyLfuCacheEntry<K, V> entry) {
+		entry.setQueue(PROTECTED);
+		protect.add(entry);
+		if (protect.size() > protectedCapacity) {
+			addProbation(protect.removeTail());
+		}
+	}
+
+	private LruList<TinyLfuCacheEntry<K, V>> listOf(final TinyLfuCacheEntry<K, V> entry) {
+		switch (entry.getQueue()) {
+			case WINDOW:
+				return window;
+			case PROBATION:
+				return probation;
+			default:
+				return protect;
+		}
+	}
+
+	private static int hash(Object key) {
+		return MurmurHash.murmur3_finalize_mix32(key.hashCode());
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+/**
+ * Calculates the weight of cache entries, for example the approximate number of bytes which a value occupies.
+ * Caches which are bounded by weight evict entries until the total weight of all entries fits into their budget.
+ *
+ * @author Philipp Meinen
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+	/**
+	 * @return The weight of an entry, must not be negative. The weight of an entry is calculated once when it is
+	 * written and does not change until the entry is written again.
+	 */
+	int weigh(K key, V value);
+
+	/**
+	 * @return A weigher which assigns a weight of one to every entry.
+	 */
+	static <K, V> Weigher<K, V> singleton() {
+		return (key, value) -> 1;
+	}
+}
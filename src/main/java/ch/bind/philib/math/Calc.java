@@ -53,6 +53,17 @@ public abstract class Calc {
 		return (num + divisor - 1) / divisor;
 	}
 
+	/**
+	 * Rounds <i>value</i> up to the next power of two.
+	 *
+	 * @param value a number &gt; 0 and &lt;= 2^30
+	 * @return the smallest power of two which is greater than or equal to {@code value}
+	 */
+	public static int nextPowerOfTwo(int value) {
+		assert (value > 0 && value <= (1 << 30));
+		return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+	}
+
 	public static long unsignedAdd(final long a, final long b) {
 		long r = a + b;
 		return isAddUnderOrOverflow(a, b, r) ? Long.MAX_VALUE : r;
@@ -48,4 +48,20 @@ public interface PoolStats {
 	 * @return The number of objects which have been released because they were no longer needed.
 	 */
 	long getReleased();
+
+	/**
+	 * @return The number of takes which were served with an object from a part of the pool which does not belong to
+	 * the taking thread, {@code 0} for pools which are not split into parts.
+	 */
+	default long getSteals() {
+		return 0;
+	}
+
+	/**
+	 * @return The number of takes which were served from the part of the pool which belongs to the taking thread,
+	 * without creating or stealing an object.
+	 */
+	default long getLocalHits() {
+		return getTakes() - getCreates() - getSteals();
+	}
 }
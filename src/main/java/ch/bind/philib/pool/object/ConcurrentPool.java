@@ -28,17 +28,82 @@ import ch.bind.philib.pool.PoolStats;
 import ch.bind.philib.pool.manager.ObjectManager;
 import ch.bind.philib.validation.Validation;
 
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
+ * A pool which is split into stripes to reduce contention.
+ * <p>
+ * Every thread caches objects in a small stack of its own, the magazine. As long as a thread takes and recycles
+ * objects through its magazine neither the stripes nor any other shared state is touched. An empty magazine is
+ * refilled with a batch of objects from the thread's stripe, a full magazine flushes its least recently recycled half
+ * to the stripe. The stripes therefore act as a depot and are only accessed in batches. Stripes are assigned to
+ * threads round robin when a thread first uses the pool.
+ * </p>
+ * <p>
+ * If the stripe of a thread is empty up to {@link #MAX_STEAL_ATTEMPTS} other stripes, starting at a random one, are
+ * probed before a new object is created. {@link PoolStats#getSteals()} counts the takes which were served with an
+ * object from another stripe, including the objects which such a steal moved into the magazine.
+ * </p>
+ * <p>
+ * Magazines are not bounded by {@code maxEntries}, each thread may hold up to {@link #getMagazineSize()} additional
+ * objects by strong reference. Pools with soft references therefore disable magazines unless a size is requested
+ * explicitly. The objects in the magazines of terminated threads are handed back to the stripes when another thread
+ * registers, refills or flushes its magazine. Statistics and {@link #getNumPooled()} include the magazines of other
+ * threads only approximately.
+ * </p>
+ *
  * @author Philipp Meinen
  */
 public final class ConcurrentPool<T> implements Pool<T> {
 
+	public static final int DEFAULT_MAGAZINE_SIZE = 16;
+
+	/** The maximum number of other stripes which are probed before a new object is created. */
+	public static final int MAX_STEAL_ATTEMPTS = 4;
+
+	/** The number of refills and flushes of a magazine after which it looks for magazines of terminated threads. */
+	static final int RETIRE_INTERVAL = 64;
+
+	private final ObjectManager<T> manager;
+
 	private final PoolBase<T>[] pools;
 
-	private final MultiPoolStats stats;
+	private final int magazineSize;
+
+	private final int batchSize;
+
+	private final ThreadLocal<Magazine<T>> magazine = ThreadLocal.withInitial(this::register);
+
+	private final Queue<Magazine<T>> magazines = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger nextStripe = new AtomicInteger();
+
+	private final MultiPoolStats stripeStats;
+
+	// the counters of the magazines of terminated threads
+	private final SimplePoolStats retiredStats = new SimplePoolStats();
+
+	private final AtomicLong retiredSteals = new AtomicLong();
+
+	private final PoolStats stats = new Stats();
 
-	@SuppressWarnings("unchecked")
 	public ConcurrentPool(ObjectManager<T> manager, int maxEntries, boolean softRefs, int concurrencyLevel) {
+		this(manager, maxEntries, softRefs, concurrencyLevel, -1);
+	}
+
+	/**
+	 * @param magazineSize The number of objects which each thread caches for itself, {@code 0} disables these
+	 *                     per-thread caches and a negative value selects a size depending on {@code maxEntries}, at
+	 *                     most {@link #DEFAULT_MAGAZINE_SIZE}, or {@code 0} if {@code softRefs} is set.
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentPool(ObjectManager<T> manager, int maxEntries, boolean softRefs, int concurrencyLevel,
+			int magazineSize) {
 		Validation.notNull(manager, "no object manager provided");
 		Validation.isTrue(maxEntries > 0, "wont create an empty object pool");
 		if (concurrencyLevel < 2) {
@@ -46,6 +111,7 @@ public final class ConcurrentPool<T> implements Pool<T> {
 		}
 
 		int maxPerPool = Calc.ceilDiv(maxEntries, concurrencyLevel);
+		this.manager = manager;
 		this.pools = new PoolBase[concurrencyLevel];
 		PoolStats[] s = new PoolStats[concurrencyLevel];
 		for (int i = 0; i < concurrencyLevel; i++) {
@@ -56,17 +122,69 @@ public final class ConcurrentPool<T> implements Pool<T> {
 			}
 			s[i] = pools[i].getPoolStats();
 		}
-		this.stats = new MultiPoolStats(s);
+		this.stripeStats = new MultiPoolStats(s);
+		if (magazineSize < 0) {
+			// small pools keep all of their objects in the stripes, soft referenced pools must not pin objects
+			magazineSize = softRefs ? 0 : Math.min(DEFAULT_MAGAZINE_SIZE, maxPerPool / 2);
+		}
+		this.magazineSize = magazineSize;
+		this.batchSize = Calc.ceilDiv(magazineSize, 2);
 	}
 
 	@Override
 	public T take() {
-		return getPoolByThread().take();
+		final Magazine<T> m = magazine.get();
+		m.takes++;
+		do {
+			T e = m.pop();
+			if (e == null) {
+				e = refill(m);
+				if (e == null) {
+					m.creates++;
+					return manager.create();
+				}
+			}
+			final boolean stolen = m.count < m.stolen;
+			if (stolen) {
+				m.stolen = m.count;
+			}
+			if (manager.canReuse(e)) {
+				// only the object which is handed out counts, not those which were released on the way
+				if (stolen) {
+					m.steals++;
+				}
+				return e;
+			}
+			m.released++;
+			manager.release(e);
+		} while (true);
 	}
 
 	@Override
 	public void recycle(T value) {
-		getPoolByThread().recycle(value);
+		if (value == null) {
+			return;
+		}
+		final Magazine<T> m = magazine.get();
+		if (!manager.prepareForRecycle(value)) {
+			m.released++;
+			manager.release(value);
+			return;
+		}
+		if (magazineSize == 0) {
+			if (m.stripe.offer(value)) {
+				m.recycled++;
+			} else {
+				m.released++;
+				manager.release(value);
+			}
+			return;
+		}
+		if (m.count == magazineSize) {
+			flush(m);
+		}
+		m.push(value);
+		m.recycled++;
 	}
 
 	@Override
@@ -80,20 +198,237 @@ public final class ConcurrentPool<T> implements Pool<T> {
 		for (PoolBase<T> pool : pools) {
 			total += pool.getNumPooled();
 		}
+		for (Magazine<T> m : magazines) {
+			total += m.count;
+		}
 		return total;
 	}
 
+	/**
+	 * Destroys the objects in all stripes and in the magazine of the calling thread, if it has one. The magazines of
+	 * other threads are left untouched.
+	 */
 	@Override
 	public void clear() {
-		getPoolByThread().clear();
+		retireTerminated();
+		final Thread current = Thread.currentThread();
+		for (Magazine<T> m : magazines) {
+			// looked up instead of through the thread local, which would register a magazine
+			if (m.owner == current) {
+				T e;
+				while ((e = m.pop()) != null) {
+					m.released++;
+					manager.release(e);
+				}
+				m.stolen = 0;
+			}
+		}
+		for (PoolBase<T> pool : pools) {
+			pool.clear();
+		}
 	}
 
 	public int getConcurrency() {
 		return pools.length;
 	}
 
-	private PoolBase<T> getPoolByThread() {
-		int idx = (int) (Thread.currentThread().getId() % pools.length);
-		return pools[idx];
+	public int getMagazineSize() {
+		return magazineSize;
+	}
+
+	int getNumMagazines() {
+		return magazines.size();
+	}
+
+	// returns one object and moves up to batchSize - 1 further objects from the same stripe into the magazine
+	private T refill(final Magazine<T> m) {
+		retireTerminatedPeriodically(m);
+		PoolBase<T> source = m.stripe;
+		T e = source.poll();
+		m.stolen = 0;
+		if (e == null) {
+			final int others = pools.length - 1;
+			final int attempts = Math.min(others, MAX_STEAL_ATTEMPTS);
+			final int offset = ThreadLocalRandom.current().nextInt(others);
+			for (int i = 0; i < attempts && e == null; i++) {
+				// never probes the stripe of the magazine itself
+				source = pools[(m.stripeIdx + 1 + (offset + i) % others) % pools.length];
+				e = source.poll();
+			}
+			if (e == null) {
+				return null;
+			}
+		}
+		for (int i = 1; i < batchSize; i++) {
+			T f = source.poll();
+			if (f == null) {
+				break;
+			}
+			m.push(f);
+		}
+		if (source != m.stripe) {
+			// the whole batch plus the object which is about to be handed out
+			m.stolen = m.count + 1;
+		}
+		return e;
+	}
+
+	private void flush(final Magazine<T> m) {
+		retireTerminatedPeriodically(m);
+		// the bottom of the stack holds the objects which were recycled the longest time ago
+		final Object[] rounds = m.rounds;
+		for (int i = 0; i < batchSize; i++) {
+			@SuppressWarnings("unchecked")
+			T e = (T) rounds[i];
+			if (!m.stripe.offer(e)) {
+				m.released++;
+				manager.release(e);
+			}
+		}
+		final int remaining = m.count - batchSize;
+		System.arraycopy(rounds, batchSize, rounds, 0, remaining);
+		for (int i = remaining; i < m.count; i++) {
+			rounds[i] = null;
+		}
+		m.count = remaining;
+		// flushed stolen objects now belong to the stripe of this magazine
+		m.stolen = Math.max(0, m.stolen - batchSize);
+	}
+
+	private Magazine<T> register() {
+		retireTerminated();
+		int stripe = (nextStripe.getAndIncrement() & Integer.MAX_VALUE) % pools.length;
+		Magazine<T> m = new Magazine<>(Thread.currentThread(), pools[stripe], stripe, magazineSize);
+		magazines.add(m);
+		return m;
+	}
+
+	private void retireTerminatedPeriodically(final Magazine<T> m) {
+		if (++m.batches % RETIRE_INTERVAL == 0) {
+			retireTerminated();
+		}
+	}
+
+	private void retireTerminated() {
+		Iterator<Magazine<T>> iter = magazines.iterator();
+		while (iter.hasNext()) {
+			Magazine<T> m = iter.next();
+			// detecting the termination of the owner makes all of its writes visible
+			if (!m.owner.isAlive() && magazines.remove(m)) {
+				T e;
+				while ((e = m.pop()) != null) {
+					if (!m.stripe.offer(e)) {
+						m.released++;
+						manager.release(e);
+					}
+				}
+				retiredStats.add(m.creates, m.takes, m.recycled, m.released);
+				retiredSteals.addAndGet(m.steals);
+			}
+		}
+	}
+
+	private static final class Magazine<T> {
+
+		final Thread owner;
+
+		final PoolBase<T> stripe;
+
+		final int stripeIdx;
+
+		final Object[] rounds;
+
+		// only written by the owner
+		int count;
+
+		long creates;
+
+		long takes;
+
+		long recycled;
+
+		long released;
+
+		long steals;
+
+		int batches;
+
+		// the number of objects from another stripe at the bottom of the magazine
+		int stolen;
+
+		Magazine(Thread owner, PoolBase<T> stripe, int stripeIdx, int size) {
+			this.owner = owner;
+			this.stripe = stripe;
+			this.stripeIdx = stripeIdx;
+			this.rounds = new Object[size];
+		}
+
+		void push(T value) {
+			rounds[count++] = value;
+		}
+
+		@SuppressWarnings("unchecked")
+		T pop() {
+			if (count == 0) {
+				return null;
+			}
+			T value = (T) rounds[--count];
+			rounds[count] = null;
+			return value;
+		}
+	}
+
+	private final class Stats implements PoolStats {
+
+		@Override
+		public long getCreates() {
+			long c = stripeStats.getCreates() + retiredStats.getCreates();
+			for (Magazine<T> m : magazines) {
+				c += m.creates;
+			}
+			return c;
+		}
+
+		@Override
+		public long getTakes() {
+			long t = stripeStats.getTakes() + retiredStats.getTakes();
+			for (Magazine<T> m : magazines) {
+				t += m.takes;
+			}
+			return t;
+		}
+
+		@Override
+		public long getRecycled() {
+			long r = stripeStats.getRecycled() + retiredStats.getRecycled();
+			for (Magazine<T> m : magazines) {
+				r += m.recycled;
+			}
+			return r;
+		}
+
+		@Override
+		public long getReleased() {
+			long r = stripeStats.getReleased() + retiredStats.getReleased();
+			for (Magazine<T> m : magazines) {
+				r += m.released;
+			}
+			return r;
+		}
+
+		@Override
+		public long getSteals() {
+			long s = retiredSteals.get();
+			for (Magazine<T> m : magazines) {
+				s += m.steals;
+			}
+			return s;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("creates=%d, takes=%d, steals=%d, recycled=%d, released=%d", //
+					getCreates(), getTakes(), getSteals(), getRecycled(), getReleased());
+		}
 	}
 }
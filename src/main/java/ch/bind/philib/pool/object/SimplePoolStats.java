@@ -55,6 +55,13 @@ public final class SimplePoolStats implements PoolStats {
 		released.incrementAndGet();
 	}
 
+	void add(long creates, long takes, long recycled, long released) {
+		this.creates.addAndGet(creates);
+		this.takes.addAndGet(takes);
+		this.recycled.addAndGet(recycled);
+		this.released.addAndGet(released);
+	}
+
 	@Override
 	public long getCreates() {
 		return creates.get();
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.test;
+
+import ch.bind.philib.cache.AdaptiveLruCache;
+import ch.bind.philib.cache.Cache;
+import ch.bind.philib.cache.CacheOptions;
+import ch.bind.philib.cache.CacheStats;
+import ch.bind.philib.cache.LineCache;
+import ch.bind.philib.cache.LruCache;
+import ch.bind.philib.cache.SampledLruCache;
+import ch.bind.philib.cache.StagedLruCache;
+import ch.bind.philib.cache.TieredCache;
+import ch.bind.philib.cache.TinyLfuCache;
+import ch.bind.philib.math.Calc;
+import ch.bind.philib.validation.Validation;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Replays key access traces through caches and reports their hit ratios, see {@link Traces} for reading and
+ * generating traces.
+ * <p>
+ * Every access is a {@link Cache#get(Object)}, misses are followed by a {@link Cache#set(Object, Object)} of the same
+ * key. Evictions are only reported for caches which record statistics.
+ * </p>
+ * <p>
+ * Usage: {@code CacheSimulator <capacity> <trace>} where {@code trace} is a file with big-endian 64-bit keys (file
+ * name ending in {@code .bin}), a file with one key per line, or one of the synthetic traces
+ * {@code zipf:<length>:<keys>:<exponent>}, {@code scan:<length>} and {@code loop:<length>:<loopSize>}.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class CacheSimulator {
+
+	private CacheSimulator() {
+	}
+
+	public static Result run(String name, Cache<Long, Long> cache, long[] trace) {
+		Validation.notNull(cache);
+		Validation.notNull(trace);
+		final long evictionsBefore = cache.getStats().getEvictions();
+		long hits = 0;
+		final long tStart = System.nanoTime();
+		for (long key : trace) {
+			final Long k = key;
+			if (cache.get(k) != null) {
+				hits++;
+			} else {
+				cache.set(k, k);
+			}
+		}
+		final long timeNs = System.nanoTime() - tStart;
+		final long evictions = cache.getStats().getEvictions() - evictionsBefore;
+		return new Result(name, trace.length, hits, evictions, timeNs);
+	}
+
+	/**
+	 * @return The default set of policies to compare, by name, each with statistics recording enabled.
+	 */
+	public static Map<String, IntFunction<Cache<Long, Long>>> defaultPolicies() {
+		Map<String, IntFunction<Cache<Long, Long>>> policies = new LinkedHashMap<>();
+		policies.put("LruCache", cap -> LruCache.create(cap, recordStats()));
+		policies.put("StagedLruCache", cap -> StagedLruCache.create(cap, recordStats()));
+		policies.put("StagedLruCache(hits=2)", cap -> StagedLruCache.create(cap, StagedLruCache.DEFAULT_OLD_GEN_RATIO, 2, //
+				recordStats()));
+		policies.put("LineCache(order=4)", cap -> LineCache.create(lineCapacity(cap, 4), 4, recordStats()));
+		policies.put("LineCache(order=16)", cap -> LineCache.create(lineCapacity(cap, 16), 16, recordStats()));
+		policies.put("LineCache(order=16, clock)", cap -> LineCache.create(lineCapacity(cap, 16), 16, //
+				recordStats().trackAccess()));
+		policies.put("TinyLfuCache", cap -> new TinyLfuCache<>(Math.max(2, cap), null, true));
+		policies.put("AdaptiveLruCache", cap -> new AdaptiveLruCache<>(cap, null, true));
+		policies.put("SampledLruCache", cap -> new SampledLruCache<>(cap, null, true));
+		policies.put("TieredCache", cap -> {
+			int l1 = lineCapacity(cap / 16, 8);
+			return new TieredCache<>(l1, 8, LruCache.create(Math.max(1, cap - l1), recordStats()), null, true);
+		});
+		return policies;
+	}
+
+	private static CacheOptions<Long, Long> recordStats() {
+		return new CacheOptions<Long, Long>().recordStats();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("usage: CacheSimulator <capacity> <trace-file|zipf:<length>:<keys>:<exponent>|"
+					+ "scan:<length>|loop:<length>:<loopSize>>");
+			System.exit(1);
+		}
+		final int capacity = Integer.parseInt(args[0]);
+		final long[] trace = loadTrace(args[1]);
+		System.out.printf("%d accesses, capacity %d\n", trace.length, capacity);
+		for (Map.Entry<String, IntFunction<Cache<Long, Long>>> policy : defaultPolicies().entrySet()) {
+			run(policy.getKey(), policy.getValue().apply(capacity), trace).print(System.out);
+		}
+	}
+
+	static long[] loadTrace(String spec) throws IOException {
+		final String[] parts = spec.split(":");
+		switch (parts[0]) {
+			case "zipf":
+				return Traces.zipf(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), //
+						Double.parseDouble(parts[3]), 0);
+			case "scan":
+				return Traces.scan(Integer.parseInt(parts[1]), 0);
+			case "loop":
+				return Traces.loop(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+			default:
+				final Path file = Paths.get(spec);
+				return spec.endsWith(".bin") ? Traces.readBinary(file) : Traces.readText(file);
+		}
+	}
+
+	private static int lineCapacity(int capacity, int order) {
+		// the number of lines must be a power of two
+		return Calc.nextPowerOfTwo(Math.max(1, capacity / order)) * order;
+	}
+
+	public static final class Result {
+
+		private final String name;
+		private final long requests;
+		private final long hits;
+		private final long evictions;
+		private final long timeNs;
+
+		public Result(String name, long requests, long hits, long evictions, long timeNs) {
+			this.name = name;
+			this.requests = requests;
+			this.hits = hits;
+			this.evictions = evictions;
+			this.timeNs = timeNs;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getRequests() {
+			return requests;
+		}
+
+		public long getHits() {
+			return hits;
+		}
+
+		public long getMisses() {
+			return requests - hits;
+		}
+
+		/**
+		 * @return The number of evictions, zero for caches which do not record statistics, see
+		 * {@link CacheStats#getEvictions()}.
+		 */
+		public long getEvictions() {
+			return evictions;
+		}
+
+		public long getTimeNs() {
+			return timeNs;
+		}
+
+		public double getHitRatio() {
+			return requests == 0 ? 1.0 : ((double) hits) / requests;
+		}
+
+		public void print(PrintStream printStream) {
+			printStream.printf("%-30s hit-ratio %6.2f%% %12d evictions %8dns/op\n", //
+					name, getHitRatio() * 100, evictions, requests == 0 ? 0 : Calc.ceilDiv(timeNs, requests));
+		}
+	}
+}
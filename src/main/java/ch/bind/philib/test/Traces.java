@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.test;
+
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.validation.Validation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Reads and generates key access traces for the {@link CacheSimulator}. A trace is a sequence of keys, each key
+ * stands for one access.
+ *
+ * @author Philipp Meinen
+ */
+public final class Traces {
+
+	private Traces() {
+	}
+
+	/**
+	 * Reads a trace of big-endian 64-bit keys.
+	 */
+	public static long[] readBinary(Path file) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = ch.size();
+			Validation.isTrue(size % 8 == 0 && size / 8 <= Integer.MAX_VALUE, "not a binary trace: " + file);
+			ByteBuffer buf = ByteBuffer.allocate((int) size);
+			while (buf.hasRemaining() && ch.read(buf) != -1) {
+				// keep reading
+			}
+			buf.flip();
+			long[] trace = new long[(int) (size / 8)];
+			buf.asLongBuffer().get(trace);
+			return trace;
+		}
+	}
+
+	/**
+	 * Writes a trace of big-endian 64-bit keys which can be read by {@link #readBinary(Path)}.
+	 */
+	public static void writeBinary(Path file, long[] trace) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(trace.length * 8);
+		buf.asLongBuffer().put(trace);
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buf.hasRemaining()) {
+				ch.write(buf);
+			}
+		}
+	}
+
+	/**
+	 * Reads a trace with one key per line. Numeric keys are used as they are, all other keys are hashed, empty lines
+	 * are skipped.
+	 */
+	public static long[] readText(Path file) throws IOException {
+		long[] trace = new long[1024];
+		int n = 0;
+		try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = r.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty()) {
+					continue;
+				}
+				if (n == trace.length) {
+					trace = Arrays.copyOf(trace, n * 2);
+				}
+				trace[n++] = parseKey(line);
+			}
+		}
+		return Arrays.copyOf(trace, n);
+	}
+
+	/**
+	 * Generates a trace whose keys follow a zipfian distribution: the key with rank {@code k} (starting at one) is
+	 * accessed with a probability proportional to {@code 1 / k^exponent}.
+	 *
+	 * @param length   The number of accesses.
+	 * @param keys     The number of distinct keys.
+	 * @param exponent The skew of the distribution, typical workloads range from 0.7 to 1.2.
+	 * @param seed     The seed of the random number generator.
+	 */
+	public static long[] zipf(int length, int keys, double exponent, long seed) {
+		Validation.isTrue(length >= 0 && keys > 0 && exponent >= 0, "invalid zipf parameters");
+		final double[] cdf = new double[keys];
+		double sum = 0;
+		for (int k = 0; k < keys; k++) {
+			sum += 1 / Math.pow(k + 1, exponent);
+			cdf[k] = sum;
+		}
+		final Random rand = new Random(seed);
+		final long[] trace = new long[length];
+		for (int i = 0; i < length; i++) {
+			int idx = Arrays.binarySearch(cdf, rand.nextDouble() * sum);
+			trace[i] = idx >= 0 ? idx : Math.min(-idx - 1, keys - 1);
+		}
+		return trace;
+	}
+
+	/**
+	 * Generates a scan: {@code length} distinct keys starting at {@code firstKey}, each accessed once.
+	 */
+	public static long[] scan(int length, long firstKey) {
+		Validation.notNegative(length);
+		final long[] trace = new long[length];
+		for (int i = 0; i < length; i++) {
+			trace[i] = firstKey + i;
+		}
+		return trace;
+	}
+
+	/**
+	 * Generates a loop over the keys {@code 0} to {@code loopSize - 1} which is repeated until the trace reaches the
+	 * requested length.
+	 */
+	public static long[] loop(int length, int loopSize) {
+		Validation.isTrue(length >= 0 && loopSize > 0, "invalid loop parameters");
+		final long[] trace = new long[length];
+		for (int i = 0; i < length; i++) {
+			trace[i] = i % loopSize;
+		}
+		return trace;
+	}
+
+	/**
+	 * @return The traces, one after the other.
+	 */
+	public static long[] concat(long[]... traces) {
+		int length = 0;
+		for (long[] t : traces) {
+			length += t.length;
+		}
+		final long[] trace = new long[length];
+		int pos = 0;
+		for (long[] t : traces) {
+			System.arraycopy(t, 0, trace, pos, t.length);
+			pos += t.length;
+		}
+		return trace;
+	}
+
+	private static long parseKey(String key) {
+		try {
+			return Long.parseLong(key);
+		} catch (NumberFormatException e) {
+			byte[] b = key.getBytes(StandardCharsets.UTF_8);
+			return ((long) MurmurHash.murmur3(b) << 32) | (MurmurHash.murmur3(b, 0x1B873593) & 0xFFFFFFFFL);
+		}
+	}
+}
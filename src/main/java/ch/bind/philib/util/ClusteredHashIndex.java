@@ -23,20 +23,31 @@
 package ch.bind.philib.util;
 
 import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.math.Calc;
 import ch.bind.philib.util.ClusteredIndex.Entry;
 import ch.bind.philib.validation.Validation;
 
 import java.util.Arrays;
 
-// TODO: round table size up (2^x) and use bitmasks
-// TODO: concurrent version
+/**
+ * A {@link ClusteredIndex} with a fixed number of bins, which is the capacity rounded up to the next power of two.
+ * Modifications and lookups must be serialized by the caller, see {@link ConcurrentClusteredHashIndex} for concurrent
+ * use.
+ *
+ * @author Philipp Meinen
+ */
 public final class ClusteredHashIndex<K, T extends Entry<K>> implements ClusteredIndex<K, T> {
 
 	private final Entry<K>[] table;
 
+	private final int mask;
+
 	@SuppressWarnings("unchecked")
 	public ClusteredHashIndex(int capacity) {
-		table = new Entry[capacity];
+		Validation.isTrue(capacity > 0 && capacity <= (1 << 30), "capacity must be between 1 and 2^30");
+		int size = Calc.nextPowerOfTwo(capacity);
+		table = new Entry[size];
+		mask = size - 1;
 	}
 
 	@Override
@@ -116,9 +127,7 @@ public final class ClusteredHashIndex<K, T extends Entry<K>> implements Clustere
 	}
 
 	private int hashPosition(int hash) {
-		hash = MurmurHash.murmur3_finalize_mix32(hash);
-		int p = hash % table.length;
-		return Math.abs(p);
+		return MurmurHash.murmur3_finalize_mix32(hash) & mask;
 	}
 
 	@Override
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.util;
+
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.math.Calc;
+import ch.bind.philib.util.ClusteredIndex.Entry;
+import ch.bind.philib.validation.Validation;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A {@link ClusteredIndex} which supports lock-free lookups concurrently to modifications.
+ * <p>
+ * Modifications ({@link #add(Entry)} and {@link #remove(Entry)}) lock one of a fixed number of stripes, modifications
+ * of keys in different stripes proceed in parallel. {@link #get(Object)} may be called from any thread at any time.
+ * </p>
+ * <p>
+ * New entries are always linked in at the head of their bin and published through a volatile write, which makes all
+ * older entries of that chain visible to readers as well. Removals republish the head of their bin through a
+ * volatile write after the entry was unlinked, so a lookup which starts after {@link #remove(Entry)} returned does not
+ * find the removed entry. Removed entries keep their link to the next entry so that readers which are currently
+ * positioned on a removed entry can still reach the remainder of the chain. For this reason removed entries must not
+ * be added again.
+ * </p>
+ * <p>
+ * The table doubles in size once it holds more entries than it has bins. The entries are moved incrementally, every
+ * modification moves a few bins of the old table into the new table until all bins are moved. Moved bins of the old
+ * table point readers to the new table. A lookup which misses while its bin is being moved repeats the lookup under
+ * the stripe lock, all other lookups remain lock-free. Because the stripes are selected by the low bits of the hash,
+ * a bin of the old table and the two bins of the new table which it is split into are covered by the same stripe.
+ * </p>
+ *
+ * @author Philipp Meinen
+ */
+public final class ConcurrentClusteredHashIndex<K, T extends Entry<K>> implements ClusteredIndex<K, T> {
+
+	/** The maximum number of stripe locks. */
+	static final int MAX_STRIPES = 64;
+
+	/** The number of bins which a modification moves while the table is resized. */
+	static final int MOVE_STEP = 4;
+
+	private static final int MAX_BINS = 1 << 30;
+
+	// marks a bin of the old table whose entries are being moved by a thread which holds the stripe lock
+	private static final Entry<Object> MOVING = new Marker();
+
+	// marks a bin of the old table whose entries were moved into the next table
+	private static final Entry<Object> MOVED = new Marker();
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<ConcurrentClusteredHashIndex, Table> TABLE_UPDATER = //
+			AtomicReferenceFieldUpdater.newUpdater(ConcurrentClusteredHashIndex.class, Table.class, "table");
+
+	private final Object[] stripes;
+
+	private final int stripeMask;
+
+	private final AtomicInteger size = new AtomicInteger();
+
+	private volatile Table<K> table;
+
+	public ConcurrentClusteredHashIndex(int capacity) {
+		Validation.isTrue(capacity > 0 && capacity <= MAX_BINS, "capacity must be between 1 and 2^30");
+		int bins = Calc.nextPowerOfTwo(capacity);
+		// the stripes may never outnumber the bins, the table only grows
+		int numStripes = Math.min(bins, MAX_STRIPES);
+		stripes = new Object[numStripes];
+		for (int i = 0; i < numStripes; i++) {
+			stripes[i] = new Object();
+		}
+		stripeMask = numStripes - 1;
+		table = new Table<>(bins);
+	}
+
+	@Override
+	public boolean add(final T entry) {
+		Validation.isTrue(entry != null && entry.getNextIndexEntry() == null && entry.getKey() != null, //
+				"newly added entries must be non-null and cleared");
+
+		final K key = entry.getKey();
+		final int hash = key.hashCode();
+		final int mixed = MurmurHash.murmur3_finalize_mix32(hash);
+
+		synchronized (stripes[mixed & stripeMask]) {
+			final Table<K> t = tableOf(table, mixed);
+			final int position = mixed & t.mask;
+			final Entry<K> head = t.bins.get(position);
+			for (Entry<K> scan = head; scan != null; scan = scan.getNextIndexEntry()) {
+				K scanKey = scan.getKey();
+				if (hash == scanKey.hashCode() && key.equals(scanKey)) {
+					// key is already in the table
+					return false;
+				}
+			}
+			entry.setNextIndexEntry(head);
+			// publish
+			t.bins.set(position, entry);
+		}
+		final int n = size.incrementAndGet();
+		Table<K> t = table;
+		if (n > t.length() && t.next == null && t.length() < MAX_BINS) {
+			t.startResize();
+		}
+		helpResize();
+		return true;
+	}
+
+	@Override
+	public boolean remove(final T entry) {
+		Validation.notNull(entry);
+
+		final K key = entry.getKey();
+		final int mixed = MurmurHash.murmur3_finalize_mix32(key.hashCode());
+
+		synchronized (stripes[mixed & stripeMask]) {
+			final Table<K> t = tableOf(table, mixed);
+			final int position = mixed & t.mask;
+			final Entry<K> head = t.bins.get(position);
+			Entry<K> scanPrev = null;
+			Entry<K> scanNow = head;
+			while (scanNow != null && scanNow != entry) {
+				scanPrev = scanNow;
+				scanNow = scanNow.getNextIndexEntry();
+			}
+			if (scanNow == null) {
+				return false; // entry not found
+			}
+			if (scanPrev == null) {
+				// first entry in the bin
+				t.bins.set(position, entry.getNextIndexEntry());
+			} else {
+				// the plain write of the link is published by writing the unchanged head again, every lookup which
+				// reads the head after this volatile write also sees the unlink
+				scanPrev.setNextIndexEntry(entry.getNextIndexEntry());
+				t.bins.set(position, head);
+			}
+		}
+		size.decrementAndGet();
+		helpResize();
+		return true;
+	}
+
+	// returns null if a pair does not exist
+	@Override
+	public T get(final K key) {
+		Validation.notNull(key);
+
+		final int hash = key.hashCode();
+		final int mixed = MurmurHash.murmur3_finalize_mix32(hash);
+
+		Table<K> t = table;
+		while (true) {
+			final int position = mixed & t.mask;
+			final Entry<K> head = t.bins.get(position);
+			if (head == MOVED) {
+				t = t.next;
+				continue;
+			}
+			if (head == MOVING) {
+				return lockedGet(key, hash, mixed);
+			}
+			final T found = find(head, key, hash);
+			if (found != null) {
+				return found;
+			}
+			// the chain may have been moved while it was scanned, which can divert the scan into a chain of the next
+			// table. the mover publishes MOVING before it relinks any entry, so it is visible after such a scan.
+			VarHandle.acquireFence();
+			if (t.next == null) {
+				return null;
+			}
+			final Entry<K> now = t.bins.get(position);
+			return now == MOVING || now == MOVED ? lockedGet(key, hash, mixed) : null;
+		}
+	}
+
+	private T lockedGet(final K key, final int hash, final int mixed) {
+		synchronized (stripes[mixed & stripeMask]) {
+			final Table<K> t = tableOf(table, mixed);
+			return find(t.bins.get(mixed & t.mask), key, hash);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private T find(Entry<K> entry, final K key, final int hash) {
+		while (entry != null) {
+			final K entryKey = entry.getKey();
+			if (key == entryKey || (hash == entryKey.hashCode() && key.equals(entryKey))) {
+				return (T) entry;
+			}
+			entry = entry.getNextIndexEntry();
+		}
+		return null;
+	}
+
+	/**
+	 * Follows moved bins to the table which holds the bin of a hash, the stripe lock of the hash must be held.
+	 */
+	private static <K> Table<K> tableOf(Table<K> t, final int mixed) {
+		while (t.bins.get(mixed & t.mask) == MOVED) {
+			t = t.next;
+		}
+		return t;
+	}
+
+	/**
+	 * Moves up to {@link #MOVE_STEP} bins of the table into the next table if a resize is in progress.
+	 */
+	private void helpResize() {
+		final Table<K> t = table;
+		final Table<K> next = t.next;
+		if (next == null) {
+			return;
+		}
+		final int len = t.length();
+		final int start = t.moveIndex.getAndAdd(MOVE_STEP);
+		final int end = Math.min(start + MOVE_STEP, len);
+		for (int i = start; i < end; i++) {
+			synchronized (stripes[i & stripeMask]) {
+				moveBin(t, next, i);
+			}
+			if (t.moved.incrementAndGet() == len) {
+				// all bins are moved, readers which still hold the old table are forwarded by the MOVED markers
+				TABLE_UPDATER.compareAndSet(this, t, next);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K> void moveBin(final Table<K> from, final Table<K> to, final int i) {
+		Entry<K> e = from.bins.get(i);
+		from.bins.set(i, (Entry<K>) MOVING);
+		// no relinked entry may become visible before the MOVING marker
+		VarHandle.storeStoreFence();
+		while (e != null) {
+			final Entry<K> next = e.getNextIndexEntry();
+			final int position = MurmurHash.murmur3_finalize_mix32(e.getKey().hashCode()) & to.mask;
+			e.setNextIndexEntry(to.bins.get(position));
+			to.bins.set(position, e);
+			e = next;
+		}
+		from.bins.set(i, (Entry<K>) MOVED);
+	}
+
+	/**
+	 * @return The number of entries.
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * @return The number of bins of the current table.
+	 */
+	int bins() {
+		return table.length();
+	}
+
+	/**
+	 * Removes all entries. Modifications which run concurrently to a clear may or may not be cleared.
+	 */
+	@Override
+	public void clear() {
+		clear(0);
+	}
+
+	private void clear(final int stripe) {
+		if (stripe < stripes.length) {
+			synchronized (stripes[stripe]) {
+				clear(stripe + 1);
+			}
+			return;
+		}
+		// all stripes are locked, the chains are left intact for concurrent readers
+		table = new Table<>(table.length());
+		size.set(0);
+	}
+
+	private static final class Table<K> {
+
+		final AtomicReferenceArray<Entry<K>> bins;
+
+		final int mask;
+
+		final AtomicInteger moveIndex = new AtomicInteger();
+
+		final AtomicInteger moved = new AtomicInteger();
+
+		volatile Table<K> next;
+
+		Table(int length) {
+			bins = new AtomicReferenceArray<>(length);
+			mask = length - 1;
+		}
+
+		int length() {
+			return bins.length();
+		}
+
+		synchronized void startResize() {
+			if (next == null) {
+				next = new Table<>(length() * 2);
+			}
+		}
+	}
+
+	private static final class Marker implements Entry<Object> {
+
+		@Override
+		public Object getKey() {
+			throw new AssertionError("markers have no key");
+		}
+
+		@Override
+		public Entry<Object> getNextIndexEntry() {
+			return null;
+		}
+
+		@Override
+		public void setNextIndexEntry(Entry<Object> nextHashEntry) {
+			throw new AssertionError("markers can not be linked");
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.util;
+
+import ch.bind.philib.validation.Validation;
+
+import java.util.Arrays;
+
+/**
+ * A LRU list over integer slot ids with the same contract as {@link LruList}. The links are kept in two
+ * {@code int[]} arrays which are indexed by slot, so tracking the recency of an element requires neither an object
+ * per element nor pointer chasing. Slot ids range from {@code 0} to {@code slots - 1}, the caller maps them to its
+ * own storage, typically parallel arrays.
+ *
+ * @author Philipp Meinen
+ */
+public final class IntLruList {
+
+	/** Returned instead of a slot if there is none. */
+	public static final int NONE = -1;
+
+	private final int capacity;
+
+	// index 'slots' is the sentinel which links the head and the tail
+	private final int[] prev;
+	private final int[] next;
+	private final int sentinel;
+
+	private int size;
+
+	/**
+	 * Creates a list for the slots {@code 0} to {@code capacity - 1} which can hold all of them.
+	 */
+	public IntLruList(int capacity) {
+		this(capacity, capacity);
+	}
+
+	/**
+	 * @param slots    The number of slot ids, the valid slots are {@code 0} to {@code slots - 1}.
+	 * @param capacity The maximum number of slots which are in the list at the same time, see {@link #add(int)}.
+	 */
+	public IntLruList(int slots, int capacity) {
+		Validation.isTrue(capacity > 0, "capacity must be > 0");
+		Validation.isTrue(slots >= capacity && slots < Integer.MAX_VALUE, "slots must be >= capacity");
+		this.capacity = capacity;
+		this.prev = new int[slots + 1];
+		this.next = new int[slots + 1];
+		this.sentinel = slots;
+		clear();
+	}
+
+	/**
+	 * Add a slot to the head of the LRU.
+	 *
+	 * @param slot The new head of the {@code IntLruList}, must not be in the list already.
+	 * @return {@link #NONE} if the size after adding the slot does not exceed this list's {@code capacity}.
+	 * Otherwise the list will remove the tail (the slot which wasn't accessed for the longest amount of time) and
+	 * return it.
+	 */
+	public int add(final int slot) {
+		Validation.isTrue(slot >= 0 && slot < sentinel, "slot out of range");
+		assert (prev[slot] == NONE);
+
+		linkHead(slot);
+		size++;
+		if (size <= capacity) {
+			return NONE;
+		}
+		return removeTail();
+	}
+
+	public void remove(final int slot) {
+		assert (prev[slot] != NONE);
+
+		unlink(slot);
+		prev[slot] = NONE;
+		size--;
+	}
+
+	public int removeTail() {
+		if (size == 0) {
+			return NONE;
+		}
+		final int slot = prev[sentinel];
+		remove(slot);
+		return slot;
+	}
+
+	/**
+	 * @return The tail of the list (the slot which wasn't accessed for the longest amount of time) without removing
+	 * it, {@link #NONE} if the list is empty.
+	 */
+	public int peekTail() {
+		return size == 0 ? NONE : prev[sentinel];
+	}
+
+	/**
+	 * @return The slot which was accessed just after the given slot, {@link #NONE} if the given slot is the head of
+	 * the list.
+	 */
+	public int previous(final int slot) {
+		final int p = prev[slot];
+		assert (p != NONE);
+		return p == sentinel ? NONE : p;
+	}
+
+	public void moveToHead(final int slot) {
+		assert (prev[slot] != NONE);
+
+		if (prev[slot] == sentinel) {
+			// the slot is already in head position
+			return;
+		}
+		unlink(slot);
+		linkHead(slot);
+	}
+
+	public boolean contains(final int slot) {
+		return slot >= 0 && slot < sentinel && prev[slot] != NONE;
+	}
+
+	public void clear() {
+		Arrays.fill(prev, NONE);
+		prev[sentinel] = sentinel;
+		next[sentinel] = sentinel;
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	public boolean hasSpace() {
+		return size < capacity;
+	}
+
+	private void linkHead(final int slot) {
+		final int head = next[sentinel];
+		prev[slot] = sentinel;
+		next[slot] = head;
+		prev[head] = slot;
+		next[sentinel] = slot;
+	}
+
+	private void unlink(final int slot) {
+		final int p = prev[slot];
+		final int n = next[slot];
+		next[p] = n;
+		prev[n] = p;
+	}
+}
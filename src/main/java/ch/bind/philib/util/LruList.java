@@ -86,6 +86,27 @@ public final class LruList<E extends LruNode> {
 		return node;
 	}
 
+	/**
+	 * @return The tail of the list (the element which wasn't accessed for the longest amount of time) without
+	 * removing it, {@code null} if the list is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public E peekTail() {
+		return size == 0 ? null : (E) headTail.getLruPrev();
+	}
+
+	/**
+	 * @return The node which was accessed just after the given node, {@code null} if the given node is the head of
+	 * the list. Together with {@link #peekTail()} this allows to walk the list from the least recently used node
+	 * towards the head.
+	 */
+	@SuppressWarnings("unchecked")
+	public E previous(final E node) {
+		final LruNode prev = node.getLruPrev();
+		assert (prev != null);
+		return prev == headTail ? null : (E) prev;
+	}
+
 	public void moveToHead(final E node) {
 		assert (size > 0);
 
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.util;
+
+import ch.bind.philib.lang.MurmurHash;
+import ch.bind.philib.math.Calc;
+import ch.bind.philib.util.ClusteredIndex.Entry;
+import ch.bind.philib.validation.Validation;
+
+import java.util.Arrays;
+
+/**
+ * A {@link ClusteredIndex} which uses open addressing with linear probing instead of chaining entries through
+ * {@link Entry#getNextIndexEntry()}.<br/>
+ * The mixed hash of every entry is stored in a separate {@code int[]}, a probe sequence therefore scans consecutive
+ * integers and only dereferences an entry once its hash matches. Removals shift the following entries of the probe
+ * sequence backwards, so no tombstones are needed. The table doubles once more entries than the load factor permits
+ * are added.<br/>
+ * Modifications and lookups must be serialized by the caller.
+ *
+ * @author Philipp Meinen
+ */
+public final class OpenAddressingIndex<K, T extends Entry<K>> implements ClusteredIndex<K, T> {
+
+	public static final double DEFAULT_LOAD_FACTOR = 0.5;
+
+	public static final double MIN_LOAD_FACTOR = 0.1;
+
+	public static final double MAX_LOAD_FACTOR = 0.9;
+
+	private static final int MAX_TABLE_SIZE = 1 << 30;
+
+	private final double loadFactor;
+
+	// 0 marks an empty slot
+	private int[] hashes;
+
+	private Entry<K>[] entries;
+
+	private int mask;
+
+	private int size;
+
+	private int threshold;
+
+	public OpenAddressingIndex(int capacity) {
+		this(capacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * @param capacity   The number of entries which fit into the index without resizing it.
+	 * @param loadFactor The maximum ratio of entries to slots, between {@link #MIN_LOAD_FACTOR} and
+	 *                   {@link #MAX_LOAD_FACTOR}.
+	 */
+	public OpenAddressingIndex(int capacity, double loadFactor) {
+		Validation.isTrue(capacity > 0 && capacity <= (1 << 29), "capacity must be between 1 and 2^29");
+		Validation.isTrue(loadFactor >= MIN_LOAD_FACTOR && loadFactor <= MAX_LOAD_FACTOR,
+				"loadFactor must be between " + MIN_LOAD_FACTOR + " and " + MAX_LOAD_FACTOR);
+		this.loadFactor = loadFactor;
+		long slots = (long) Math.ceil(capacity / loadFactor);
+		allocate(Calc.nextPowerOfTwo((int) Math.min(slots, MAX_TABLE_SIZE)));
+	}
+
+	@Override
+	public boolean add(final T entry) {
+		Validation.isTrue(entry != null && entry.getKey() != null, "added entries and their keys must be non-null");
+
+		final K key = entry.getKey();
+		final int hash = mix(key.hashCode());
+		int pos = hash & mask;
+		int h;
+		while ((h = hashes[pos]) != 0) {
+			if (h == hash) {
+				K k = entries[pos].getKey();
+				if (key == k || key.equals(k)) {
+					return false;
+				}
+			}
+			pos = (pos + 1) & mask;
+		}
+		if (size == threshold) {
+			grow();
+			pos = freeSlot(hash);
+		}
+		hashes[pos] = hash;
+		entries[pos] = entry;
+		size++;
+		return true;
+	}
+
+	@Override
+	public boolean remove(final T entry) {
+		Validation.notNull(entry);
+
+		final int hash = mix(entry.getKey().hashCode());
+		int pos = hash & mask;
+		int h;
+		while ((h = hashes[pos]) != 0) {
+			if (h == hash && entries[pos] == entry) {
+				shiftBackwards(pos);
+				size--;
+				return true;
+			}
+			pos = (pos + 1) & mask;
+		}
+		return false;
+	}
+
+	// returns null if a pair does not exist
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(final K key) {
+		Validation.notNull(key);
+
+		final int hash = mix(key.hashCode());
+		int pos = hash & mask;
+		int h;
+		while ((h = hashes[pos]) != 0) {
+			if (h == hash) {
+				Entry<K> entry = entries[pos];
+				K k = entry.getKey();
+				if (key == k || key.equals(k)) {
+					return (T) entry;
+				}
+			}
+			pos = (pos + 1) & mask;
+		}
+		return null;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(hashes, 0);
+		Arrays.fill(entries, null);
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public double getLoadFactor() {
+		return loadFactor;
+	}
+
+	// package-private for tests
+	int slots() {
+		return hashes.length;
+	}
+
+	private void shiftBackwards(int hole) {
+		int pos = hole;
+		while (true) {
+			pos = (pos + 1) & mask;
+			int h = hashes[pos];
+			if (h == 0) {
+				break;
+			}
+			// an entry may fill the hole if the hole lies between its home slot and its current slot
+			int home = h & mask;
+			if (((pos - home) & mask) >= ((pos - hole) & mask)) {
+				hashes[hole] = h;
+				entries[hole] = entries[pos];
+				hole = pos;
+			}
+		}
+		hashes[hole] = 0;
+		entries[hole] = null;
+	}
+
+	private void grow() {
+		if (hashes.length == MAX_TABLE_SIZE) {
+			throw new IllegalStateException("the index can not grow beyond " + threshold + " entries");
+		}
+		int[] oldHashes = hashes;
+		Entry<K>[] oldEntries = entries;
+		allocate(oldHashes.length * 2);
+		for (int i = 0; i < oldHashes.length; i++) {
+			int h = oldHashes[i];
+			if (h != 0) {
+				int pos = freeSlot(h);
+				hashes[pos] = h;
+				entries[pos] = oldEntries[i];
+			}
+		}
+	}
+
+	private int freeSlot(int hash) {
+		int pos = hash & mask;
+		while (hashes[pos] != 0) {
+			pos = (pos + 1) & mask;
+		}
+		return pos;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int slots) {
+		hashes = new int[slots];
+		entries = new Entry[slots];
+		mask = slots - 1;
+		// at least one slot must remain empty to terminate probe sequences
+		threshold = Math.min(slots - 1, (int) (slots * loadFactor));
+	}
+
+	private static int mix(int hash) {
+		int h = MurmurHash.murmur3_finalize_mix32(hash);
+		return h == 0 ? 1 : h;
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class AdaptiveLruCacheTest extends CacheTestBase {
+
+	@Override
+	<K, V> Cache<K, V> create() {
+		return new AdaptiveLruCache<>();
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(int capacity) {
+		return new AdaptiveLruCache<>(capacity);
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(Cloner<V> valueCloner) {
+		return new AdaptiveLruCache<>(valueCloner);
+	}
+
+	@Override
+	<K, V> Cache<K, V> createRecordingStats(int capacity) {
+		return new AdaptiveLruCache<>(capacity, null, true);
+	}
+
+	@Override
+	int getMinCapacity() {
+		return 1;
+	}
+
+	@Override
+	int getDefaultCapacity() {
+		return Cache.DEFAULT_CAPACITY;
+	}
+
+	@Override
+	int getBucketSize() {
+		return 1;
+	}
+
+	@Test
+	public void scanResistance() {
+		AdaptiveLruCache<Integer, Integer> cache = new AdaptiveLruCache<>(100);
+		for (int i = 0; i < 50; i++) {
+			cache.set(i, i);
+			cache.get(i);
+		}
+		// a scan of keys which are never accessed again only churns the recency lru
+		for (int i = 1000; i < 2000; i++) {
+			getOrSet(cache, i);
+		}
+		for (int i = 0; i < 50; i++) {
+			assertEquals(cache.get(i), Integer.valueOf(i));
+		}
+	}
+
+	@Test
+	public void recencyGhostHitGrowsRecencyTarget() {
+		AdaptiveLruCache<Integer, Integer> cache = new AdaptiveLruCache<>(100);
+		for (int i = 0; i < 100; i++) {
+			cache.set(i, i);
+			if (i >= 90) {
+				cache.get(i);
+			}
+		}
+		for (int i = 100; i < 110; i++) {
+			cache.set(i, i);
+		}
+		// 0-9 were evicted from the recency lru and are remembered as ghosts
+		assertNull(cache.get(0));
+		assertEquals(cache.getRecencyTarget(), 0);
+		cache.set(0, 0);
+		assertTrue(cache.getRecencyTarget() > 0);
+		assertEquals(cache.get(0), Integer.valueOf(0));
+	}
+
+	@Test
+	public void frequencyGhostHitShrinksRecencyTarget() {
+		AdaptiveLruCache<Integer, Integer> cache = new AdaptiveLruCache<>(10);
+		for (int i = 0; i < 10; i++) {
+			cache.set(i, i);
+			if (i >= 5) {
+				cache.get(i);
+			}
+		}
+		// push 0-4 into the recency ghosts and grow the recency target by writing them again
+		for (int i = 10; i < 15; i++) {
+			cache.set(i, i);
+		}
+		for (int i = 0; i < 5; i++) {
+			cache.set(i, i);
+		}
+		final int grown = cache.getRecencyTarget();
+		assertTrue(grown > 0);
+
+		// 5-9 are the least recently used entries of the frequency lru, they are
+		// pushed into the frequency ghosts by new frequently used entries
+		for (int i = 20; i < 25; i++) {
+			cache.set(i, i);
+			cache.get(i);
+		}
+		assertNull(cache.get(9));
+		cache.set(9, 9);
+		assertTrue(cache.getRecencyTarget() < grown, "target: " + cache.getRecencyTarget() + ", was: " + grown);
+	}
+
+	@Test
+	public void neverExceedsCapacity() {
+		final int cap = 64;
+		final Random rand = new Random(99);
+		AdaptiveLruCache<Integer, Integer> cache = new AdaptiveLruCache<>(cap);
+		for (int i = 0; i < 100000; i++) {
+			int key = rand.nextInt(4) == 0 ? rand.nextInt(32) : rand.nextInt(1000);
+			switch (rand.nextInt(3)) {
+				case 0:
+					cache.set(key, key);
+					break;
+				case 1:
+					cache.get(key);
+					break;
+				default:
+					if (cache.get(key) == null) {
+						cache.set(key, key);
+					}
+			}
+		}
+		int resident = 0;
+		for (int key = 0; key < 1000; key++) {
+			Integer v = cache.get(key);
+			if (v != null) {
+				assertEquals(v, Integer.valueOf(key));
+				resident++;
+			}
+		}
+		assertTrue(resident <= cap, "resident: " + resident);
+	}
+
+	private static boolean getOrSet(Cache<Integer, Integer> cache, Integer key) {
+		if (cache.get(key) != null) {
+			return true;
+		}
+		cache.set(key, key);
+		return false;
+	}
+}
@@ -23,6 +23,7 @@
 package ch.bind.philib.cache;
 
 import ch.bind.philib.TestUtil;
+import ch.bind.philib.math.Calc;
 
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
@@ -40,14 +41,8 @@ public final class Benchmark {
 
 	private static final int NCPU = Runtime.getRuntime().availableProcessors();
 
-	// TODO: read/write ratios
-	// 99/1%
-	// 95/5%
-	// 90/10%
-	// 85/15%
-	// 80/20%
-	// 70/30%
-	// ...
+	// read/write ratios and thread counts are covered by CacheBenchmark in the jmh profile:
+	// mvn -Pjmh test-compile exec:exec
 
 	private static void simple() {
 		Cache<Integer, String> cache = new LruCache<>(COUNT);
@@ -61,6 +56,30 @@ public final class Benchmark {
 		benchNormal(cache);
 	}
 
+	private static void striped() {
+		Cache<Integer, String> cache = new StripedLruCache<>(COUNT);
+		TestUtil.gcAndSleep();
+		benchNormal(cache);
+	}
+
+	private static void buffered() {
+		Cache<Integer, String> cache = new BufferedLruCache<>(COUNT);
+		TestUtil.gcAndSleep();
+		benchNormal(cache);
+	}
+
+	private static void tinyLfu() {
+		Cache<Integer, String> cache = new TinyLfuCache<>(COUNT);
+		TestUtil.gcAndSleep();
+		benchNormal(cache);
+	}
+
+	private static void adaptive() {
+		Cache<Integer, String> cache = new AdaptiveLruCache<>(COUNT);
+		TestUtil.gcAndSleep();
+		benchNormal(cache);
+	}
+
 	private static void line() {
 		Cache<Integer, String> cache = new LineCache<>(COUNT, 4);
 		TestUtil.gcAndSleep();
@@ -79,6 +98,18 @@ public final class Benchmark {
 		benchThreaded(cache, NCPU);
 	}
 
+	private static void parallelStriped() {
+		Cache<Integer, String> cache = new StripedLruCache<>(COUNT, Calc.nextPowerOfTwo(NCPU * 4), null);
+		TestUtil.gcAndSleep();
+		benchThreaded(cache, NCPU);
+	}
+
+	private static void parallelBuffered() {
+		Cache<Integer, String> cache = new BufferedLruCache<>(COUNT);
+		TestUtil.gcAndSleep();
+		benchThreaded(cache, NCPU);
+	}
+
 	private static void parallelLine() {
 		Cache<Integer, String> cache = new LineCache<>(COUNT, 4);
 		TestUtil.gcAndSleep();
@@ -172,9 +203,15 @@ public final class Benchmark {
 	public static void main(String[] args) {
 		simple();
 		staged();
+		striped();
+		buffered();
+		tinyLfu();
+		adaptive();
 		line();
 		parallelSimple();
 		parallelStaged();
+		parallelStriped();
+		parallelBuffered();
 		for (int i = 0; i < 1000; i++) {
 			parallelLine();
 		}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+@Test
+public class BufferedLruCacheTest extends CacheTestBase {
+
+	@Override
+	<K, V> Cache<K, V> create() {
+		return new BufferedLruCache<>();
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(int capacity) {
+		return new BufferedLruCache<>(capacity);
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(Cloner<V> valueCloner) {
+		return new BufferedLruCache<>(valueCloner);
+	}
+
+	@Override
+	<K, V> Cache<K, V> createRecordingStats(int capacity) {
+		return new BufferedLruCache<>(capacity, null, true);
+	}
+
+	@Override
+	int getMinCapacity() {
+		return 1;
+	}
+
+	@Override
+	int getDefaultCapacity() {
+		return Cache.DEFAULT_CAPACITY;
+	}
+
+	@Override
+	int getBucketSize() {
+		return 1;
+	}
+
+	@Test
+	public void singleThreadedReadsKeepExactLruOrder() {
+		final int cap = 10000;
+		BufferedLruCache<Integer, Integer> cache = new BufferedLruCache<>(cap);
+		for (int i = 0; i < cap; i++) {
+			cache.set(i, i);
+		}
+		// mark the first half as recently used
+		for (int i = 0; i < cap / 2; i++) {
+			assertEquals(cache.get(i), Integer.valueOf(i));
+		}
+		// evicts the second half
+		for (int i = cap; i < cap + cap / 2; i++) {
+			cache.set(i, i);
+		}
+		for (int i = 0; i < cap / 2; i++) {
+			assertEquals(cache.get(i), Integer.valueOf(i));
+		}
+		for (int i = cap / 2; i < cap; i++) {
+			assertNull(cache.get(i));
+		}
+	}
+
+	@Test
+	public void overwriteReplacesEntry() {
+		BufferedLruCache<Integer, Integer> cache = new BufferedLruCache<>(2);
+		cache.set(1, 1);
+		cache.set(2, 2);
+		cache.set(1, 11);
+		// 2 is the least recently used entry
+		cache.set(3, 3);
+		assertEquals(cache.get(1), Integer.valueOf(11));
+		assertNull(cache.get(2));
+		assertEquals(cache.get(3), Integer.valueOf(3));
+	}
+}
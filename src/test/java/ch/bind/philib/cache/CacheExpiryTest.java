@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static ch.bind.philib.TestUtil.sleepOrFail;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Runs the expiry contract against all caches which support an {@link Expiry}.
+ */
+@Test
+public class CacheExpiryTest {
+
+	@DataProvider(name = "caches")
+	public Object[][] caches() {
+		BiFunction<Integer, Expiry, Cache<Integer, String>> lru = (cap, exp) -> LruCache.create(cap, //
+				new CacheOptions<Integer, String>().recordStats().expiry(exp));
+		BiFunction<Integer, Expiry, Cache<Integer, String>> staged = (cap, exp) -> StagedLruCache.create(cap, //
+				new CacheOptions<Integer, String>().recordStats().expiry(exp));
+		BiFunction<Integer, Expiry, Cache<Integer, String>> line = (cap, exp) -> LineCache.create(cap, 4, //
+				new CacheOptions<Integer, String>().recordStats().expiry(exp));
+		return new Object[][]{{lru}, {staged}, {line}};
+	}
+
+	@Test(dataProvider = "caches")
+	public void neverExpire(BiFunction<Integer, Expiry, Cache<Integer, String>> factory) {
+		Cache<Integer, String> cache = factory.apply(64, null);
+		cache.set(1, "1");
+		sleepOrFail(20);
+		assertEquals(cache.get(1), "1");
+	}
+
+	@Test(dataProvider = "caches")
+	public void expireAfterWrite(BiFunction<Integer, Expiry, Cache<Integer, String>> factory) {
+		Cache<Integer, String> cache = factory.apply(64, Expiry.afterWrite(100, TimeUnit.MILLISECONDS));
+		cache.set(1, "1");
+		assertEquals(cache.get(1), "1");
+		sleepOrFail(150);
+		assertNull(cache.get(1));
+
+		CacheStats stats = cache.getStats();
+		assertEquals(stats.getHits(), 1);
+		assertEquals(stats.getMisses(), 1);
+		assertEquals(stats.getEvictions(), 1);
+	}
+
+	@Test(dataProvider = "caches")
+	public void overwriteResetsWriteTime(BiFunction<Integer, Expiry, Cache<Integer, String>> factory) {
+		Cache<Integer, String> cache = factory.apply(64, Expiry.afterWrite(200, TimeUnit.MILLISECONDS));
+		cache.set(1, "a");
+		sleepOrFail(120);
+		cache.set(1, "b");
+		sleepOrFail(120);
+		assertEquals(cache.get(1), "b");
+	}
+
+	@Test(dataProvider = "caches")
+	public void expireAfterAccess(BiFunction<Integer, Expiry, Cache<Integer, String>> factory) {
+		Cache<Integer, String> cache = factory.apply(64, Expiry.afterAccess(200, TimeUnit.MILLISECONDS));
+		cache.set(1, "1");
+		for (int i = 0; i < 4; i++) {
+			sleepOrFail(80);
+			assertEquals(cache.get(1), "1");
+		}
+		sleepOrFail(250);
+		assertNull(cache.get(1));
+	}
+
+	@Test(dataProvider = "caches")
+	public void writesRemoveExpiredEntries(BiFunction<Integer, Expiry, Cache<Integer, String>> factory) {
+		final int capacity = 64;
+		Cache<Integer, String> cache = factory.apply(capacity, Expiry.afterWrite(100, TimeUnit.MILLISECONDS));
+		for (int i = 0; i < capacity; i++) {
+			cache.set(i, itos(i));
+		}
+		sleepOrFail(150);
+		for (int i = capacity; i < capacity * 2; i++) {
+			cache.set(i, itos(i));
+		}
+		// the new entries took the space of expired entries instead of evicting each other
+		int found = 0;
+		for (int i = capacity; i < capacity * 2; i++) {
+			if (cache.get(i) != null) {
+				found++;
+			}
+		}
+		assertTrue(found > capacity / 2, "only " + found + " of " + capacity + " entries were retained");
+		assertTrue(cache.getStats().getEvictions() >= capacity / 2);
+	}
+
+	@Test
+	public void cleanUp() {
+		LruCache<Integer, String> lru = LruCache.create(64, new CacheOptions<Integer, String>().recordStats() //
+				.expiry(Expiry.afterWrite(100, TimeUnit.MILLISECONDS)));
+		StagedLruCache<Integer, String> staged = StagedLruCache.create(64, StagedLruCache.DEFAULT_OLD_GEN_RATIO, 1, //
+				new CacheOptions<Integer, String>().recordStats().expiry(Expiry.afterWrite(100, TimeUnit.MILLISECONDS)));
+		for (int i = 0; i < 64; i++) {
+			lru.set(i, itos(i));
+			staged.set(i, itos(i));
+			// promote entries into the old generation
+			staged.get(i);
+		}
+		sleepOrFail(150);
+		lru.cleanUp();
+		staged.cleanUp();
+		assertEquals(lru.getStats().getEvictions(), 64);
+		assertEquals(staged.getStats().getEvictions(), 64);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void durationMustBePositive() {
+		Expiry.afterWrite(0, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void combined() {
+		Expiry expiry = Expiry.afterWrite(100, TimeUnit.NANOSECONDS).andAfterAccess(10, TimeUnit.NANOSECONDS);
+		assertTrue(expiry.isEnabled());
+		assertTrue(expiry.tracksAccess());
+		assertTrue(expiry.isExpired(0, 95, 105));
+		assertTrue(expiry.isExpired(50, 50, 65));
+		assertNotNull(expiry.toString());
+		assertEquals(expiry.isExpired(50, 50, 55), false);
+	}
+
+	private static String itos(int i) {
+		return Integer.toString(i);
+	}
+}
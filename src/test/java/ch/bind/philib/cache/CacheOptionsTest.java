@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.util.ClusteredHashIndex;
+import ch.bind.philib.util.OpenAddressingIndex;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class CacheOptionsTest {
+
+	@Test
+	public void chainedIndexByDefault() {
+		assertTrue(new CacheOptions<Integer, String>().createIndex(16) instanceof ClusteredHashIndex);
+	}
+
+	@Test
+	public void openAddressingIndexLoadFactor() {
+		CacheOptions<Integer, String> options = new CacheOptions<>();
+		OpenAddressingIndex<?, ?> index = (OpenAddressingIndex<?, ?>) options.openAddressingIndex().createIndex(16);
+		assertEquals(index.getLoadFactor(), OpenAddressingIndex.DEFAULT_LOAD_FACTOR);
+
+		index = (OpenAddressingIndex<?, ?>) options.openAddressingIndex(0.9).createIndex(16);
+		assertEquals(index.getLoadFactor(), 0.9);
+	}
+
+	@Test
+	public void cacheWithDenseIndex() {
+		LruCache<Integer, String> cache = LruCache.create(1000, new CacheOptions<Integer, String>() //
+				.openAddressingIndex(OpenAddressingIndex.MAX_LOAD_FACTOR));
+		for (int i = 0; i < 2000; i++) {
+			cache.set(i, Integer.toString(i));
+		}
+		for (int i = 1000; i < 2000; i++) {
+			assertEquals(cache.get(i), Integer.toString(i));
+		}
+	}
+
+	@Test
+	public void constructorsWithNullCloner() {
+		// no options overload may make these ambiguous
+		assertEquals(new LruCache<Integer, String>(10, null).capacity(), 10);
+		assertEquals(new LineCache<Integer, String>(16, 4, null).capacity(), 16);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void loadFactorTooLow() {
+		new CacheOptions<Integer, String>().openAddressingIndex(OpenAddressingIndex.MIN_LOAD_FACTOR / 2);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void loadFactorTooHigh() {
+		new CacheOptions<Integer, String>().openAddressingIndex(1.0);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void maxWeightMustBePositive() {
+		new CacheOptions<Integer, String>().maxWeight(0, null);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void lineCacheRejectsWeight() {
+		LineCache.create(16, 4, new CacheOptions<Integer, String>().maxWeight(10, null));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void lineCacheRejectsOpenAddressingIndex() {
+		LineCache.create(16, 4, new CacheOptions<Integer, String>().openAddressingIndex());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void lruCacheRejectsTrackAccess() {
+		LruCache.create(16, new CacheOptions<Integer, String>().trackAccess());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void stagedLruCacheRejectsTrackAccess() {
+		StagedLruCache.create(16, new CacheOptions<Integer, String>().trackAccess());
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Philipp Meinen
+ */
+public class CacheSnapshotTest {
+
+	private static final SnapshotCodec<Long> LONGS = SnapshotCodec.int64();
+
+	private static final SnapshotCodec<String> STRINGS = SnapshotCodec.utf8();
+
+	private Path file;
+
+	@BeforeMethod
+	public void beforeMethod() throws IOException {
+		file = Files.createTempFile("cache", ".snapshot");
+	}
+
+	@AfterMethod
+	public void afterMethod() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void lruCacheRoundTrip() throws IOException {
+		LruCache<Long, String> cache = new LruCache<>(100);
+		for (long i = 0; i < 150; i++) {
+			cache.set(i, "v" + i);
+		}
+		// 60 becomes the most recently used entry
+		cache.get(60L);
+
+		assertEquals(cache.writeSnapshot(file, LONGS, STRINGS), 100);
+		List<Long> keys = keys(file);
+		assertEquals(keys.size(), 100);
+		assertEquals(keys.get(0), Long.valueOf(50));
+		assertEquals(keys.get(99), Long.valueOf(60));
+
+		LruCache<Long, String> restored = new LruCache<>(100);
+		assertEquals(restored.readSnapshot(file, LONGS, STRINGS), 100);
+		for (long i = 50; i < 150; i++) {
+			assertEquals(restored.get(i), "v" + i);
+		}
+
+		// the restored cache has the same LRU order
+		LruCache<Long, String> again = new LruCache<>(100);
+		again.readSnapshot(file, LONGS, STRINGS);
+		Path file2 = Files.createTempFile("cache", ".snapshot");
+		try {
+			again.writeSnapshot(file2, LONGS, null);
+			assertEquals(keys(file2), keys);
+		} finally {
+			Files.delete(file2);
+		}
+	}
+
+	@Test
+	public void smallerCacheKeepsTheMostRecentlyUsedEntries() throws IOException {
+		LruCache<Long, String> cache = new LruCache<>(100);
+		for (long i = 0; i < 100; i++) {
+			cache.set(i, "v" + i);
+		}
+		cache.writeSnapshot(file, LONGS, STRINGS);
+
+		LruCache<Long, String> restored = new LruCache<>(10);
+		restored.readSnapshot(file, LONGS, STRINGS);
+		for (long i = 0; i < 90; i++) {
+			assertNull(restored.get(i));
+		}
+		for (long i = 90; i < 100; i++) {
+			assertEquals(restored.get(i), "v" + i);
+		}
+	}
+
+	@Test
+	public void stagedLruCacheKeepsGenerations() throws IOException {
+		// 75 young and 25 old generation entries
+		StagedLruCache<Long, String> cache = new StagedLruCache<>(100);
+		for (long i = 0; i < 75; i++) {
+			cache.set(i, "v" + i);
+		}
+		// promote 0-9 into the old generation
+		for (int hit = 0; hit < StagedLruCache.DEFAULT_OLD_GEN_AFTER_HITS; hit++) {
+			for (long i = 0; i < 10; i++) {
+				cache.get(i);
+			}
+		}
+		assertEquals(cache.writeSnapshot(file, LONGS, STRINGS), 75);
+		List<CacheSnapshot.Record<Long, String>> records = CacheSnapshot.read(file, LONGS, STRINGS);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(records.get(i).generation, CacheSnapshot.GEN_OLD);
+		}
+		for (int i = 10; i < 75; i++) {
+			assertEquals(records.get(i).generation, CacheSnapshot.GEN_YOUNG);
+		}
+
+		StagedLruCache<Long, String> restored = new StagedLruCache<>(100);
+		assertEquals(restored.readSnapshot(file, LONGS, STRINGS), 75);
+		// the old generation survives a flood of new entries
+		for (long i = 1000; i < 1200; i++) {
+			restored.set(i, "v" + i);
+		}
+		for (long i = 0; i < 10; i++) {
+			assertEquals(restored.get(i), "v" + i);
+		}
+		for (long i = 10; i < 75; i++) {
+			assertNull(restored.get(i));
+		}
+	}
+
+	@Test
+	public void keysOnly() throws IOException {
+		LruCache<Long, String> cache = new LruCache<>(16);
+		for (long i = 0; i < 10; i++) {
+			cache.set(i, "v" + i);
+		}
+		cache.writeSnapshot(file, LONGS, null);
+
+		LruCache<Long, String> restored = new LruCache<>(16);
+		try {
+			restored.readSnapshot(file, LONGS, STRINGS);
+			fail("snapshot without values must be rejected");
+		} catch (IOException e) {
+			// expected
+		}
+
+		int n = restored.readSnapshot(file, LONGS, key -> {
+			if (key == 3) {
+				throw new IllegalStateException("backend failure");
+			}
+			return key == 4 ? null : "loaded" + key;
+		});
+		assertEquals(n, 8);
+		for (long i = 0; i < 10; i++) {
+			if (i == 3 || i == 4) {
+				assertNull(restored.get(i));
+			} else {
+				assertEquals(restored.get(i), "loaded" + i);
+			}
+		}
+	}
+
+	@Test
+	public void largeRecords() throws IOException {
+		LruCache<String, String> cache = new LruCache<>(8);
+		char[] big = new char[200 * 1024];
+		Arrays.fill(big, 'x');
+		String bigValue = new String(big);
+		cache.set("a", "small");
+		cache.set("b", bigValue);
+		cache.set("c", "small too");
+		cache.writeSnapshot(file, STRINGS, STRINGS);
+
+		LruCache<String, String> restored = new LruCache<>(8);
+		assertEquals(restored.readSnapshot(file, STRINGS, STRINGS), 3);
+		assertEquals(restored.get("a"), "small");
+		assertEquals(restored.get("b"), bigValue);
+		assertEquals(restored.get("c"), "small too");
+	}
+
+	@Test
+	public void emptySnapshot() throws IOException {
+		LruCache<Long, String> cache = new LruCache<>(8);
+		assertEquals(cache.writeSnapshot(file, LONGS, STRINGS), 0);
+		assertEquals(cache.readSnapshot(file, LONGS, STRINGS), 0);
+	}
+
+	@Test
+	public void replacesExistingSnapshotAtomically() throws IOException {
+		LruCache<Long, String> cache = new LruCache<>(8);
+		cache.set(1L, "1");
+		cache.writeSnapshot(file, LONGS, STRINGS);
+		cache.set(2L, "2");
+		cache.writeSnapshot(file, LONGS, STRINGS);
+		assertEquals(keys(file), Arrays.asList(1L, 2L));
+		assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+	}
+
+	@Test
+	public void corrupt() throws IOException {
+		Files.write(file, new byte[]{1, 2, 3});
+		assertCorrupt();
+
+		Files.write(file, new byte[32]);
+		assertCorrupt();
+
+		LruCache<Long, String> cache = new LruCache<>(8);
+		cache.set(1L, "1");
+		cache.set(2L, "2");
+		cache.writeSnapshot(file, LONGS, STRINGS);
+		byte[] data = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(data, data.length - 1));
+		assertCorrupt();
+	}
+
+	@Test
+	public void int64Codec() {
+		for (long v : new long[]{0, 1, -1, Long.MIN_VALUE, Long.MAX_VALUE, 0x0102030405060708L}) {
+			assertEquals(LONGS.decode(LONGS.encode(v)), Long.valueOf(v));
+		}
+	}
+
+	private void assertCorrupt() {
+		try {
+			new LruCache<Long, String>(8).readSnapshot(file, LONGS, STRINGS);
+			fail("corrupt snapshot must be rejected");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains(file.toString()), e.getMessage());
+		}
+	}
+
+	private static List<Long> keys(Path file) throws IOException {
+		List<Long> keys = new ArrayList<>();
+		for (CacheSnapshot.Record<Long, String> r : CacheSnapshot.<Long, String>read(file, LONGS, null)) {
+			keys.add(r.key);
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class CacheStatsTest {
+
+	@Test
+	public void hitRatio() {
+		assertEquals(CacheStats.EMPTY.getHitRatio(), 1.0, 0.0001);
+		CacheStats stats = new CacheStats(3, 1, 0, 0, 0, 0, 0);
+		assertEquals(stats.getRequests(), 4);
+		assertEquals(stats.getHitRatio(), 0.75, 0.0001);
+	}
+
+	@Test
+	public void plus() {
+		CacheStats a = new CacheStats(1, 2, 3, 4, 5, 6, 7);
+		CacheStats b = new CacheStats(10, 20, 30, 40, 50, 60, 70);
+		CacheStats sum = a.plus(b);
+		assertEquals(sum.getHits(), 11);
+		assertEquals(sum.getMisses(), 22);
+		assertEquals(sum.getPuts(), 33);
+		assertEquals(sum.getEvictions(), 44);
+		assertEquals(sum.getRemovals(), 55);
+		assertEquals(sum.getLoads(), 66);
+		assertEquals(sum.getTotalLoadTimeNs(), 77);
+	}
+
+	@Test
+	public void implementationsWithoutStats() {
+		Cache<String, String> cache = new Cache<String, String>() {
+
+			@Override
+			public void set(String key, String value) {
+			}
+
+			@Override
+			public String get(String key) {
+				return null;
+			}
+
+			@Override
+			public void remove(String key) {
+			}
+
+			@Override
+			public int capacity() {
+				return 0;
+			}
+
+			@Override
+			public void clear() {
+			}
+		};
+		assertSame(cache.getStats(), CacheStats.EMPTY);
+	}
+
+	@Test
+	public void disabledCounter() {
+		StatsCounter counter = StatsCounter.create(false);
+		counter.recordHit();
+		counter.recordLoad(100);
+		assertEquals(counter.snapshot().getHits(), 0);
+		assertEquals(counter.snapshot().getLoads(), 0);
+	}
+
+	@Test
+	public void enabledCounter() {
+		StatsCounter counter = StatsCounter.create(true);
+		counter.recordHit();
+		counter.recordMiss();
+		counter.recordMiss();
+		counter.recordLoad(100);
+		counter.recordLoad(50);
+		CacheStats stats = counter.snapshot();
+		assertEquals(stats.getHits(), 1);
+		assertEquals(stats.getMisses(), 2);
+		assertEquals(stats.getLoads(), 2);
+		assertEquals(stats.getTotalLoadTimeNs(), 150);
+	}
+}
@@ -25,9 +25,14 @@ package ch.bind.philib.cache;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 
 import org.testng.annotations.Test;
@@ -57,6 +62,8 @@ public abstract class CacheTestBase {
 
 	abstract <K, V> Cache<K, V> create(Cloner<V> valueCloner);
 
+	abstract <K, V> Cache<K, V> createRecordingStats(int capacity);
+
 	abstract int getMinCapacity();
 
 	abstract int getBucketSize();
@@ -169,6 +176,67 @@ public abstract class CacheTestBase {
 		assertNotSame(one, copy);
 	}
 
+	@Test
+	public void bulk() {
+		Cache<String, String> cache = this.create();
+		Map<String, String> entries = new HashMap<>();
+		entries.put("1", "one");
+		entries.put("2", "two");
+		entries.put("3", "three");
+		cache.setAll(entries);
+		assertEquals(cache.getAll(Arrays.asList("1", "2", "3", "4")), entries);
+
+		cache.removeAll(Arrays.asList("1", "3", "5"));
+		assertEquals(cache.getAll(Arrays.asList("1", "2", "3")), Collections.singletonMap("2", "two"));
+		assertTrue(cache.getAll(Collections.emptyList()).isEmpty());
+	}
+
+	@Test
+	public void bulkCloner() {
+		Cache<NeedsCloning, NeedsCloning> cache = this.create(NeedsCloning.CLONER);
+		NeedsCloning one = new NeedsCloning(1);
+		cache.setAll(Collections.singletonMap(one, one));
+		NeedsCloning copy = cache.getAll(Collections.singleton(one)).get(one);
+		assertNotNull(copy);
+		assertEquals(one.v, copy.v);
+		assertNotSame(one, copy);
+	}
+
+	@Test
+	public void bulkStats() {
+		Cache<Integer, Integer> cache = this.createRecordingStats(getDefaultCapacity());
+		Map<Integer, Integer> entries = new HashMap<>();
+		entries.put(1, 1);
+		entries.put(2, 2);
+		cache.setAll(entries);
+		cache.getAll(Arrays.asList(1, 2, 3));
+		cache.removeAll(Arrays.asList(1, 3));
+
+		CacheStats stats = cache.getStats();
+		assertEquals(stats.getPuts(), 2);
+		assertEquals(stats.getHits(), 2);
+		assertEquals(stats.getMisses(), 1);
+		assertEquals(stats.getRemovals(), 1);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void getAllNullKey() {
+		Cache<String, String> cache = this.create();
+		cache.getAll(Arrays.asList("1", null));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void setAllNullValue() {
+		Cache<String, String> cache = this.create();
+		cache.setAll(Collections.singletonMap("1", null));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void removeAllNullKey() {
+		Cache<String, String> cache = this.create();
+		cache.removeAll(Arrays.asList("1", null));
+	}
+
 	@Test
 	public void up() {
 		Cache<Integer, Integer> cache = this.create();
@@ -236,6 +304,41 @@ public abstract class CacheTestBase {
 		}
 	}
 
+	@Test
+	public void noStatsByDefault() {
+		Cache<Integer, Integer> cache = this.create();
+		cache.set(1, 1);
+		cache.get(1);
+		cache.get(2);
+		assertSame(cache.getStats(), CacheStats.EMPTY);
+	}
+
+	@Test
+	public void stats() {
+		final int cap = getDefaultCapacity();
+		Cache<Integer, Integer> cache = this.createRecordingStats(cap);
+		cache.set(1, 1);
+		assertEquals(cache.get(1), Integer.valueOf(1));
+		assertNull(cache.get(2));
+		cache.remove(1);
+		cache.remove(1);
+
+		CacheStats stats = cache.getStats();
+		assertEquals(stats.getHits(), 1);
+		assertEquals(stats.getMisses(), 1);
+		assertEquals(stats.getPuts(), 1);
+		assertEquals(stats.getRemovals(), 1);
+		assertEquals(stats.getEvictions(), 0);
+
+		final int n = cap * 10;
+		for (int i = 0; i < n; i++) {
+			cache.set(i, i);
+		}
+		stats = cache.getStats();
+		assertEquals(stats.getPuts(), n + 1);
+		assertTrue(stats.getEvictions() >= n - cap, "evictions: " + stats.getEvictions());
+	}
+
 	@Test
 	public void stressTest() throws InterruptedException {
 		if (!TestUtil.RUN_STRESS_TESTS) {
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class FrequencySketchTest {
+
+	@Test
+	public void incrementAndSaturate() {
+		FrequencySketch sketch = new FrequencySketch(1024);
+		assertEquals(sketch.frequency(123), 0);
+		for (int i = 1; i <= FrequencySketch.MAX_FREQUENCY; i++) {
+			sketch.increment(123);
+			assertEquals(sketch.frequency(123), i);
+		}
+		sketch.increment(123);
+		assertEquals(sketch.frequency(123), FrequencySketch.MAX_FREQUENCY);
+	}
+
+	@Test
+	public void agingHalvesCounters() {
+		final int capacity = 64;
+		FrequencySketch sketch = new FrequencySketch(capacity);
+		for (int i = 0; i < 10; i++) {
+			sketch.increment(-1);
+		}
+		assertEquals(sketch.frequency(-1), 10);
+		// the sample size is ten times the capacity
+		for (int i = 0; i < capacity * 10; i++) {
+			sketch.increment(i);
+		}
+		assertTrue(sketch.frequency(-1) <= 5, "frequency after aging: " + sketch.frequency(-1));
+	}
+
+	@Test
+	public void clear() {
+		FrequencySketch sketch = new FrequencySketch(16);
+		sketch.increment(1);
+		sketch.clear();
+		assertEquals(sketch.frequency(1), 0);
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Philipp Meinen
+ */
+@Test
+public class LineCacheAccessTrackingTest extends CacheTestBase {
+
+	@Override
+	<K, V> Cache<K, V> create() {
+		return LineCache.create(Cache.DEFAULT_CAPACITY, LineCache.DEFAULT_ORDER, new CacheOptions<K, V>().trackAccess());
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(int capacity) {
+		return LineCache.create(capacity, 4, new CacheOptions<K, V>().trackAccess());
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(Cloner<V> valueCloner) {
+		return LineCache.create(Cache.DEFAULT_CAPACITY, LineCache.DEFAULT_ORDER, //
+				new CacheOptions<K, V>().valueCloner(valueCloner).trackAccess());
+	}
+
+	@Override
+	<K, V> Cache<K, V> createRecordingStats(int capacity) {
+		return LineCache.create(capacity, 4, new CacheOptions<K, V>().recordStats().trackAccess());
+	}
+
+	@Override
+	int getBucketSize() {
+		return LineCache.DEFAULT_ORDER;
+	}
+
+	@Override
+	int getMinCapacity() {
+		return LineCache.DEFAULT_ORDER;
+	}
+
+	@Override
+	int getDefaultCapacity() {
+		return Cache.DEFAULT_CAPACITY;
+	}
+
+	@Test
+	public void referencedEntrySurvivesInsertions() {
+		// a single line
+		LineCache<Integer, Integer> cache = LineCache.create(4, 4, new CacheOptions<Integer, Integer>().trackAccess());
+		for (int i = 0; i < 4; i++) {
+			cache.set(i, i);
+		}
+		assertEquals(cache.get(0), Integer.valueOf(0));
+
+		// without access tracking key 0 would be evicted first
+		for (int i = 4; i < 7; i++) {
+			cache.set(i, i);
+		}
+		assertEquals(cache.get(0), Integer.valueOf(0));
+		for (int i = 1; i < 4; i++) {
+			assertNull(cache.get(i));
+		}
+	}
+
+	@Test
+	public void secondChance() {
+		LineCache<Integer, Integer> cache = LineCache.create(2, 2, new CacheOptions<Integer, Integer>().trackAccess());
+		cache.set(0, 0);
+		cache.set(1, 1);
+		// key 0 collects one reference, key 1 none
+		cache.get(0);
+
+		// key 1 is evicted
+		cache.set(2, 2);
+		// key 0 uses up its reference and key 2 is evicted
+		cache.set(3, 3);
+		// key 0 is evicted
+		cache.set(4, 4);
+
+		assertNull(cache.get(0));
+		assertNull(cache.get(1));
+		assertNull(cache.get(2));
+		assertEquals(cache.get(3), Integer.valueOf(3));
+		assertEquals(cache.get(4), Integer.valueOf(4));
+	}
+
+	@Test
+	public void updateKeepsReferences() {
+		LineCache<Integer, Integer> cache = LineCache.create(2, 2, new CacheOptions<Integer, Integer>().trackAccess());
+		cache.set(0, 0);
+		cache.set(1, 1);
+		cache.get(0);
+		cache.set(0, 10);
+
+		cache.set(2, 2);
+		assertEquals(cache.get(0), Integer.valueOf(10));
+		assertNull(cache.get(1));
+	}
+
+	@Test
+	public void referencesSaturate() {
+		LineCache<Integer, Integer> cache = LineCache.create(2, 2, new CacheOptions<Integer, Integer>().trackAccess());
+		cache.set(0, 0);
+		cache.set(1, 1);
+		for (int i = 0; i < 100; i++) {
+			cache.get(0);
+		}
+		// key 0 can not hold more than MAX_REFS references against newer keys
+		for (int i = 0; i < LineCache.MAX_REFS + 1; i++) {
+			cache.set(100 + i, i);
+			cache.get(100 + i);
+		}
+		assertNull(cache.get(0));
+	}
+}
@@ -25,6 +25,9 @@ package ch.bind.philib.cache;
 import ch.bind.philib.lang.Cloner;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
 /**
  * @author Philipp Meinen
  */
@@ -46,6 +49,11 @@ public class LineCacheTest extends CacheTestBase {
 		return new LineCache<>(valueCloner);
 	}
 
+	@Override
+	<K, V> Cache<K, V> createRecordingStats(int capacity) {
+		return LineCache.create(capacity, 4, new CacheOptions<K, V>().recordStats());
+	}
+
 	@Override
 	int getBucketSize() {
 		return LineCache.DEFAULT_ORDER;
@@ -60,4 +68,59 @@ public class LineCacheTest extends CacheTestBase {
 	int getDefaultCapacity() {
 		return Cache.DEFAULT_CAPACITY;
 	}
+
+	@Test
+	public void matchTags() {
+		assertEquals(LineCache.matchTags(0, 1), 0);
+		assertEquals(LineCache.matchTags(0x0000000000000001L, 1), 0x0000000000000080L);
+		assertEquals(LineCache.matchTags(0x0100000000010001L, 1), 0x8000000000800080L);
+		assertEquals(LineCache.matchTags(0xFFFEFF00FF01FFFFL, 0xFF), 0x8000800080008080L);
+		// neighbours of a match must not be reported
+		assertEquals(LineCache.matchTags(0x0102010001020100L, 1), 0x8000800080008000L);
+	}
+
+	@Test
+	public void tagIsNeverZero() {
+		assertEquals(LineCache.tag(0x00FFFFFF), 1);
+		assertEquals(LineCache.tag(0x01000000), 1);
+		assertEquals(LineCache.tag(0xAB000000), 0xAB);
+	}
+
+	@Test
+	public void linesSpanningSeveralTagWords() {
+		LineCache<Integer, Integer> cache = LineCache.create(64, 32, new CacheOptions<Integer, Integer>().recordStats());
+		for (int i = 0; i < 64; i++) {
+			cache.set(i, i);
+		}
+		int hits = 0;
+		for (int i = 0; i < 64; i++) {
+			Integer v = cache.get(i);
+			if (v != null) {
+				assertEquals(v, Integer.valueOf(i));
+				hits++;
+			}
+		}
+		assertEquals(hits, 64 - countEvicted(cache));
+		for (int i = 0; i < 64; i++) {
+			cache.remove(i);
+			assertNull(cache.get(i));
+		}
+	}
+
+	@Test
+	public void linesSharingATagWord() {
+		LineCache<Integer, Integer> cache = LineCache.create(16, 2, new CacheOptions<Integer, Integer>().recordStats());
+		for (int i = 0; i < 1000; i++) {
+			cache.set(i, i);
+			assertEquals(cache.get(i), Integer.valueOf(i));
+		}
+		for (int i = 0; i < 1000; i++) {
+			cache.remove(i);
+			assertNull(cache.get(i));
+		}
+	}
+
+	private static int countEvicted(LineCache<?, ?> cache) {
+		return (int) cache.getStats().getEvictions();
+	}
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Runs the cache contract with a loader which never provides a value.
+ */
+@Test
+public class LoadingCacheTest extends CacheTestBase {
+
+	@Override
+	<K, V> Cache<K, V> create() {
+		return new LoadingCache<>(new LruCache<>(), key -> null);
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(int capacity) {
+		return new LoadingCache<>(new LruCache<>(capacity), key -> null);
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(Cloner<V> valueCloner) {
+		return new LoadingCache<>(new LruCache<>(valueCloner), key -> null);
+	}
+
+	@Override
+	<K, V> Cache<K, V> createRecordingStats(int capacity) {
+		return new LoadingCache<>(LruCache.create(capacity, new CacheOptions<K, V>().recordStats()), key -> null, true);
+	}
+
+	@Override
+	int getMinCapacity() {
+		return 1;
+	}
+
+	@Override
+	int getDefaultCapacity() {
+		return Cache.DEFAULT_CAPACITY;
+	}
+
+	@Override
+	int getBucketSize() {
+		return 1;
+	}
+
+	@Test
+	public void loadOnMiss() {
+		AtomicInteger loads = new AtomicInteger();
+		LoadingCache<Integer, String> cache = new LoadingCache<>(new LruCache<>(), key -> {
+			loads.incrementAndGet();
+			return itos(key);
+		}, true);
+
+		assertEquals(cache.get(1), "1");
+		assertEquals(cache.get(1), "1");
+		assertEquals(cache.get(2), "2");
+		assertEquals(loads.get(), 2);
+
+		CacheStats stats = cache.getStats();
+		assertEquals(stats.getHits(), 1);
+		assertEquals(stats.getMisses(), 2);
+		assertEquals(stats.getLoads(), 2);
+	}
+
+	@Test
+	public void refreshReplacesValue() {
+		AtomicInteger loads = new AtomicInteger();
+		LoadingCache<Integer, String> cache = new LoadingCache<>(new LruCache<>(), key -> {
+			int n = loads.incrementAndGet();
+			return n < 3 ? itos(n) : null;
+		});
+		assertEquals(cache.get(1), "1");
+		assertEquals(cache.refresh(1), "2");
+		assertEquals(cache.get(1), "2");
+		assertNull(cache.refresh(1));
+		assertEquals(loads.get(), 3);
+		assertNull(cache.get(1));
+	}
+
+	@Test
+	public void loadDoesNotOverwriteConcurrentSet() {
+		LruCache<Integer, String> underlying = new LruCache<>();
+		AtomicReference<LoadingCache<Integer, String>> ref = new AtomicReference<>();
+		ref.set(new LoadingCache<>(underlying, key -> {
+			// a concurrent write while the loader runs
+			ref.get().set(key, "set");
+			return "loaded";
+		}));
+		// the waiting callers still receive the loaded value
+		assertEquals(ref.get().get(1), "loaded");
+		assertEquals(underlying.get(1), "set");
+	}
+
+	@Test
+	public void refreshDoesNotRestoreConcurrentlyRemovedKey() {
+		LruCache<Integer, String> underlying = new LruCache<>();
+		AtomicReference<LoadingCache<Integer, String>> ref = new AtomicReference<>();
+		ref.set(new LoadingCache<>(underlying, key -> {
+			ref.get().remove(key);
+			return "loaded";
+		}));
+		underlying.set(1, "old");
+		assertEquals(ref.get().refresh(1), "loaded");
+		assertNull(underlying.get(1));
+	}
+
+	@Test
+	public void missDuringConditionalRefreshLoads() throws InterruptedException {
+		final CountDownLatch refreshing = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger loads = new AtomicInteger();
+		final LruCache<Integer, String> underlying = new LruCache<>();
+		final LoadingCache<Integer, String> cache = new LoadingCache<>(underlying, key -> {
+			if (loads.incrementAndGet() == 1) {
+				refreshing.countDown();
+				release.await();
+				return "refreshed";
+			}
+			return "loaded";
+		});
+		underlying.set(1, "old");
+		final long version = cache.version(1);
+		Thread t = new Thread(() -> cache.refresh(1, version));
+		t.start();
+		assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+		underlying.remove(1);
+		// does not join the pending refresh
+		assertEquals(cache.get(1), "loaded");
+		release.countDown();
+		t.join();
+		assertEquals(loads.get(), 2);
+		// the load advanced the version, the refresh was dropped
+		assertEquals(underlying.get(1), "loaded");
+	}
+
+	@Test
+	public void conditionalRefreshDoesNotReadTheCache() {
+		LruCache<Integer, String> underlying = LruCache.create(16, new CacheOptions<Integer, String>().recordStats());
+		LoadingCache<Integer, String> cache = new LoadingCache<>(underlying, key -> "loaded");
+		underlying.set(1, "old");
+		assertEquals(cache.refresh(1, cache.version(1)), "loaded");
+		CacheStats stats = underlying.getStats();
+		assertEquals(stats.getHits(), 0);
+		assertEquals(stats.getMisses(), 0);
+		assertEquals(stats.getPuts(), 2);
+	}
+
+	@Test
+	public void conditionalRefreshIsSkippedAfterWrite() {
+		AtomicInteger loads = new AtomicInteger();
+		LoadingCache<Integer, String> cache = new LoadingCache<>(new LruCache<>(), key -> "v" + loads.incrementAndGet());
+		long version = cache.version(1);
+		cache.set(1, "set");
+		assertNull(cache.refresh(1, version));
+		assertEquals(loads.get(), 0);
+		assertEquals(cache.get(1), "set");
+	}
+
+	@Test
+	public void nullIsNotCached() {
+		AtomicInteger loads = new AtomicInteger();
+		LoadingCache<Integer, String> cache = new LoadingCache<>(new LruCache<>(), key -> {
+			loads.incrementAndGet();
+			return null;
+		});
+		assertNull(cache.get(1));
+		assertNull(cache.get(1));
+		assertEquals(loads.get(), 2);
+	}
+
+	@Test
+	public void checkedExceptionsAreWrapped() {
+		final IOException exc = new IOException("backend down");
+		LoadingCache<Integer, String> cache = new LoadingCache<>(new LruCache<>(), key -> {
+			throw exc;
+		});
+		try {
+			cache.get(1);
+			fail("expected a CacheLoaderException");
+		} catch (CacheLoaderException e) {
+			assertSame(e.getCause(), exc);
+		}
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void runtimeExceptionsAreRethrown() {
+		LoadingCache<Integer, String> cache = new LoadingCache<>(new LruCache<>(), key -> {
+			throw new IllegalStateException();
+		});
+		cache.get(1);
+	}
+
+	@Test
+	public void concurrentMissesLoadOnce() throws InterruptedException {
+		final int numThreads = 16;
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch loading = new CountDownLatch(1);
+		final LoadingCache<Integer, String> cache = new LoadingCache<>(new LruCache<>(), key -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			Thread.sleep(200);
+			return itos(key);
+		});
+
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger ok = new AtomicInteger();
+		Thread[] ts = new Thread[numThreads];
+		for (int i = 0; i < numThreads; i++) {
+			ts[i] = new Thread(() -> {
+				try {
+					start.await();
+					if ("42".equals(cache.get(42))) {
+						ok.incrementAndGet();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			ts[i].start();
+		}
+		start.countDown();
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+		for (Thread t : ts) {
+			t.join();
+		}
+		assertEquals(loads.get(), 1);
+		assertEquals(ok.get(), numThreads);
+	}
+}
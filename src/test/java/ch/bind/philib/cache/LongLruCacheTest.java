@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.testng.annotations.Test;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+@Test
+public class LongLruCacheTest {
+
+	@Test
+	public void setGetRemove() {
+		LongLruCache<String> cache = new LongLruCache<>(4);
+		assertEquals(cache.capacity(), 4);
+		cache.set(1, "a");
+		cache.set(-1, "b");
+		cache.set(Long.MAX_VALUE, "c");
+		assertEquals(cache.get(1), "a");
+		assertEquals(cache.get(-1), "b");
+		assertEquals(cache.get(Long.MAX_VALUE), "c");
+		assertNull(cache.get(2));
+		assertEquals(cache.size(), 3);
+
+		cache.set(1, "A");
+		assertEquals(cache.get(1), "A");
+		assertEquals(cache.size(), 3);
+
+		cache.remove(-1);
+		assertNull(cache.get(-1));
+		assertEquals(cache.size(), 2);
+
+		cache.clear();
+		assertNull(cache.get(1));
+		assertEquals(cache.size(), 0);
+		cache.set(5, "e");
+		assertEquals(cache.get(5), "e");
+	}
+
+	@Test
+	public void leastRecentlyUsedIsEvicted() {
+		LongLruCache<String> cache = new LongLruCache<>(3, true);
+		cache.set(1, "1");
+		cache.set(2, "2");
+		cache.set(3, "3");
+		cache.get(1);
+		cache.set(4, "4");
+		assertNull(cache.get(2));
+		assertEquals(cache.get(1), "1");
+		assertEquals(cache.get(3), "3");
+		assertEquals(cache.get(4), "4");
+		assertEquals(cache.getStats().getEvictions(), 1);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void nullValue() {
+		new LongLruCache<String>().set(1, null);
+	}
+
+	@Test
+	public void randomOperationsMatchModel() {
+		final int capacity = 100;
+		final Random rand = new Random(4321);
+		LongLruCache<Long> cache = new LongLruCache<>(capacity);
+		// insertion ordered, accesses are modeled by re-inserting
+		LinkedHashMap<Long, Long> model = new LinkedHashMap<>();
+		for (int i = 0; i < 100000; i++) {
+			long key = rand.nextInt(300);
+			int op = rand.nextInt(10);
+			if (op < 4) {
+				long value = rand.nextLong();
+				cache.set(key, value);
+				if (!model.containsKey(key) && model.size() == capacity) {
+					Iterator<Map.Entry<Long, Long>> it = model.entrySet().iterator();
+					it.next();
+					it.remove();
+				}
+				model.put(key, value);
+			} else if (op < 5) {
+				cache.remove(key);
+				model.remove(key);
+			} else {
+				Long expected = model.remove(key);
+				if (expected != null) {
+					model.put(key, expected);
+				}
+				assertEquals(cache.get(key), expected);
+			}
+			assertEquals(cache.size(), model.size());
+		}
+	}
+}
@@ -46,6 +46,11 @@ public class LruCacheTest extends CacheTestBase {
 		return new LruCache<>(valueCloner);
 	}
 
+	@Override
+	<K, V> Cache<K, V> createRecordingStats(int capacity) {
+		return LruCache.create(capacity, new CacheOptions<K, V>().recordStats());
+	}
+
 	@Override
 	int getMinCapacity() {
 		return 1;
@@ -165,4 +170,72 @@ public class LruCacheTest extends CacheTestBase {
 			assertEquals(cache.get(itos(i)), itos(i * i));
 		}
 	}
+
+	@Test
+	public void weightDefaultsToNumberOfEntries() {
+		LruCache<Integer, String> cache = new LruCache<>(10);
+		for (int i = 0; i < 20; i++) {
+			cache.set(i, itos(i));
+		}
+		assertEquals(cache.weight(), 10);
+		cache.remove(15);
+		assertEquals(cache.weight(), 9);
+		cache.clear();
+		assertEquals(cache.weight(), 0);
+	}
+
+	@Test
+	public void evictByWeight() {
+		LruCache<Integer, String> cache = LruCache.create(100, //
+				new CacheOptions<Integer, String>().maxWeight(10, (k, v) -> v.length()));
+		cache.set(1, "aaaa");
+		cache.set(2, "bbbb");
+		assertEquals(cache.weight(), 8);
+		cache.get(1);
+		// 2 is the least recently used entry and gets evicted
+		cache.set(3, "cccc");
+		assertEquals(cache.weight(), 8);
+		assertNull(cache.get(2));
+		assertEquals(cache.get(1), "aaaa");
+		assertEquals(cache.get(3), "cccc");
+
+		// a single heavy entry evicts multiple light ones
+		cache.set(4, "dddddddd");
+		assertEquals(cache.weight(), 8);
+		assertNull(cache.get(1));
+		assertNull(cache.get(3));
+		assertEquals(cache.get(4), "dddddddd");
+	}
+
+	@Test
+	public void overwriteAdjustsWeight() {
+		LruCache<Integer, String> cache = LruCache.create(100, //
+				new CacheOptions<Integer, String>().maxWeight(10, (k, v) -> v.length()));
+		cache.set(1, "aaaa");
+		cache.set(2, "bb");
+		cache.set(2, "bbbbbb");
+		assertEquals(cache.weight(), 10);
+		cache.set(2, "bbbbbbb");
+		// 1 was written before 2 and gets evicted
+		assertEquals(cache.weight(), 7);
+		assertNull(cache.get(1));
+	}
+
+	@Test
+	public void entryHeavierThanMaxWeight() {
+		LruCache<Integer, String> cache = LruCache.create(100, //
+				new CacheOptions<Integer, String>().maxWeight(10, (k, v) -> v.length()));
+		cache.set(1, "aaaa");
+		cache.set(2, "bbbbbbbbbbbb");
+		assertEquals(cache.weight(), 0);
+		assertNull(cache.get(1));
+		assertNull(cache.get(2));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void negativeWeight() {
+		LruCache<Integer, String> cache = LruCache.create(100, //
+				new CacheOptions<Integer, String>().maxWeight(10, (k, v) -> -1));
+		cache.set(1, "a");
+	}
 }
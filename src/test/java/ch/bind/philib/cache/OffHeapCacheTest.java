@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class OffHeapCacheTest {
+
+	@Test
+	public void setGetRemove() {
+		OffHeapCache cache = new OffHeapCache(16, 1024, 4);
+		cache.set(b("a"), b("1"));
+		cache.set(b("b"), b("22"));
+		assertEquals(cache.get(b("a")), b("1"));
+		assertEquals(cache.get(b("b")), b("22"));
+		assertNull(cache.get(b("c")));
+		assertEquals(cache.size(), 2);
+
+		cache.set(b("a"), b("333"));
+		assertEquals(cache.get(b("a")), b("333"));
+		assertEquals(cache.size(), 2);
+
+		cache.remove(b("a"));
+		assertNull(cache.get(b("a")));
+		assertEquals(cache.get(b("b")), b("22"));
+		assertEquals(cache.size(), 1);
+
+		cache.clear();
+		assertNull(cache.get(b("b")));
+		assertEquals(cache.size(), 0);
+	}
+
+	@Test
+	public void emptyKeyAndValue() {
+		OffHeapCache cache = new OffHeapCache(16, 1024, 4);
+		cache.set(new byte[0], new byte[0]);
+		assertEquals(cache.get(new byte[0]), new byte[0]);
+	}
+
+	@Test
+	public void oldestSegmentIsReclaimed() {
+		// 4 segments with room for 4 records each
+		final int recordSize = OffHeapCache.HEADER_SIZE + 4 + 12;
+		OffHeapCache cache = new OffHeapCache(1000, recordSize * 4, 4, true);
+		for (int i = 0; i < 16; i++) {
+			cache.set(key(i), new byte[12]);
+		}
+		assertEquals(cache.size(), 16);
+		// the 17th record reclaims the first segment
+		cache.set(key(16), new byte[12]);
+		assertEquals(cache.size(), 13);
+		for (int i = 0; i < 4; i++) {
+			assertNull(cache.get(key(i)));
+		}
+		for (int i = 4; i <= 16; i++) {
+			assertEquals(cache.get(key(i)), new byte[12]);
+		}
+		assertEquals(cache.getStats().getEvictions(), 4);
+	}
+
+	@Test
+	public void deadRecordsAreNotEvicted() {
+		final int recordSize = OffHeapCache.HEADER_SIZE + 4 + 12;
+		OffHeapCache cache = new OffHeapCache(1000, recordSize * 4, 2, true);
+		for (int i = 0; i < 4; i++) {
+			cache.set(key(i), new byte[12]);
+		}
+		cache.remove(key(0));
+		// overwrite 1, its new record is in the second segment
+		for (int i = 1; i < 5; i++) {
+			cache.set(key(i), new byte[12]);
+		}
+		// the first segment gets reclaimed, it holds no live records anymore
+		cache.set(key(5), new byte[12]);
+		assertEquals(cache.getStats().getEvictions(), 0);
+		for (int i = 1; i <= 5; i++) {
+			assertEquals(cache.get(key(i)), new byte[12]);
+		}
+	}
+
+	@Test
+	public void capacityIsRespected() {
+		OffHeapCache cache = new OffHeapCache(10, 256, 4);
+		for (int i = 0; i < 100; i++) {
+			cache.set(key(i), key(i));
+			assertTrue(cache.size() <= 10);
+		}
+		assertEquals(cache.get(key(99)), key(99));
+	}
+
+	@Test
+	public void recordsLargerThanASegmentAreNotCached() {
+		OffHeapCache cache = new OffHeapCache(10, 64, 4);
+		cache.set(b("a"), b("1"));
+		cache.set(b("a"), new byte[64]);
+		assertNull(cache.get(b("a")));
+	}
+
+	@Test
+	public void randomOperationsMatchMap() {
+		final Random rand = new Random(1234);
+		final int numKeys = 500;
+		// plenty of memory and capacity, nothing gets evicted
+		OffHeapCache cache = new OffHeapCache(numKeys, 64 * 1024, 64, true);
+		Map<Integer, byte[]> expected = new HashMap<>();
+		for (int i = 0; i < 50000; i++) {
+			int k = rand.nextInt(numKeys);
+			int op = rand.nextInt(3);
+			if (op == 0) {
+				byte[] v = new byte[rand.nextInt(32)];
+				rand.nextBytes(v);
+				cache.set(key(k), v);
+				expected.put(k, v);
+			} else if (op == 1) {
+				cache.remove(key(k));
+				expected.remove(k);
+			} else {
+				assertEquals(cache.get(key(k)), expected.get(k));
+			}
+		}
+		assertEquals(cache.size(), expected.size());
+		for (int k = 0; k < numKeys; k++) {
+			assertEquals(cache.get(key(k)), expected.get(k));
+		}
+	}
+
+	@Test
+	public void bulk() {
+		OffHeapCache cache = new OffHeapCache(16, 1024, 4);
+		Map<byte[], byte[]> entries = new HashMap<>();
+		for (int i = 0; i < 5; i++) {
+			entries.put(key(i), key(i * 10));
+		}
+		cache.setAll(entries);
+		byte[] k3 = key(3);
+		Map<byte[], byte[]> found = cache.getAll(Arrays.asList(k3, key(7)));
+		assertEquals(found.size(), 1);
+		assertEquals(found.get(k3), key(30));
+		cache.removeAll(Arrays.asList(key(0), key(1)));
+		assertEquals(cache.size(), 3);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void nullKey() {
+		new OffHeapCache().get(null);
+	}
+
+	private static byte[] key(int i) {
+		return new byte[]{(byte) (i >>> 24), (byte) (i >>> 16), (byte) (i >>> 8), (byte) i};
+	}
+
+	private static byte[] b(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+}
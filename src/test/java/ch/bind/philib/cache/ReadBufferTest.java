@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class ReadBufferTest {
+
+	@Test
+	public void drainInRecordingOrder() {
+		ReadBuffer<Integer> buffer = new ReadBuffer<>();
+		for (int i = 1; i < ReadBuffer.DRAIN_THRESHOLD; i++) {
+			assertFalse(buffer.record(i));
+		}
+		assertTrue(buffer.record(ReadBuffer.DRAIN_THRESHOLD));
+
+		List<Integer> drained = new ArrayList<>();
+		buffer.drain(drained::add);
+		assertEquals(drained.size(), ReadBuffer.DRAIN_THRESHOLD);
+		for (int i = 0; i < drained.size(); i++) {
+			assertEquals(drained.get(i), Integer.valueOf(i + 1));
+		}
+
+		drained.clear();
+		buffer.drain(drained::add);
+		assertTrue(drained.isEmpty());
+	}
+
+	@Test
+	public void dropWhenFull() {
+		ReadBuffer<Integer> buffer = new ReadBuffer<>();
+		for (int i = 0; i < ReadBuffer.STRIPE_SIZE * 2; i++) {
+			buffer.record(i);
+		}
+		List<Integer> drained = new ArrayList<>();
+		buffer.drain(drained::add);
+		assertEquals(drained.size(), ReadBuffer.STRIPE_SIZE);
+		assertEquals(drained.get(ReadBuffer.STRIPE_SIZE - 1), Integer.valueOf(ReadBuffer.STRIPE_SIZE - 1));
+	}
+}
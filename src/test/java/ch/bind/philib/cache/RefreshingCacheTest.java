@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+@Test
+public class RefreshingCacheTest {
+
+	@Test
+	public void freshValuesAreNotRefreshed() {
+		AtomicInteger loads = new AtomicInteger();
+		QueueingExecutor executor = new QueueingExecutor();
+		RefreshingCache<Integer, String> cache = new RefreshingCache<>(new LruCache<>(), key -> {
+			loads.incrementAndGet();
+			return "v" + key;
+		}, 1, TimeUnit.HOURS, executor);
+
+		assertEquals(cache.get(1), "v1");
+		assertEquals(cache.get(1), "v1");
+		assertEquals(loads.get(), 1);
+		assertEquals(executor.tasks.size(), 0);
+	}
+
+	@Test
+	public void staleValueIsReturnedWhileRefreshing() {
+		AtomicInteger loads = new AtomicInteger();
+		QueueingExecutor executor = new QueueingExecutor();
+		RefreshingCache<Integer, String> cache = new RefreshingCache<>(new LruCache<>(), key -> "v" + loads.incrementAndGet(), //
+				1, TimeUnit.NANOSECONDS, executor);
+
+		assertEquals(cache.get(1), "v1");
+		// stale, returned as is while exactly one refresh gets scheduled
+		assertEquals(cache.get(1), "v1");
+		assertEquals(cache.get(1), "v1");
+		assertEquals(executor.tasks.size(), 1);
+		assertEquals(loads.get(), 1);
+
+		executor.runAll();
+		assertEquals(loads.get(), 2);
+		assertEquals(cache.get(1), "v2");
+		assertEquals(executor.tasks.size(), 1);
+	}
+
+	@Test
+	public void failedRefreshKeepsStaleValue() {
+		AtomicInteger loads = new AtomicInteger();
+		QueueingExecutor executor = new QueueingExecutor();
+		RefreshingCache<Integer, String> cache = new RefreshingCache<>(new LruCache<>(), key -> {
+			if (loads.incrementAndGet() == 2) {
+				throw new IllegalStateException("backend down");
+			}
+			return "v" + loads.get();
+		}, 1, TimeUnit.NANOSECONDS, executor);
+
+		assertEquals(cache.get(1), "v1");
+		assertEquals(cache.get(1), "v1");
+		executor.runAll();
+		assertEquals(loads.get(), 2);
+
+		// the failed refresh did not replace the value, the next read schedules a new refresh
+		assertEquals(cache.get(1), "v1");
+		assertEquals(executor.tasks.size(), 1);
+		executor.runAll();
+		assertEquals(cache.get(1), "v3");
+	}
+
+	@Test
+	public void refreshWithoutValueRemovesKey() {
+		AtomicInteger loads = new AtomicInteger();
+		QueueingExecutor executor = new QueueingExecutor();
+		RefreshingCache<Integer, String> cache = new RefreshingCache<>(new LruCache<>(), key -> {
+			return loads.incrementAndGet() == 1 ? "v1" : null;
+		}, 1, TimeUnit.NANOSECONDS, executor);
+
+		assertEquals(cache.get(1), "v1");
+		assertEquals(cache.get(1), "v1");
+		executor.runAll();
+		assertNull(cache.get(1));
+	}
+
+	@Test
+	public void setResetsWriteTime() {
+		AtomicInteger loads = new AtomicInteger();
+		QueueingExecutor executor = new QueueingExecutor();
+		RefreshingCache<Integer, String> cache = new RefreshingCache<>(new LruCache<>(), key -> {
+			loads.incrementAndGet();
+			return "loaded";
+		}, 1, TimeUnit.HOURS, executor);
+
+		cache.set(1, "set");
+		assertEquals(cache.get(1), "set");
+		assertEquals(loads.get(), 0);
+		assertEquals(executor.tasks.size(), 0);
+	}
+
+	@Test
+	public void refreshIsDroppedAfterSet() {
+		AtomicInteger loads = new AtomicInteger();
+		QueueingExecutor executor = new QueueingExecutor();
+		LruCache<Integer, RefreshingCache.TimedValue<String>> underlying = new LruCache<>();
+		RefreshingCache<Integer, String> cache = new RefreshingCache<>(underlying, key -> "v" + loads.incrementAndGet(),
+				1, TimeUnit.NANOSECONDS, executor);
+
+		assertEquals(cache.get(1), "v1");
+		assertEquals(cache.get(1), "v1");
+		cache.set(1, "set");
+		executor.runAll();
+		// the refresh was scheduled for the replaced value
+		assertEquals(loads.get(), 1);
+		assertEquals(underlying.get(1).getValue(), "set");
+	}
+
+	@Test
+	public void refreshIsDroppedAfterRemove() {
+		AtomicInteger loads = new AtomicInteger();
+		QueueingExecutor executor = new QueueingExecutor();
+		LruCache<Integer, RefreshingCache.TimedValue<String>> underlying = new LruCache<>();
+		RefreshingCache<Integer, String> cache = new RefreshingCache<>(underlying, key -> "v" + loads.incrementAndGet(),
+				1, TimeUnit.NANOSECONDS, executor);
+
+		assertEquals(cache.get(1), "v1");
+		assertEquals(cache.get(1), "v1");
+		cache.remove(1);
+		executor.runAll();
+		assertEquals(loads.get(), 1);
+		assertNull(underlying.get(1));
+	}
+
+	@Test
+	public void setWhileReloadingWins() {
+		AtomicInteger loads = new AtomicInteger();
+		AtomicReference<RefreshingCache<Integer, String>> ref = new AtomicReference<>();
+		QueueingExecutor executor = new QueueingExecutor();
+		LruCache<Integer, RefreshingCache.TimedValue<String>> underlying = new LruCache<>();
+		ref.set(new RefreshingCache<>(underlying, key -> {
+			if (loads.incrementAndGet() == 2) {
+				// a concurrent write while the reload runs
+				ref.get().set(key, "set");
+			}
+			return "v" + loads.get();
+		}, 1, TimeUnit.NANOSECONDS, executor));
+		RefreshingCache<Integer, String> cache = ref.get();
+
+		assertEquals(cache.get(1), "v1");
+		assertEquals(cache.get(1), "v1");
+		executor.runAll();
+		assertEquals(loads.get(), 2);
+		assertEquals(underlying.get(1).getValue(), "set");
+	}
+
+	@Test
+	public void removeWhileReloadingWins() {
+		AtomicInteger loads = new AtomicInteger();
+		AtomicReference<RefreshingCache<Integer, String>> ref = new AtomicReference<>();
+		QueueingExecutor executor = new QueueingExecutor();
+		LruCache<Integer, RefreshingCache.TimedValue<String>> underlying = new LruCache<>();
+		ref.set(new RefreshingCache<>(underlying, key -> {
+			if (loads.incrementAndGet() == 2) {
+				ref.get().remove(key);
+			}
+			return "v" + loads.get();
+		}, 1, TimeUnit.NANOSECONDS, executor));
+		RefreshingCache<Integer, String> cache = ref.get();
+
+		assertEquals(cache.get(1), "v1");
+		assertEquals(cache.get(1), "v1");
+		executor.runAll();
+		assertEquals(loads.get(), 2);
+		assertNull(underlying.get(1));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void refreshAfterWriteMustBePositive() {
+		new RefreshingCache<Integer, String>(new LruCache<>(), key -> null, 0, TimeUnit.SECONDS, Runnable::run);
+	}
+
+	private static final class QueueingExecutor implements Executor {
+
+		final Queue<Runnable> tasks = new ArrayDeque<>();
+
+		@Override
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+
+		void runAll() {
+			Runnable r;
+			while ((r = tasks.poll()) != null) {
+				r.run();
+			}
+		}
+	}
+}
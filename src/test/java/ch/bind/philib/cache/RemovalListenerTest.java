@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static ch.bind.philib.TestUtil.sleepOrFail;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Runs the removal listener contract against all caches which support a {@link RemovalListener}.
+ */
+@Test
+public class RemovalListenerTest {
+
+	interface Factory {
+		Cache<Integer, String> create(int capacity, Expiry expiry, RemovalListener<Integer, String> listener);
+	}
+
+	@DataProvider(name = "caches")
+	public Object[][] caches() {
+		Factory lru = (cap, exp, l) -> LruCache.create(cap, //
+				new CacheOptions<Integer, String>().recordStats().expiry(exp).removalListener(l));
+		Factory staged = (cap, exp, l) -> StagedLruCache.create(cap, //
+				new CacheOptions<Integer, String>().recordStats().expiry(exp).removalListener(l));
+		Factory line = (cap, exp, l) -> LineCache.create(cap, 4, //
+				new CacheOptions<Integer, String>().recordStats().expiry(exp).removalListener(l));
+		return new Object[][]{{lru}, {staged}, {line}};
+	}
+
+	@Test(dataProvider = "caches")
+	public void explicit(Factory factory) {
+		Recorder rec = new Recorder();
+		Cache<Integer, String> cache = factory.create(64, null, rec);
+		cache.set(1, "1");
+		cache.set(2, "2");
+		cache.set(3, "3");
+		assertTrue(rec.events.isEmpty());
+
+		cache.remove(1);
+		assertEquals(rec.events, Arrays.asList("1=1 EXPLICIT"));
+
+		// removing an absent key does not notify
+		cache.remove(1);
+		assertEquals(rec.events.size(), 1);
+
+		cache.removeAll(Arrays.asList(2, 3, 4));
+		assertEquals(rec.events.size(), 3);
+		assertTrue(rec.events.contains("2=2 EXPLICIT"));
+		assertTrue(rec.events.contains("3=3 EXPLICIT"));
+	}
+
+	@Test(dataProvider = "caches")
+	public void replaced(Factory factory) {
+		Recorder rec = new Recorder();
+		Cache<Integer, String> cache = factory.create(64, null, rec);
+		cache.set(1, "a");
+		cache.set(1, "b");
+		assertEquals(rec.events, Arrays.asList("1=a REPLACED"));
+		assertEquals(cache.get(1), "b");
+	}
+
+	@Test(dataProvider = "caches")
+	public void evicted(Factory factory) {
+		Recorder rec = new Recorder();
+		Cache<Integer, String> cache = factory.create(8, null, rec);
+		for (int i = 0; i < 100; i++) {
+			cache.set(i, Integer.toString(i));
+		}
+		long evictions = cache.getStats().getEvictions();
+		assertTrue(evictions >= 92);
+		assertEquals(rec.events.size(), evictions);
+		for (String event : rec.events) {
+			assertTrue(event.endsWith(" EVICTED"), event);
+			String[] kv = event.substring(0, event.indexOf(' ')).split("=");
+			assertEquals(kv[0], kv[1]);
+			assertNull(cache.get(Integer.valueOf(kv[0])));
+		}
+	}
+
+	@Test(dataProvider = "caches")
+	public void expired(Factory factory) {
+		Recorder rec = new Recorder();
+		Cache<Integer, String> cache = factory.create(64, Expiry.afterWrite(50, TimeUnit.MILLISECONDS), rec);
+		cache.set(1, "1");
+		sleepOrFail(80);
+		assertNull(cache.get(1));
+		assertEquals(rec.events, Arrays.asList("1=1 EXPIRED"));
+	}
+
+	@Test(dataProvider = "caches")
+	public void clear(Factory factory) {
+		Recorder rec = new Recorder();
+		Cache<Integer, String> cache = factory.create(64, null, rec);
+		for (int i = 0; i < 5; i++) {
+			cache.set(i, Integer.toString(i));
+		}
+		cache.clear();
+		assertEquals(rec.events.size(), 5);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(rec.events.contains(i + "=" + i + " EXPLICIT"));
+			assertNull(cache.get(i));
+		}
+	}
+
+	@Test(dataProvider = "caches")
+	public void deliveredOutsideOfTheLock(Factory factory) {
+		AtomicReference<Cache<Integer, String>> ref = new AtomicReference<>();
+		List<Boolean> heldLock = new ArrayList<>();
+		Cache<Integer, String> cache = factory.create(64, null, (k, v, c) -> heldLock.add(Thread.holdsLock(ref.get())));
+		ref.set(cache);
+		cache.set(1, "1");
+		cache.remove(1);
+		assertEquals(heldLock, Arrays.asList(false));
+	}
+
+	@Test(dataProvider = "caches")
+	public void failingListener(Factory factory) {
+		Cache<Integer, String> cache = factory.create(64, null, (k, v, c) -> {
+			throw new IllegalStateException("listener failure");
+		});
+		cache.set(1, "1");
+		cache.remove(1);
+		assertNull(cache.get(1));
+		cache.set(1, "2");
+		assertEquals(cache.get(1), "2");
+	}
+
+	@Test(dataProvider = "caches")
+	public void async(Factory factory) {
+		Recorder rec = new Recorder();
+		List<Runnable> tasks = new ArrayList<>();
+		Cache<Integer, String> cache = factory.create(64, null, RemovalListener.async(rec, tasks::add));
+		cache.set(1, "1");
+		cache.remove(1);
+		assertTrue(rec.events.isEmpty());
+		assertEquals(tasks.size(), 1);
+
+		tasks.get(0).run();
+		assertEquals(rec.events, Arrays.asList("1=1 EXPLICIT"));
+	}
+
+	@Test
+	public void notifierDisabledWithoutListener() {
+		RemovalNotifier<Integer, String> notifier = RemovalNotifier.create(null);
+		assertFalse(notifier.isEnabled());
+		notifier.enqueue(1, "1", RemovalCause.EXPLICIT);
+		notifier.dispatch();
+	}
+
+	private static final class Recorder implements RemovalListener<Integer, String> {
+
+		final List<String> events = new ArrayList<>();
+
+		@Override
+		public void onRemoval(Integer key, String value, RemovalCause cause) {
+			events.add(key + "=" + value + " " + cause);
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import ch.bind.philib.test.CacheSimulator;
+import ch.bind.philib.test.Traces;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class SampledLruCacheTest extends CacheTestBase {
+
+	@Override
+	<K, V> Cache<K, V> create() {
+		return new SampledLruCache<>();
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(int capacity) {
+		return new SampledLruCache<>(capacity);
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(Cloner<V> valueCloner) {
+		return new SampledLruCache<>(valueCloner);
+	}
+
+	@Override
+	<K, V> Cache<K, V> createRecordingStats(int capacity) {
+		return new SampledLruCache<>(capacity, null, true);
+	}
+
+	@Override
+	int getMinCapacity() {
+		return 1;
+	}
+
+	@Override
+	int getBucketSize() {
+		return 1;
+	}
+
+	@Override
+	int getDefaultCapacity() {
+		return Cache.DEFAULT_CAPACITY;
+	}
+
+	@Test
+	public void leastRecentlyUsedIsEvictedWhenAllEntriesAreSampled() {
+		SampledLruCache<Integer, String> cache = new SampledLruCache<>(4, 4, null, true);
+		for (int i = 1; i <= 4; i++) {
+			cache.set(i, Integer.toString(i));
+		}
+		cache.get(1);
+		cache.set(5, "5");
+		assertNull(cache.get(2));
+		cache.set(6, "6");
+		assertNull(cache.get(3));
+		assertEquals(cache.get(1), "1");
+		assertEquals(cache.get(4), "4");
+		assertEquals(cache.get(5), "5");
+		assertEquals(cache.get(6), "6");
+		assertEquals(cache.size(), 4);
+		assertEquals(cache.getStats().getEvictions(), 2);
+	}
+
+	@Test
+	public void randomOperationsMatchModel() {
+		final int capacity = 100;
+		final Random rand = new Random(1234);
+		SampledLruCache<Integer, Integer> cache = new SampledLruCache<>(capacity);
+		// the cache holds a subset of the model, evictions can not be predicted
+		Map<Integer, Integer> model = new HashMap<>();
+		for (int i = 0; i < 100000; i++) {
+			int key = rand.nextInt(300);
+			int op = rand.nextInt(10);
+			if (op < 4) {
+				int value = rand.nextInt();
+				cache.set(key, value);
+				model.put(key, value);
+				assertEquals(cache.get(key), Integer.valueOf(value));
+			} else if (op < 5) {
+				cache.remove(key);
+				model.remove(key);
+				assertNull(cache.get(key));
+			} else {
+				Integer value = cache.get(key);
+				if (value != null) {
+					assertEquals(value, model.get(key));
+				}
+			}
+			assertTrue(cache.size() <= capacity);
+		}
+		int present = 0;
+		for (int key = 0; key < 300; key++) {
+			if (cache.get(key) != null) {
+				present++;
+			}
+		}
+		assertEquals(present, cache.size());
+	}
+
+	@Test
+	public void hitRatioCloseToLru() {
+		long[] trace = Traces.zipf(200000, 10000, 0.9, 42);
+		double lru = CacheSimulator.run("lru", new LruCache<>(1000), trace).getHitRatio();
+		double sampled = CacheSimulator.run("sampled", new SampledLruCache<>(1000), trace).getHitRatio();
+		assertTrue(Math.abs(lru - sampled) < 0.05, "lru: " + lru + ", sampled: " + sampled);
+	}
+
+	@Test
+	public void concurrentReadsAndWrites() throws InterruptedException {
+		final SampledLruCache<Integer, Integer> cache = new SampledLruCache<>(256);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				try {
+					ThreadLocalRandom rand = ThreadLocalRandom.current();
+					for (int i = 0; i < 200000; i++) {
+						int key = rand.nextInt(1024);
+						if (rand.nextInt(4) == 0) {
+							cache.set(key, -key);
+						} else {
+							Integer value = cache.get(key);
+							if (value != null && value != -key) {
+								throw new AssertionError("wrong value " + value + " for key " + key);
+							}
+						}
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertNull(failure.get());
+		assertTrue(cache.size() <= 256);
+	}
+}
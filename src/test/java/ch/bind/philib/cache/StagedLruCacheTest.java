@@ -46,6 +46,11 @@ public class StagedLruCacheTest extends CacheTestBase {
 		return new StagedLruCache<>(valueCloner);
 	}
 
+	@Override
+	<K, V> Cache<K, V> createRecordingStats(int capacity) {
+		return StagedLruCache.create(capacity, new CacheOptions<K, V>().recordStats());
+	}
+
 	@Override
 	int getMinCapacity() {
 		return (int) (1 / StagedLruCache.DEFAULT_OLD_GEN_RATIO);
@@ -151,4 +156,24 @@ public class StagedLruCacheTest extends CacheTestBase {
 			assertNull(cache.get(i));
 		}
 	}
+
+	@Test
+	public void evictByWeightYoungGenFirst() {
+		StagedLruCache<Integer, String> cache = StagedLruCache.create(100, StagedLruCache.DEFAULT_OLD_GEN_RATIO, 1, //
+				new CacheOptions<Integer, String>().maxWeight(12, (k, v) -> v.length()));
+		cache.set(1, "aaaa");
+		cache.get(1); // promoted into the old generation
+		cache.set(2, "bbbb");
+		cache.set(3, "cccc");
+		assertEquals(cache.weight(), 12);
+
+		// 2 is the young generation's least recently used entry
+		cache.set(4, "dddd");
+		assertEquals(cache.weight(), 12);
+		assertNull(cache.get(2));
+		assertEquals(cache.get(1), "aaaa");
+
+		cache.clear();
+		assertEquals(cache.weight(), 0);
+	}
 }
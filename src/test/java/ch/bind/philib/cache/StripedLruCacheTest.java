@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import ch.bind.philib.lang.MurmurHash;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class StripedLruCacheTest extends CacheTestBase {
+
+	@Override
+	<K, V> Cache<K, V> create() {
+		return new StripedLruCache<>();
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(int capacity) {
+		return new StripedLruCache<>(capacity);
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(Cloner<V> valueCloner) {
+		return new StripedLruCache<>(valueCloner);
+	}
+
+	@Override
+	<K, V> Cache<K, V> createRecordingStats(int capacity) {
+		return new StripedLruCache<>(capacity, StripedLruCache.DEFAULT_STRIPES, null, true);
+	}
+
+	@Override
+	int getMinCapacity() {
+		return StripedLruCache.DEFAULT_STRIPES;
+	}
+
+	@Override
+	int getDefaultCapacity() {
+		return Cache.DEFAULT_CAPACITY;
+	}
+
+	@Override
+	int getBucketSize() {
+		return 1;
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void stripesMustBePowerOfTwo() {
+		new StripedLruCache<Integer, Integer>(100, 3, null);
+	}
+
+	@Test
+	public void unevenCapacity() {
+		StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(100, 8, null);
+		assertEquals(cache.capacity(), 100);
+		assertEquals(cache.getStripes(), 8);
+	}
+
+	@Test
+	public void singleStripeIsExactLru() {
+		final int cap = 1000;
+		StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(cap, 1, null);
+		for (int i = 0; i < cap; i++) {
+			cache.set(i, i);
+		}
+		// mark the first half as recently used
+		for (int i = 0; i < cap / 2; i++) {
+			assertEquals(cache.get(i), Integer.valueOf(i));
+		}
+		// evicts the second half
+		for (int i = cap; i < cap + cap / 2; i++) {
+			cache.set(i, i);
+		}
+		for (int i = 0; i < cap / 2; i++) {
+			assertEquals(cache.get(i), Integer.valueOf(i));
+		}
+		for (int i = cap / 2; i < cap; i++) {
+			assertNull(cache.get(i));
+		}
+	}
+
+	@Test
+	public void evictionIsBoundedByCapacity() {
+		final int cap = 1024;
+		StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(cap, 16, null);
+		for (int i = 0; i < cap * 10; i++) {
+			cache.set(i, i);
+		}
+		int retained = 0;
+		for (int i = 0; i < cap * 10; i++) {
+			if (cache.get(i) != null) {
+				retained++;
+			}
+		}
+		assertEquals(retained, cap);
+	}
+
+	@Test
+	public void stripeBitsDoNotOverlapBinBits() {
+		StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(4, 4, null);
+		// the bins of a stripe with 2^18 bins are selected by the lowest 18 bits of the same mix
+		boolean[] seen = new boolean[4];
+		for (int i = 0; i < 1000; i++) {
+			if (cache.stripeIndex(i) == 0) {
+				seen[(MurmurHash.murmur3_finalize_mix32(Integer.hashCode(i)) >>> 16) & 3] = true;
+			}
+		}
+		for (boolean s : seen) {
+			assertTrue(s);
+		}
+	}
+
+	@Test
+	public void singleStripe() {
+		StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(4, 1, null);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(cache.stripeIndex(i), 0);
+		}
+	}
+}
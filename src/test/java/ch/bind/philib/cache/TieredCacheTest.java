@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class TieredCacheTest {
+
+	@Test
+	public void setGetRemove() {
+		TieredCache<String, String> cache = new TieredCache<>(8, new LruCache<>(16));
+		assertEquals(cache.capacity(), 24);
+		assertNull(cache.get("1"));
+		cache.set("1", "one");
+		assertEquals(cache.get("1"), "one");
+		cache.set("1", "uno");
+		assertEquals(cache.get("1"), "uno");
+		cache.remove("1");
+		assertNull(cache.get("1"));
+	}
+
+	@Test
+	public void l1VictimsAreDemoted() {
+		LruCache<Integer, Integer> l2 = new LruCache<>(100);
+		// a single line of 8 entries
+		TieredCache<Integer, Integer> cache = new TieredCache<>(8, 8, l2, null, true);
+		for (int i = 0; i < 20; i++) {
+			cache.set(i, i);
+		}
+		assertEquals(cache.getTierStats().getDemotions(), 12);
+		for (int i = 0; i < 12; i++) {
+			assertEquals(l2.get(i), Integer.valueOf(i));
+		}
+		for (int i = 0; i < 20; i++) {
+			assertEquals(cache.get(i), Integer.valueOf(i));
+		}
+	}
+
+	@Test
+	public void l2HitsArePromoted() {
+		LruCache<Integer, Integer> l2 = new LruCache<>(100);
+		TieredCache<Integer, Integer> cache = new TieredCache<>(8, 8, l2, null, true);
+		for (int i = 0; i < 9; i++) {
+			cache.set(i, i);
+		}
+		// key 0 was demoted
+		assertEquals(cache.get(0), Integer.valueOf(0));
+		TieredCache.TierStats ts = cache.getTierStats();
+		assertEquals(ts.getL1Hits(), 0);
+		assertEquals(ts.getL2Hits(), 1);
+		assertEquals(ts.getPromotions(), 1);
+		// promoting key 0 demoted the oldest entry of the first tier
+		assertEquals(ts.getDemotions(), 2);
+
+		assertEquals(cache.get(0), Integer.valueOf(0));
+		ts = cache.getTierStats();
+		assertEquals(ts.getL1Hits(), 1);
+		assertEquals(ts.getL2Hits(), 1);
+
+		assertNull(cache.get(100));
+		ts = cache.getTierStats();
+		assertEquals(ts.getMisses(), 1);
+
+		CacheStats stats = cache.getStats();
+		assertEquals(stats.getHits(), 2);
+		assertEquals(stats.getMisses(), 1);
+		assertEquals(stats.getPuts(), 9);
+	}
+
+	@Test
+	public void evictionsOfTheSecondTier() {
+		LruCache<Integer, Integer> l2 = LruCache.create(4, new CacheOptions<Integer, Integer>().recordStats());
+		TieredCache<Integer, Integer> cache = new TieredCache<>(8, 8, l2, null, true);
+		for (int i = 0; i < 20; i++) {
+			cache.set(i, i);
+		}
+		// 12 demotions into a second tier of 4
+		assertEquals(cache.getStats().getEvictions(), 8);
+	}
+
+	@Test
+	public void tiersAreExclusive() {
+		LruCache<Integer, Integer> l2 = new LruCache<>(100);
+		TieredCache<Integer, Integer> cache = new TieredCache<>(8, 8, l2, null, false);
+		for (int i = 0; i < 9; i++) {
+			cache.set(i, i);
+		}
+		cache.get(0);
+		assertNull(l2.get(0));
+
+		// a write removes the demoted copy from the second tier
+		assertEquals(l2.get(1), Integer.valueOf(1));
+		cache.set(1, 10);
+		assertNull(l2.get(1));
+		assertEquals(cache.get(1), Integer.valueOf(10));
+	}
+
+	@Test
+	public void removeAndClearBothTiers() {
+		LruCache<Integer, Integer> l2 = new LruCache<>(100);
+		TieredCache<Integer, Integer> cache = new TieredCache<>(8, 8, l2, null, false);
+		for (int i = 0; i < 16; i++) {
+			cache.set(i, i);
+		}
+		cache.remove(0);
+		cache.remove(15);
+		assertNull(cache.get(0));
+		assertNull(cache.get(15));
+
+		cache.clear();
+		for (int i = 0; i < 16; i++) {
+			assertNull(cache.get(i));
+		}
+		assertNull(l2.get(1));
+	}
+
+	@Test
+	public void cloner() {
+		TieredCache<Integer, CacheTestBase.NeedsCloning> cache = new TieredCache<>(8, 8, new LruCache<>(16),
+				CacheTestBase.NeedsCloning.CLONER, false);
+		CacheTestBase.NeedsCloning[] values = new CacheTestBase.NeedsCloning[9];
+		for (int i = 0; i < 9; i++) {
+			values[i] = new CacheTestBase.NeedsCloning(i);
+			cache.set(i, values[i]);
+		}
+		// key 0 is served by the second tier, key 8 by the first
+		for (int i : new int[]{0, 8, 0}) {
+			CacheTestBase.NeedsCloning copy = cache.get(i);
+			assertNotNull(copy);
+			assertEquals(copy.v, i);
+			assertNotSame(copy, values[i]);
+		}
+	}
+
+	@Test
+	public void noTierStatsWithoutRecording() {
+		TieredCache<Integer, Integer> cache = new TieredCache<>(8, new LruCache<>(16));
+		cache.set(1, 1);
+		cache.get(1);
+		assertEquals(cache.getTierStats().getL1Hits(), 0);
+		assertEquals(cache.getStats().getRequests(), 0);
+	}
+
+	@Test
+	public void setDuringPromotionWins() throws InterruptedException {
+		assertEquals(raceWithPromotion(cache -> cache.set(0, 100)), Integer.valueOf(100));
+	}
+
+	@Test
+	public void removeDuringPromotionWins() throws InterruptedException {
+		assertNull(raceWithPromotion(cache -> cache.remove(0)));
+	}
+
+	@Test
+	public void removeDuringDemotionWins() throws InterruptedException {
+		GatedCache l2 = new GatedCache();
+		// a single line of 8 entries
+		TieredCache<Integer, Integer> cache = new TieredCache<>(8, 8, l2, null, false);
+		for (int i = 0; i < 8; i++) {
+			cache.set(i, i);
+		}
+		// the next write evicts key 0, its demotion stalls in the second tier
+		l2.gateSetOf = 0;
+		Thread writer = new Thread(() -> cache.set(8, 8));
+		writer.start();
+		assertTrue(l2.entered.await(5, TimeUnit.SECONDS));
+		Thread remover = new Thread(() -> cache.remove(0));
+		remover.start();
+		awaitBlockedOrDone(remover);
+		l2.release.countDown();
+		writer.join();
+		remover.join();
+		assertNull(cache.get(0));
+		assertNull(l2.get(0));
+	}
+
+	/**
+	 * Promotes key 0 from the second tier and runs {@code write} while the promotion is reading the second tier.
+	 *
+	 * @return The value of key 0 once both are done.
+	 */
+	private static Integer raceWithPromotion(Consumer<TieredCache<Integer, Integer>> write)
+			throws InterruptedException {
+		GatedCache l2 = new GatedCache();
+		TieredCache<Integer, Integer> cache = new TieredCache<>(8, 8, l2, null, false);
+		for (int i = 0; i < 9; i++) {
+			cache.set(i, i);
+		}
+		// key 0 was demoted, the next lookup promotes it
+		l2.gateGetOf = 0;
+		Thread reader = new Thread(() -> cache.get(0));
+		reader.start();
+		assertTrue(l2.entered.await(5, TimeUnit.SECONDS));
+		Thread writer = new Thread(() -> write.accept(cache));
+		writer.start();
+		awaitBlockedOrDone(writer);
+		l2.release.countDown();
+		reader.join();
+		writer.join();
+		return cache.get(0);
+	}
+
+	private static void awaitBlockedOrDone(Thread t) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (t.isAlive() && t.getState() != Thread.State.BLOCKED && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+	}
+
+	/**
+	 * A second tier which stalls the first lookup or write of a chosen key until it is released.
+	 */
+	private static final class GatedCache implements Cache<Integer, Integer> {
+
+		final LruCache<Integer, Integer> cache = new LruCache<>(100);
+
+		final CountDownLatch entered = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		volatile Integer gateGetOf;
+
+		volatile Integer gateSetOf;
+
+		@Override
+		public void set(Integer key, Integer value) {
+			if (key.equals(gateSetOf)) {
+				gateSetOf = null;
+				await();
+			}
+			cache.set(key, value);
+		}
+
+		@Override
+		public Integer get(Integer key) {
+			Integer value = cache.get(key);
+			if (key.equals(gateGetOf)) {
+				gateGetOf = null;
+				await();
+			}
+			return value;
+		}
+
+		@Override
+		public void remove(Integer key) {
+			cache.remove(key);
+		}
+
+		@Override
+		public int capacity() {
+			return cache.capacity();
+		}
+
+		@Override
+		public void clear() {
+			cache.clear();
+		}
+
+		private void await() {
+			entered.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void nullL2() {
+		new TieredCache<Integer, Integer>(8, null);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void nullKey() {
+		new TieredCache<Integer, Integer>(8, new LruCache<>(16)).get(null);
+	}
+}
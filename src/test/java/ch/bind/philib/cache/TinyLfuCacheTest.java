@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.cache;
+
+import ch.bind.philib.lang.Cloner;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class TinyLfuCacheTest extends CacheTestBase {
+
+	@Override
+	<K, V> Cache<K, V> create() {
+		return new TinyLfuCache<>();
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(int capacity) {
+		return new TinyLfuCache<>(capacity);
+	}
+
+	@Override
+	<K, V> Cache<K, V> create(Cloner<V> valueCloner) {
+		return new TinyLfuCache<>(valueCloner);
+	}
+
+	@Override
+	<K, V> Cache<K, V> createRecordingStats(int capacity) {
+		return new TinyLfuCache<>(capacity, null, true);
+	}
+
+	@Override
+	int getMinCapacity() {
+		return 2;
+	}
+
+	@Override
+	int getDefaultCapacity() {
+		return Cache.DEFAULT_CAPACITY;
+	}
+
+	@Override
+	int getBucketSize() {
+		return 1;
+	}
+
+	@Test
+	public void scanResistance() {
+		final int cap = 1000;
+		final int hot = 500;
+		TinyLfuCache<Integer, Integer> tinyLfu = new TinyLfuCache<>(cap);
+		LruCache<Integer, Integer> lru = new LruCache<>(cap);
+
+		int scanKey = hot;
+		int tinyLfuHotHits = 0, lruHotHits = 0;
+		for (int round = 0; round < 50; round++) {
+			for (int i = 0; i < hot; i++) {
+				if (getOrSet(tinyLfu, i) && round >= 10) {
+					tinyLfuHotHits++;
+				}
+				if (getOrSet(lru, i) && round >= 10) {
+					lruHotHits++;
+				}
+			}
+			// a scan of keys which are never accessed again
+			for (int i = 0; i < cap; i++, scanKey++) {
+				getOrSet(tinyLfu, scanKey);
+				getOrSet(lru, scanKey);
+			}
+		}
+		// between two accesses to a hot key there are more distinct keys than the lru can hold
+		assertEquals(lruHotHits, 0);
+		assertTrue(tinyLfuHotHits > 40 * hot * 9 / 10, "hot hits: " + tinyLfuHotHits);
+	}
+
+	@Test
+	public void frequentEntrySurvivesWindowEviction() {
+		TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100);
+		for (int i = 0; i < 100; i++) {
+			cache.set(i, i);
+		}
+		for (int n = 0; n < 5; n++) {
+			for (int i = 0; i < 100; i++) {
+				assertEquals(cache.get(i), Integer.valueOf(i));
+			}
+		}
+		// none of the new keys has a higher frequency than the residents
+		for (int i = 100; i < 1000; i++) {
+			cache.set(i, i);
+		}
+		int retained = 0;
+		for (int i = 0; i < 100; i++) {
+			if (cache.get(i) != null) {
+				retained++;
+			}
+		}
+		assertTrue(retained >= 90, "retained: " + retained);
+	}
+
+	private static boolean getOrSet(Cache<Integer, Integer> cache, Integer key) {
+		if (cache.get(key) != null) {
+			return true;
+		}
+		cache.set(key, key);
+		return false;
+	}
+}
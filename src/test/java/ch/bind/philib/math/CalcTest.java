@@ -112,6 +112,17 @@ public class CalcTest {
 		assertFalse(Calc.isAddUnderOrOverflow(-5, -5, -5));
 	}
 
+	@Test
+	public void nextPowerOfTwo() {
+		assertEquals(Calc.nextPowerOfTwo(1), 1);
+		assertEquals(Calc.nextPowerOfTwo(2), 2);
+		assertEquals(Calc.nextPowerOfTwo(3), 4);
+		assertEquals(Calc.nextPowerOfTwo(4), 4);
+		assertEquals(Calc.nextPowerOfTwo(5), 8);
+		assertEquals(Calc.nextPowerOfTwo(1000), 1024);
+		assertEquals(Calc.nextPowerOfTwo(1 << 30), 1 << 30);
+	}
+
 	@Test
 	public void clipInt() {
 		for (int i = 0; i < 100; i++) {
@@ -23,10 +23,15 @@
 package ch.bind.philib.pool.object;
 
 import ch.bind.philib.pool.Pool;
+import ch.bind.philib.pool.PoolStats;
 import ch.bind.philib.pool.manager.ObjectManager;
 import org.testng.annotations.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class ObjectPoolTest {
 
@@ -50,6 +55,277 @@ public class ObjectPoolTest {
 		assertEquals(pool.getPoolStats().toString(), "creates=11, takes=16, recycled=5, released=5");
 	}
 
+	@Test
+	public void magazineIsLifo() {
+		ConcurrentPool<Integer> pool = new ConcurrentPool<>(new RecycleAllManager(), 64, false, 2, 4);
+		assertEquals(pool.getMagazineSize(), 4);
+		for (int i = 0; i < 4; i++) {
+			pool.recycle(i);
+		}
+		assertEquals(pool.getNumPooled(), 4);
+		for (int i = 3; i >= 0; i--) {
+			assertEquals(pool.take().intValue(), i);
+		}
+		assertEquals(pool.getNumPooled(), 0);
+		assertEquals(pool.getPoolStats().toString(), "creates=0, takes=4, steals=0, recycled=4, released=0");
+	}
+
+	@Test
+	public void magazineFlushesAndRefillsInBatches() {
+		RecycleAllManager manager = new RecycleAllManager();
+		ConcurrentPool<Integer> pool = new ConcurrentPool<>(manager, 64, false, 2, 4);
+		for (int i = 0; i < 5; i++) {
+			pool.recycle(i);
+		}
+		// 0 and 1 were flushed to the stripe when 4 was recycled
+		assertEquals(pool.getNumPooled(), 5);
+		assertEquals(pool.take().intValue(), 4);
+		assertEquals(pool.take().intValue(), 3);
+		assertEquals(pool.take().intValue(), 2);
+		// refilled from the stripe
+		Set<Integer> refilled = new HashSet<>();
+		refilled.add(pool.take());
+		refilled.add(pool.take());
+		assertTrue(refilled.contains(0) && refilled.contains(1));
+		assertEquals(pool.getNumPooled(), 0);
+		manager.next = 100;
+		assertEquals(pool.take().intValue(), 100);
+		assertEquals(pool.getPoolStats().toString(), "creates=1, takes=6, steals=0, recycled=5, released=0");
+	}
+
+	@Test
+	public void smallPoolsDisableMagazines() {
+		ConcurrentPool<Integer> pool = new ConcurrentPool<>(new RecycleAllManager(), 2, false, 2);
+		assertEquals(pool.getMagazineSize(), 0);
+		pool.recycle(1);
+		pool.recycle(2);
+		pool.recycle(3);
+		// each stripe holds one object
+		assertEquals(pool.getNumPooled(), 1);
+		assertEquals(pool.getPoolStats().toString(), "creates=0, takes=0, steals=0, recycled=1, released=2");
+	}
+
+	@Test
+	public void magazineOfTerminatedThreadIsReturned() throws InterruptedException {
+		ConcurrentPool<Integer> pool = new ConcurrentPool<>(new RecycleAllManager(), 64, false, 2, 4);
+		Thread t = new Thread(() -> {
+			pool.recycle(1);
+			pool.recycle(2);
+			pool.recycle(3);
+		});
+		t.start();
+		t.join();
+		// registering the magazine of this thread retires the one of the terminated thread
+		pool.clear();
+		assertEquals(pool.getNumPooled(), 0);
+		assertEquals(pool.getPoolStats().toString(), "creates=0, takes=0, steals=0, recycled=3, released=3");
+	}
+
+	@Test
+	public void refillsRetireMagazineOfTerminatedThread() throws InterruptedException {
+		RecycleAllManager manager = new RecycleAllManager();
+		ConcurrentPool<Integer> pool = new ConcurrentPool<>(manager, 64, false, 2, 4);
+		manager.next = 100;
+		// registers the magazine of this thread before the other thread terminates
+		assertEquals(pool.take().intValue(), 100);
+		Thread t = new Thread(() -> {
+			pool.recycle(1);
+			pool.recycle(2);
+			pool.recycle(3);
+		});
+		t.start();
+		t.join();
+		// each take refills the empty magazine, one of these refills hands the objects of the other thread back
+		boolean returned = false;
+		for (int i = 0; i < ConcurrentPool.RETIRE_INTERVAL && !returned; i++) {
+			returned = pool.take() < 100;
+		}
+		assertTrue(returned);
+	}
+
+	@Test
+	public void softRefPoolsDisableMagazines() {
+		assertEquals(new ConcurrentPool<>(new RecycleAllManager(), 1024, true, 2).getMagazineSize(), 0);
+		assertEquals(new ConcurrentPool<>(new RecycleAllManager(), 1024, true, 2, 4).getMagazineSize(), 4);
+		assertEquals(new ConcurrentPool<>(new RecycleAllManager(), 1024, false, 2).getMagazineSize(),
+				ConcurrentPool.DEFAULT_MAGAZINE_SIZE);
+	}
+
+	@Test
+	public void clearDoesNotRegisterMagazine() throws InterruptedException {
+		ConcurrentPool<Integer> pool = new ConcurrentPool<>(new RecycleAllManager(), 64, false, 2, 4);
+		Thread t = new Thread(() -> {
+			for (int i = 0; i < 5; i++) {
+				pool.recycle(i);
+			}
+		});
+		t.start();
+		t.join();
+		assertEquals(pool.getNumPooled(), 5);
+		assertEquals(pool.getNumMagazines(), 1);
+
+		pool.clear();
+		// the objects of the terminated thread are retired and destroyed together with all stripes
+		assertEquals(pool.getNumPooled(), 0);
+		assertEquals(pool.getNumMagazines(), 0);
+		assertEquals(pool.getPoolStats().getCreates(), 0);
+	}
+
+	@Test
+	public void stealFromOtherStripe() throws InterruptedException {
+		RecycleAllManager manager = new RecycleAllManager();
+		ConcurrentPool<Integer> pool = new ConcurrentPool<>(manager, 64, false, 2, 0);
+		// the other thread registers first and gets the first stripe
+		Thread t = new Thread(() -> {
+			pool.recycle(1);
+			pool.recycle(2);
+			pool.recycle(3);
+		});
+		t.start();
+		t.join();
+		Set<Integer> taken = new HashSet<>();
+		for (int i = 0; i < 3; i++) {
+			taken.add(pool.take());
+		}
+		assertEquals(taken.size(), 3);
+		assertTrue(taken.contains(1) && taken.contains(2) && taken.contains(3));
+		manager.next = 100;
+		assertEquals(pool.take().intValue(), 100);
+		PoolStats stats = pool.getPoolStats();
+		assertEquals(stats.getSteals(), 3);
+		assertEquals(stats.getCreates(), 1);
+		assertEquals(stats.getLocalHits(), 0);
+	}
+
+	@Test
+	public void stealRefillsMagazine() throws InterruptedException {
+		RecycleAllManager manager = new RecycleAllManager();
+		ConcurrentPool<Integer> pool = new ConcurrentPool<>(manager, 64, false, 2, 4);
+		Thread t = new Thread(() -> {
+			for (int i = 0; i < 5; i++) {
+				pool.recycle(i);
+			}
+		});
+		t.start();
+		t.join();
+		// registering this thread returns the 3 objects from the magazine of the terminated thread to its stripe
+		for (int i = 0; i < 5; i++) {
+			assertTrue(pool.take() < 5);
+		}
+		PoolStats stats = pool.getPoolStats();
+		assertEquals(stats.getCreates(), 0);
+		// each steal moves a batch of two objects, every object of the batch counts as a steal when it is taken
+		assertEquals(stats.getSteals(), 5);
+		assertEquals(stats.getLocalHits(), 0);
+		assertEquals(stats.toString(), "creates=0, takes=5, steals=5, recycled=5, released=0");
+	}
+
+	@Test
+	public void objectsRecycledOnTopOfStolenOnesAreLocalHits() throws InterruptedException {
+		RecycleAllManager manager = new RecycleAllManager();
+		ConcurrentPool<Integer> pool = new ConcurrentPool<>(manager, 64, false, 2, 4);
+		Thread t = new Thread(() -> {
+			for (int i = 0; i < 5; i++) {
+				pool.recycle(i);
+			}
+		});
+		t.start();
+		t.join();
+		// steals 0 and moves 1 into the magazine
+		assertEquals(pool.take().intValue(), 0);
+		pool.recycle(100);
+		assertEquals(pool.take().intValue(), 100);
+		assertEquals(pool.take().intValue(), 1);
+		PoolStats stats = pool.getPoolStats();
+		assertEquals(stats.getSteals(), 2);
+		assertEquals(stats.getLocalHits(), 1);
+	}
+
+	@Test
+	public void rejectedObjectsAreNotCountedAsSteals() throws InterruptedException {
+		ReuseNoneManager manager = new ReuseNoneManager();
+		ConcurrentPool<Integer> pool = new ConcurrentPool<>(manager, 64, false, 2, 0);
+		Thread t = new Thread(() -> {
+			for (int i = 0; i < 6; i++) {
+				pool.recycle(i);
+			}
+		});
+		t.start();
+		t.join();
+		// every stolen object is released, the take ends with a single create
+		manager.next = 100;
+		assertEquals(pool.take().intValue(), 100);
+		PoolStats stats = pool.getPoolStats();
+		assertEquals(stats.getTakes(), 1);
+		assertEquals(stats.getCreates(), 1);
+		assertEquals(stats.getSteals(), 0);
+		assertEquals(stats.getReleased(), 6);
+		assertEquals(stats.getLocalHits(), 0);
+	}
+
+	@Test
+	public void localHitsOfSimplePools() {
+		Pool<Integer> pool = new StrongRefPool<>(new RecycleAllManager(), 8);
+		pool.recycle(pool.take());
+		pool.take();
+		assertEquals(pool.getPoolStats().getSteals(), 0);
+		assertEquals(pool.getPoolStats().getLocalHits(), 1);
+	}
+
+	@Test
+	public void concurrentTakesAndRecycles() throws InterruptedException {
+		final ConcurrentPool<Integer> pool = new ConcurrentPool<>(new RecycleAllManager(), 256, false, 4, 8);
+		final int opsPerThread = 100000;
+		Thread[] ts = new Thread[4];
+		for (int i = 0; i < ts.length; i++) {
+			ts[i] = new Thread(() -> {
+				Integer[] held = new Integer[12];
+				for (int n = 0; n < opsPerThread; n += held.length) {
+					for (int j = 0; j < held.length; j++) {
+						held[j] = pool.take();
+					}
+					for (Integer v : held) {
+						pool.recycle(v);
+					}
+				}
+			});
+			ts[i].start();
+		}
+		for (Thread t : ts) {
+			t.join();
+		}
+		PoolStats stats = pool.getPoolStats();
+		long takes = ts.length * (long) Math.ceil(opsPerThread / 12.0) * 12;
+		assertEquals(stats.getTakes(), takes);
+		assertEquals(stats.getRecycled(), takes);
+		// objects are only created when neither the magazine nor the stripe of a thread holds one
+		assertTrue(stats.getCreates() < takes / 100, "creates: " + stats.getCreates());
+		assertEquals(pool.getNumPooled() + stats.getReleased(), stats.getCreates());
+	}
+
+	private static final class RecycleAllManager implements ObjectManager<Integer> {
+
+		int next;
+
+		@Override
+		public synchronized Integer create() {
+			return next++;
+		}
+
+		@Override
+		public void release(Integer value) { /* not needed */}
+
+		@Override
+		public boolean prepareForRecycle(Integer value) {
+			return true;
+		}
+
+		@Override
+		public boolean canReuse(Integer value) {
+			return true;
+		}
+	}
+
 	private static final class RecycleOddManager implements ObjectManager<Integer> {
 
 		private int next;
@@ -72,4 +348,27 @@ public class ObjectPoolTest {
 			return true;
 		}
 	}
+
+	private static final class ReuseNoneManager implements ObjectManager<Integer> {
+
+		int next;
+
+		@Override
+		public Integer create() {
+			return next++;
+		}
+
+		@Override
+		public void release(Integer value) { /* not needed */}
+
+		@Override
+		public boolean prepareForRecycle(Integer value) {
+			return true;
+		}
+
+		@Override
+		public boolean canReuse(Integer value) {
+			return false;
+		}
+	}
 }
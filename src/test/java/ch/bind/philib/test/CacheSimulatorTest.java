@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.test;
+
+import ch.bind.philib.cache.Cache;
+import ch.bind.philib.cache.CacheOptions;
+import ch.bind.philib.cache.LruCache;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class CacheSimulatorTest {
+
+	@Test
+	public void loopWithinCapacity() {
+		Cache<Long, Long> lru = LruCache.create(100, new CacheOptions<Long, Long>().recordStats());
+		CacheSimulator.Result r = CacheSimulator.run("lru", lru, Traces.loop(1000, 100));
+		assertEquals(r.getName(), "lru");
+		assertEquals(r.getRequests(), 1000);
+		assertEquals(r.getMisses(), 100);
+		assertEquals(r.getHits(), 900);
+		assertEquals(r.getEvictions(), 0);
+		assertEquals(r.getHitRatio(), 0.9, 0.0001);
+		assertTrue(r.getTimeNs() > 0);
+	}
+
+	@Test
+	public void loopExceedingCapacity() {
+		// the classic lru worst case
+		Cache<Long, Long> lru = LruCache.create(100, new CacheOptions<Long, Long>().recordStats());
+		CacheSimulator.Result r = CacheSimulator.run("lru", lru, Traces.loop(1000, 101));
+		assertEquals(r.getHits(), 0);
+		assertEquals(r.getEvictions(), 900);
+	}
+
+	@Test
+	public void allDefaultPolicies() throws IOException {
+		long[] trace = CacheSimulator.loadTrace("zipf:20000:1000:1.0");
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(bos);
+		CacheSimulator.defaultPolicies().forEach((name, factory) -> {
+			CacheSimulator.Result r = CacheSimulator.run(name, factory.apply(100), trace);
+			assertTrue(r.getHitRatio() > 0.3, name + ": " + r.getHitRatio());
+			r.print(out);
+		});
+		out.flush();
+		assertEquals(bos.toString().split("\n").length, CacheSimulator.defaultPolicies().size());
+	}
+
+	@Test
+	public void loadSyntheticTraces() throws IOException {
+		assertEquals(CacheSimulator.loadTrace("scan:10"), Traces.scan(10, 0));
+		assertEquals(CacheSimulator.loadTrace("loop:10:3"), Traces.loop(10, 3));
+	}
+}
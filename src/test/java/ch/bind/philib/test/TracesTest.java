@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.test;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TracesTest {
+
+	@Test
+	public void zipfIsSkewed() {
+		long[] trace = Traces.zipf(100000, 1000, 1.0, 1);
+		int[] counts = new int[1000];
+		for (long key : trace) {
+			assertTrue(key >= 0 && key < 1000);
+			counts[(int) key]++;
+		}
+		assertTrue(counts[0] > counts[1]);
+		assertTrue(counts[1] > counts[10]);
+		assertTrue(counts[10] > counts[500]);
+		// same seed, same trace
+		assertEquals(Traces.zipf(1000, 1000, 1.0, 1), Arrays.copyOf(trace, 1000));
+	}
+
+	@Test
+	public void scanAndLoop() {
+		assertEquals(Traces.scan(3, 10), new long[]{10, 11, 12});
+		assertEquals(Traces.loop(5, 2), new long[]{0, 1, 0, 1, 0});
+		assertEquals(Traces.concat(new long[]{1}, new long[0], new long[]{2, 3}), new long[]{1, 2, 3});
+	}
+
+	@Test
+	public void binaryRoundTrip() throws IOException {
+		Path file = Files.createTempFile("trace", ".bin");
+		try {
+			long[] trace = {1, -1, Long.MAX_VALUE, Long.MIN_VALUE, 0};
+			Traces.writeBinary(file, trace);
+			assertEquals(Files.size(file), 40);
+			assertEquals(Traces.readBinary(file), trace);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void text() throws IOException {
+		Path file = Files.createTempFile("trace", ".txt");
+		try {
+			Files.write(file, "1\n\n 2 \nuser:a\nuser:b\nuser:a\n".getBytes(StandardCharsets.UTF_8));
+			long[] trace = Traces.readText(file);
+			assertEquals(trace.length, 5);
+			assertEquals(trace[0], 1);
+			assertEquals(trace[1], 2);
+			assertEquals(trace[2], trace[4]);
+			assertNotEquals(trace[2], trace[3]);
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
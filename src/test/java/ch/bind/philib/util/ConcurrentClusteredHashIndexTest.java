@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.util;
+
+import ch.bind.philib.util.ClusteredIndex.Entry;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class ConcurrentClusteredHashIndexTest {
+
+	@Test
+	public void noDoubleAdds() {
+		ConcurrentClusteredHashIndex<Long, TestEntry<Long>> index = new ConcurrentClusteredHashIndex<>(64);
+
+		for (int i = 0; i < 128; i++) {
+			assertTrue(index.add(new TestEntry<>((long) i)));
+		}
+		for (int i = 0; i < 128; i++) {
+			assertFalse(index.add(new TestEntry<>((long) i)));
+		}
+	}
+
+	@Test
+	public void addRemove() {
+		ConcurrentClusteredHashIndex<Long, TestEntry<Long>> index = new ConcurrentClusteredHashIndex<>(64);
+
+		List<Long> inMap = new ArrayList<>();
+		for (int i = 0; i < 128; i++) {
+			Long key = (long) i;
+			assertTrue(index.add(new TestEntry<>(key)));
+			inMap.add(key);
+		}
+
+		Random rnd = new Random();
+		for (int n = 0; n < 1000; n++) {
+			Collections.shuffle(inMap, rnd);
+			for (int i = 0; i < 64; i++) {
+				Long key = inMap.remove(inMap.size() - 1);
+				TestEntry<Long> e = index.get(key);
+				assertNotNull(e);
+				assertTrue(index.remove(e));
+				assertFalse(index.remove(e));
+			}
+			for (int i = -100; i < 200; i++) {
+				Long key = (long) i;
+				TestEntry<Long> e = new TestEntry<>(key);
+				if (i >= 0 && i < 128) {
+					if (inMap.contains(key)) {
+						assertFalse(index.add(e));
+						assertNotNull(index.get(key));
+					} else {
+						assertNull(index.get(key));
+						assertTrue(index.add(e));
+						assertSame(index.get(key), e);
+						inMap.add(key);
+					}
+				} else {
+					assertFalse(index.remove(e));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void clear() {
+		ConcurrentClusteredHashIndex<Long, TestEntry<Long>> index = new ConcurrentClusteredHashIndex<>(16);
+		for (int i = 0; i < 64; i++) {
+			index.add(new TestEntry<>((long) i));
+		}
+		index.clear();
+		for (int i = 0; i < 64; i++) {
+			assertNull(index.get((long) i));
+		}
+	}
+
+	@Test
+	public void lockFreeReadsDuringModifications() throws InterruptedException {
+		final int stable = 512;
+		final int volatileKeys = 512;
+		final ConcurrentClusteredHashIndex<Long, TestEntry<Long>> index = new ConcurrentClusteredHashIndex<>(64);
+		for (long i = 0; i < stable + volatileKeys; i++) {
+			index.add(new TestEntry<>(i));
+		}
+		final AtomicBoolean stop = new AtomicBoolean();
+		final AtomicLong misses = new AtomicLong();
+		Thread[] readers = new Thread[2];
+		for (int t = 0; t < readers.length; t++) {
+			readers[t] = new Thread(() -> {
+				while (!stop.get()) {
+					for (long i = 0; i < stable; i++) {
+						if (index.get(i) == null) {
+							misses.incrementAndGet();
+						}
+					}
+				}
+			});
+			readers[t].start();
+		}
+		// removes and re-adds the upper keys, which share their bins with the stable keys
+		Random rnd = new Random();
+		for (int n = 0; n < 200000; n++) {
+			long key = stable + rnd.nextInt(volatileKeys);
+			TestEntry<Long> e = index.get(key);
+			if (e == null) {
+				index.add(new TestEntry<>(key));
+			} else {
+				index.remove(e);
+			}
+		}
+		stop.set(true);
+		for (Thread t : readers) {
+			t.join();
+		}
+		assertEquals(misses.get(), 0);
+	}
+
+	@Test
+	public void sameHashcode() {
+		ConcurrentClusteredHashIndex<Key, TestEntry<Key>> index = new ConcurrentClusteredHashIndex<>(64);
+		List<TestEntry<Key>> entries = new ArrayList<>();
+		for (int i = 0; i < 1024; i++) {
+			TestEntry<Key> e = new TestEntry<>(new Key(1));
+			entries.add(e);
+			index.add(e);
+		}
+		assertNull(index.get(new Key(1)));
+		for (TestEntry<Key> e : entries) {
+			assertSame(index.get(e.getKey()), e);
+		}
+	}
+
+	@Test
+	public void grows() {
+		ConcurrentClusteredHashIndex<Long, TestEntry<Long>> index = new ConcurrentClusteredHashIndex<>(16);
+		assertEquals(index.bins(), 16);
+		for (long i = 0; i < 1000; i++) {
+			assertTrue(index.add(new TestEntry<>(i)));
+		}
+		assertEquals(index.size(), 1000);
+		// the last resize may still be in progress
+		assertTrue(index.bins() >= 512, "bins: " + index.bins());
+		for (long i = 0; i < 1000; i++) {
+			TestEntry<Long> e = index.get(i);
+			assertNotNull(e);
+			assertTrue(index.remove(e));
+		}
+		assertEquals(index.size(), 0);
+		assertEquals(index.bins(), 1024);
+		for (long i = 0; i < 1000; i++) {
+			assertNull(index.get(i));
+		}
+	}
+
+	@Test
+	public void lockFreeReadsDuringResizes() throws InterruptedException {
+		final int stable = 256;
+		final ConcurrentClusteredHashIndex<Long, TestEntry<Long>> index = new ConcurrentClusteredHashIndex<>(stable);
+		for (long i = 0; i < stable; i++) {
+			index.add(new TestEntry<>(i));
+		}
+		final AtomicBoolean stop = new AtomicBoolean();
+		final AtomicLong misses = new AtomicLong();
+		Thread[] readers = new Thread[2];
+		for (int t = 0; t < readers.length; t++) {
+			readers[t] = new Thread(() -> {
+				while (!stop.get()) {
+					for (long i = 0; i < stable; i++) {
+						if (index.get(i) == null) {
+							misses.incrementAndGet();
+						}
+					}
+				}
+			});
+			readers[t].start();
+		}
+		// every doubling of the table is moved while the readers are active
+		for (long i = stable; i < stable * 512; i++) {
+			index.add(new TestEntry<>(i));
+		}
+		stop.set(true);
+		for (Thread t : readers) {
+			t.join();
+		}
+		assertEquals(misses.get(), 0);
+		assertEquals(index.size(), stable * 512);
+		for (long i = 0; i < stable * 512; i++) {
+			assertNotNull(index.get(i));
+		}
+	}
+
+	@Test
+	public void concurrentWriters() throws InterruptedException {
+		final int perThread = 20000;
+		final ConcurrentClusteredHashIndex<Long, TestEntry<Long>> index = new ConcurrentClusteredHashIndex<>(64);
+		final AtomicLong failures = new AtomicLong();
+		Thread[] writers = new Thread[4];
+		for (int t = 0; t < writers.length; t++) {
+			final long base = t * (long) perThread;
+			writers[t] = new Thread(() -> {
+				for (long i = base; i < base + perThread; i++) {
+					if (!index.add(new TestEntry<>(i))) {
+						failures.incrementAndGet();
+					}
+				}
+				// remove every other key again
+				for (long i = base; i < base + perThread; i += 2) {
+					TestEntry<Long> e = index.get(i);
+					if (e == null || !index.remove(e)) {
+						failures.incrementAndGet();
+					}
+				}
+			});
+			writers[t].start();
+		}
+		for (Thread t : writers) {
+			t.join();
+		}
+		assertEquals(failures.get(), 0);
+		assertEquals(index.size(), writers.length * perThread / 2);
+		for (long i = 0; i < writers.length * (long) perThread; i++) {
+			if (i % 2 == 0) {
+				assertNull(index.get(i));
+			} else {
+				assertNotNull(index.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void clearDuringResize() {
+		ConcurrentClusteredHashIndex<Long, TestEntry<Long>> index = new ConcurrentClusteredHashIndex<>(64);
+		for (long i = 0; i < 65; i++) {
+			index.add(new TestEntry<>(i));
+		}
+		index.clear();
+		assertEquals(index.size(), 0);
+		for (long i = 0; i < 65; i++) {
+			assertNull(index.get(i));
+		}
+		for (long i = 0; i < 1000; i++) {
+			assertTrue(index.add(new TestEntry<>(i)));
+		}
+		for (long i = 0; i < 1000; i++) {
+			assertNotNull(index.get(i));
+		}
+	}
+
+	@Test
+	public void removedEntriesAreNotFoundAfterRemove() throws InterruptedException {
+		final int rounds = 20000;
+		final ConcurrentClusteredHashIndex<Key, TestEntry<Key>> index = new ConcurrentClusteredHashIndex<>(16);
+		final AtomicLong removedRound = new AtomicLong(-1);
+		final AtomicLong stale = new AtomicLong();
+		final Key[] keys = new Key[rounds];
+		for (int i = 0; i < rounds; i++) {
+			// all keys share one bin, so most removals unlink an entry in the middle of the chain
+			keys[i] = new Key(7);
+		}
+		Thread reader = new Thread(() -> {
+			long seen = -1;
+			while (seen < rounds - 1) {
+				long r = removedRound.get();
+				if (r > seen) {
+					if (index.get(keys[(int) r]) != null) {
+						stale.incrementAndGet();
+					}
+					seen = r;
+				}
+			}
+		});
+		List<TestEntry<Key>> entries = new ArrayList<>();
+		for (int i = 0; i < rounds; i++) {
+			TestEntry<Key> e = new TestEntry<>(keys[i]);
+			entries.add(e);
+			index.add(e);
+		}
+		reader.start();
+		for (int i = 0; i < rounds; i++) {
+			assertTrue(index.remove(entries.get(i)));
+			removedRound.set(i);
+		}
+		reader.join();
+		assertEquals(stale.get(), 0);
+	}
+
+	private static final class TestEntry<K> implements Entry<K> {
+
+		private final K key;
+
+		private Entry<K> nextHashEntry;
+
+		TestEntry(K key) {
+			this.key = key;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public Entry<K> getNextIndexEntry() {
+			return nextHashEntry;
+		}
+
+		@Override
+		public void setNextIndexEntry(Entry<K> nextHashEntry) {
+			this.nextHashEntry = nextHashEntry;
+		}
+	}
+
+	private static final class Key {
+
+		private final int hash;
+
+		private Key(int hash) {
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj == this;
+		}
+	}
+}
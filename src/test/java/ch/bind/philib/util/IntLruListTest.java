@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.util;
+
+import org.testng.annotations.Test;
+
+import static ch.bind.philib.util.IntLruList.NONE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Philipp Meinen
+ */
+public class IntLruListTest {
+
+	@Test
+	public void removeTailOnOverflow() {
+		IntLruList lru = new IntLruList(3, 2);
+		assertEquals(lru.add(0), NONE);
+		assertEquals(lru.add(1), NONE);
+		assertEquals(lru.add(2), 0);
+		assertFalse(lru.contains(0));
+		assertEquals(lru.add(0), 1);
+	}
+
+	@Test
+	public void moveToHead() {
+		IntLruList lru = new IntLruList(3, 2);
+		assertEquals(lru.add(0), NONE);
+		assertEquals(lru.add(1), NONE);
+		lru.moveToHead(0);
+		assertEquals(lru.add(2), 1);
+		lru.moveToHead(2);
+		assertEquals(lru.add(1), 0);
+	}
+
+	@Test
+	public void clear() {
+		IntLruList lru = new IntLruList(2);
+		lru.add(0);
+		lru.add(1);
+		assertEquals(lru.size(), 2);
+		assertFalse(lru.hasSpace());
+		lru.clear();
+		assertEquals(lru.size(), 0);
+		assertTrue(lru.hasSpace());
+		assertFalse(lru.contains(0));
+		assertFalse(lru.contains(1));
+		assertEquals(lru.peekTail(), NONE);
+		// slots can be added again
+		assertEquals(lru.add(1), NONE);
+		assertEquals(lru.peekTail(), 1);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void ctorValidation() {
+		new IntLruList(0);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void ctorValidationSlots() {
+		new IntLruList(1, 2);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void slotOutOfRange() {
+		new IntLruList(2).add(2);
+	}
+
+	@Test
+	public void removeTail() {
+		IntLruList lru = new IntLruList(3);
+		lru.add(0); // lru: 0
+		lru.add(1); // lru: 1, 0
+		lru.add(2); // lru: 2, 1, 0
+		assertEquals(lru.removeTail(), 0); // lru: 2, 1
+		assertEquals(lru.size(), 2);
+		lru.moveToHead(1); // lru: 1, 2
+		assertEquals(lru.removeTail(), 2); // lru: 1
+		assertEquals(lru.size(), 1);
+		assertEquals(lru.removeTail(), 1);
+		assertEquals(lru.size(), 0);
+		assertEquals(lru.removeTail(), NONE);
+	}
+
+	@Test
+	public void peekTail() {
+		IntLruList lru = new IntLruList(2);
+		assertEquals(lru.peekTail(), NONE);
+		lru.add(0); // lru: 0
+		assertEquals(lru.peekTail(), 0);
+		lru.add(1); // lru: 1, 0
+		assertEquals(lru.peekTail(), 0);
+		lru.moveToHead(0); // lru: 0, 1
+		assertEquals(lru.peekTail(), 1);
+		assertEquals(lru.size(), 2);
+	}
+
+	@Test
+	public void previous() {
+		IntLruList lru = new IntLruList(3);
+		lru.add(0);
+		lru.add(1);
+		lru.add(2); // lru: 2, 1, 0
+		assertEquals(lru.previous(0), 1);
+		assertEquals(lru.previous(1), 2);
+		assertEquals(lru.previous(2), NONE);
+		lru.remove(1); // lru: 2, 0
+		assertEquals(lru.previous(0), 2);
+		assertFalse(lru.contains(1));
+		assertTrue(lru.contains(0));
+	}
+
+	@Test
+	public void walkFromTail() {
+		IntLruList lru = new IntLruList(100);
+		for (int i = 0; i < 100; i++) {
+			lru.add(i);
+		}
+		// move the even slots to the head
+		for (int i = 0; i < 100; i += 2) {
+			lru.moveToHead(i);
+		}
+		int slot = lru.peekTail();
+		for (int i = 1; i < 100; i += 2) {
+			assertEquals(slot, i);
+			slot = lru.previous(slot);
+		}
+		for (int i = 0; i < 100; i += 2) {
+			assertEquals(slot, i);
+			slot = lru.previous(slot);
+		}
+		assertEquals(slot, NONE);
+	}
+}
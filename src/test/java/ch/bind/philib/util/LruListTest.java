@@ -88,6 +88,36 @@ public class LruListTest {
 		assertNull(lru.removeTail());
 	}
 
+	@Test
+	public void peekTail() {
+		TestNode a = new TestNode(), b = new TestNode();
+
+		LruList<TestNode> lru = new LruList<>(2);
+		assertNull(lru.peekTail());
+		lru.add(a); // lru: a
+		assertEquals(lru.peekTail(), a);
+		lru.add(b); // lru: b, a
+		assertEquals(lru.peekTail(), a);
+		lru.moveToHead(a); // lru: a, b
+		assertEquals(lru.peekTail(), b);
+		assertEquals(lru.size(), 2);
+	}
+
+	@Test
+	public void previous() {
+		TestNode a = new TestNode(), b = new TestNode(), c = new TestNode();
+
+		LruList<TestNode> lru = new LruList<>(3);
+		lru.add(a);
+		lru.add(b);
+		lru.add(c); // lru: c, b, a
+		assertEquals(lru.previous(a), b);
+		assertEquals(lru.previous(b), c);
+		assertNull(lru.previous(c));
+		lru.remove(b); // lru: c, a
+		assertEquals(lru.previous(a), c);
+	}
+
 	@Test
 	public void fullScenario() {
 		TestNode a = new TestNode(), b = new TestNode(), c = new TestNode();
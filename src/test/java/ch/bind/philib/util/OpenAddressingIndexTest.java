@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2026 Philipp Meinen <philipp@bind.ch>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package ch.bind.philib.util;
+
+import ch.bind.philib.util.ClusteredIndex.Entry;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Philipp Meinen
+ */
+public class OpenAddressingIndexTest {
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void loadFactorTooHigh() {
+		new OpenAddressingIndex<Long, TestEntry<Long>>(16, 0.95);
+	}
+
+	@Test
+	public void slots() {
+		assertEquals(new OpenAddressingIndex<Long, TestEntry<Long>>(1).slots(), 2);
+		assertEquals(new OpenAddressingIndex<Long, TestEntry<Long>>(64).slots(), 128);
+		assertEquals(new OpenAddressingIndex<Long, TestEntry<Long>>(64, 0.75).slots(), 128);
+		assertEquals(new OpenAddressingIndex<Long, TestEntry<Long>>(100, 0.9).slots(), 128);
+	}
+
+	@Test
+	public void noDoubleAdds() {
+		OpenAddressingIndex<Long, TestEntry<Long>> index = new OpenAddressingIndex<>(64);
+		for (long i = 0; i < 128; i++) {
+			assertTrue(index.add(new TestEntry<>(i)));
+		}
+		for (long i = 0; i < 128; i++) {
+			assertFalse(index.add(new TestEntry<>(i)));
+		}
+		assertEquals(index.size(), 128);
+	}
+
+	@Test
+	public void removeRequiresSameEntry() {
+		OpenAddressingIndex<Long, TestEntry<Long>> index = new OpenAddressingIndex<>(64);
+		TestEntry<Long> e = new TestEntry<>(1L);
+		assertTrue(index.add(e));
+		assertFalse(index.remove(new TestEntry<>(1L)));
+		assertSame(index.get(1L), e);
+		assertTrue(index.remove(e));
+		assertFalse(index.remove(e));
+		assertNull(index.get(1L));
+	}
+
+	@Test
+	public void grows() {
+		OpenAddressingIndex<Long, TestEntry<Long>> index = new OpenAddressingIndex<>(16, 0.75);
+		assertEquals(index.slots(), 32);
+		for (long i = 0; i < 1000; i++) {
+			assertTrue(index.add(new TestEntry<>(i)));
+		}
+		assertEquals(index.slots(), 2048);
+		for (long i = 0; i < 1000; i++) {
+			assertNotNull(index.get(i));
+		}
+		assertNull(index.get(1000L));
+	}
+
+	@Test
+	public void addRemove() {
+		OpenAddressingIndex<Long, TestEntry<Long>> index = new OpenAddressingIndex<>(64,
+				OpenAddressingIndex.MAX_LOAD_FACTOR);
+		List<Long> inMap = new ArrayList<>();
+		for (long i = 0; i < 128; i++) {
+			assertTrue(index.add(new TestEntry<>(i)));
+			inMap.add(i);
+		}
+		Random rnd = new Random(1234);
+		for (int n = 0; n < 1000; n++) {
+			Collections.shuffle(inMap, rnd);
+			for (int i = 0; i < 64; i++) {
+				Long key = inMap.remove(inMap.size() - 1);
+				TestEntry<Long> e = index.get(key);
+				assertNotNull(e);
+				assertTrue(index.remove(e));
+			}
+			for (long key = -100; key < 200; key++) {
+				if (key >= 0 && key < 128) {
+					if (inMap.contains(key)) {
+						assertFalse(index.add(new TestEntry<>(key)));
+						assertNotNull(index.get(key));
+					} else {
+						assertNull(index.get(key));
+						assertTrue(index.add(new TestEntry<>(key)));
+						inMap.add(key);
+					}
+				} else {
+					assertNull(index.get(key));
+				}
+			}
+			assertEquals(index.size(), 128);
+		}
+	}
+
+	@Test
+	public void backwardShiftKeepsCollidingEntriesReachable() {
+		OpenAddressingIndex<Key, TestEntry<Key>> index = new OpenAddressingIndex<>(64);
+		List<TestEntry<Key>> entries = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			// two hash codes which share their home slot with many others
+			TestEntry<Key> e = new TestEntry<>(new Key(i % 2));
+			entries.add(e);
+			assertTrue(index.add(e));
+		}
+		Random rnd = new Random(4321);
+		while (!entries.isEmpty()) {
+			TestEntry<Key> removed = entries.remove(rnd.nextInt(entries.size()));
+			assertTrue(index.remove(removed));
+			assertNull(index.get(removed.getKey()));
+			for (TestEntry<Key> e : entries) {
+				assertSame(index.get(e.getKey()), e);
+			}
+		}
+		assertEquals(index.size(), 0);
+	}
+
+	@Test
+	public void clear() {
+		OpenAddressingIndex<Long, TestEntry<Long>> index = new OpenAddressingIndex<>(64);
+		for (long i = 0; i < 64; i++) {
+			index.add(new TestEntry<>(i));
+		}
+		index.clear();
+		assertEquals(index.size(), 0);
+		for (long i = 0; i < 64; i++) {
+			assertNull(index.get(i));
+			assertTrue(index.add(new TestEntry<>(i)));
+		}
+	}
+
+	private static final class TestEntry<K> implements Entry<K> {
+
+		private final K key;
+
+		private Entry<K> nextHashEntry;
+
+		TestEntry(K key) {
+			this.key = key;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public Entry<K> getNextIndexEntry() {
+			return nextHashEntry;
+		}
+
+		@Override
+		public void setNextIndexEntry(Entry<K> nextHashEntry) {
+			this.nextHashEntry = nextHashEntry;
+		}
+	}
+
+	private static final class Key {
+
+		private final int hash;
+
+		Key(int hash) {
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj == this;
+		}
+	}
+}